@@ -0,0 +1,640 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Клас AdaptiveShortStore - мультимножина значень short, що сама обирає внутрішнє подання
+ * за спостереженим складом операцій.
+ *
+ * <p>Підтримувані подання ({@link Representation}):</p>
+ * <ul>
+ *   <li>{@link Representation#SORTED_ARRAY} - впорядкований масив: бінарний пошук і діапазони за O(log n),
+ *       мінімум/максимум і poll за O(1), але вставка зсуває елементи;</li>
+ *   <li>{@link Representation#HISTOGRAM} - лічильники по домену short з бітовою картою непорожніх значень:
+ *       пошук і вставка за O(1), діапазон - перебір слів бітової карти;</li>
+ *   <li>{@link Representation#HEAP} - двійкова купа: вставка і poll за O(log n), пошук - перебір;</li>
+ *   <li>{@link Representation#TREE} - {@link TreeMap} значення → кількість: усі операції за O(log n),
+ *       але з більшою сталою через вузли в купі.</li>
+ * </ul>
+ *
+ * <p>Кожна операція лише збільшує лічильник свого типу, тож профілювання майже безкоштовне. Після кожного
+ * вікна з {@link #WINDOW_SIZE} операцій склад вікна оцінюється моделлю вартості для кожного подання.
+ * Щоб уникнути постійних перебудов (гістерезис), подання змінюється лише тоді, коли той самий кандидат
+ * виграє {@link #HYSTERESIS_WINDOWS} вікон поспіль, дешевший за поточне щонайменше на
+ * {@link #MIN_IMPROVEMENT} і окупає вартість міграції за {@link #PAYBACK_WINDOWS} вікон. Тривалість
+ * кожної міграції виводиться через {@link PerformanceTracker}.</p>
+ */
+public class AdaptiveShortStore {
+    static final int WINDOW_SIZE = 4096;
+    static final int HYSTERESIS_WINDOWS = 2;
+    static final double MIN_IMPROVEMENT = 0.25;
+    static final int PAYBACK_WINDOWS = 4;
+
+    /**
+     * Внутрішнє подання даних.
+     */
+    public enum Representation { SORTED_ARRAY, HISTOGRAM, HEAP, TREE }
+
+    /**
+     * Тип операції у профілі навантаження.
+     */
+    enum OperationType { LOOKUP, RANGE, MIN_MAX, INSERT, POLL }
+
+    /**
+     * Спільний інтерфейс подань.
+     */
+    private interface Store {
+        void add(short value);
+
+        boolean contains(short value);
+
+        long countInRange(short from, short to);
+
+        short min();
+
+        short max();
+
+        short poll();
+
+        int size();
+
+        /** Повертає всі значення у впорядкованому вигляді. */
+        short[] toSortedArray();
+    }
+
+    private Store store;
+    private Representation representation;
+    private final long[] windowCounts = new long[OperationType.values().length];
+    private long windowRangeWidth;
+    private int windowOperations;
+    private Representation candidate;
+    private int candidateWins;
+    private int migrationCount;
+
+    /**
+     * Створює сховище з початкових значень у поданні {@link Representation#SORTED_ARRAY}.
+     *
+     * @param values Початкові значення.
+     */
+    AdaptiveShortStore(Short[] values) {
+        this(SortedShortRun.of(values));
+    }
+
+    /**
+     * Створює сховище з уже впорядкованих значень у поданні {@link Representation#SORTED_ARRAY}.
+     *
+     * @param sortedRun Впорядковані початкові значення.
+     */
+    AdaptiveShortStore(SortedShortRun sortedRun) {
+        this.representation = Representation.SORTED_ARRAY;
+        this.store = build(representation, sortedRun.toShortArray());
+    }
+
+    /**
+     * Додає значення.
+     *
+     * @param value Значення.
+     */
+    public void add(short value) {
+        record(OperationType.INSERT);
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.ADD, value);
+        store.add(value);
+    }
+
+    /**
+     * Перевіряє наявність значення.
+     *
+     * @param value Значення.
+     * @return true, якщо значення є у сховищі.
+     */
+    public boolean contains(short value) {
+        record(OperationType.LOOKUP);
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.SEARCH, value);
+        return store.contains(value);
+    }
+
+    /**
+     * Підраховує значення в діапазоні [from, to] включно.
+     *
+     * @param from Нижня межа.
+     * @param to Верхня межа.
+     * @return Кількість значень з повторами; 0, якщо from більше за to.
+     */
+    public long countInRange(short from, short to) {
+        record(OperationType.RANGE);
+        windowRangeWidth += Math.max(0, to - from + 1);
+        return from > to ? 0 : store.countInRange(from, to);
+    }
+
+    /**
+     * Повертає найменше значення.
+     *
+     * @return Найменше значення.
+     * @throws NoSuchElementException якщо сховище порожнє.
+     */
+    public short min() {
+        record(OperationType.MIN_MAX);
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.MIN_MAX, (short) 0);
+        requireNotEmpty();
+        return store.min();
+    }
+
+    /**
+     * Повертає найбільше значення.
+     *
+     * @return Найбільше значення.
+     * @throws NoSuchElementException якщо сховище порожнє.
+     */
+    public short max() {
+        record(OperationType.MIN_MAX);
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.MIN_MAX, (short) 0);
+        requireNotEmpty();
+        return store.max();
+    }
+
+    /**
+     * Вилучає найменше значення.
+     *
+     * @return Найменше значення.
+     * @throws NoSuchElementException якщо сховище порожнє.
+     */
+    public short poll() {
+        record(OperationType.POLL);
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.POLL, (short) 0);
+        requireNotEmpty();
+        return store.poll();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public Representation getRepresentation() {
+        return representation;
+    }
+
+    public int getMigrationCount() {
+        return migrationCount;
+    }
+
+    /**
+     * Оцінює вартість вікна операцій для подання в умовних одиницях (приблизно - доступи до пам'яті).
+     *
+     * @param kind Подання.
+     * @param counts Кількість операцій кожного типу.
+     * @param averageRangeWidth Середня ширина діапазону в запитах RANGE.
+     * @param size Кількість елементів.
+     * @return Оцінка вартості.
+     */
+    static double estimateCost(Representation kind, long[] counts, double averageRangeWidth, int size) {
+        double n = Math.max(1, size);
+        double log = 64 - Long.numberOfLeadingZeros(size + 1L);
+        // очікувана кількість різних значень у діапазоні
+        double distinctInRange = Math.min(averageRangeWidth, n * averageRangeWidth / ShortQueryEngine.DOMAIN_SIZE);
+        double[] perOperation;
+        switch (kind) {
+            case SORTED_ARRAY:
+                perOperation = new double[] {log, 2 * log, 1, n / 8, 1};
+                break;
+            case HISTOGRAM:
+                perOperation = new double[] {1, averageRangeWidth / 64 + distinctInRange, 16, 1, 16};
+                break;
+            case HEAP:
+                perOperation = new double[] {n / 2, n, n / 4, log, 2 * log};
+                break;
+            default:
+                perOperation = new double[] {3 * log, 3 * log + 3 * distinctInRange, 3 * log, 4 * log, 3 * log};
+                break;
+        }
+        double cost = 0;
+        for (OperationType type : OperationType.values()) {
+            cost += counts[type.ordinal()] * perOperation[type.ordinal()];
+        }
+        return cost;
+    }
+
+    /**
+     * Оцінює вартість перебудови в подання з n елементів.
+     */
+    static double estimateMigrationCost(Representation target, int size) {
+        double n = Math.max(1, size);
+        switch (target) {
+            case HISTOGRAM:
+                return 2 * n + ShortQueryEngine.DOMAIN_SIZE / 8.0;
+            case TREE:
+                return n * (64 - Long.numberOfLeadingZeros(size + 1L)) * 3;
+            default:
+                return 2 * n;
+        }
+    }
+
+    private void record(OperationType type) {
+        windowCounts[type.ordinal()]++;
+        if (++windowOperations >= WINDOW_SIZE) {
+            evaluateWindow();
+        }
+    }
+
+    private void evaluateWindow() {
+        long ranges = windowCounts[OperationType.RANGE.ordinal()];
+        double averageRangeWidth = ranges == 0 ? 0 : (double) windowRangeWidth / ranges;
+        int size = store.size();
+
+        double currentCost = estimateCost(representation, windowCounts, averageRangeWidth, size);
+        Representation best = representation;
+        double bestCost = currentCost;
+        for (Representation kind : Representation.values()) {
+            double cost = estimateCost(kind, windowCounts, averageRangeWidth, size);
+            if (cost < bestCost) {
+                best = kind;
+                bestCost = cost;
+            }
+        }
+
+        boolean worthwhile = best != representation
+                && bestCost <= currentCost * (1 - MIN_IMPROVEMENT)
+                && (currentCost - bestCost) * PAYBACK_WINDOWS > estimateMigrationCost(best, size);
+        if (worthwhile && best == candidate) {
+            candidateWins++;
+        } else {
+            candidate = worthwhile ? best : null;
+            candidateWins = worthwhile ? 1 : 0;
+        }
+        if (candidateWins >= HYSTERESIS_WINDOWS) {
+            migrate(best);
+        }
+
+        Arrays.fill(windowCounts, 0);
+        windowRangeWidth = 0;
+        windowOperations = 0;
+    }
+
+    private void migrate(Representation target) {
+        long timeStart = PerformanceTracker.startTiming();
+        Representation source = representation;
+        store = build(target, store.toSortedArray());
+        representation = target;
+        migrationCount++;
+        candidate = null;
+        candidateWins = 0;
+        PerformanceTracker.displayOperationTime(timeStart, "міграція " + source + " → " + target,
+                "AdaptiveShortStore", store.size(), target);
+    }
+
+    private void requireNotEmpty() {
+        if (store.size() == 0) {
+            throw new NoSuchElementException("Сховище порожнє");
+        }
+    }
+
+    private static Store build(Representation kind, short[] sorted) {
+        switch (kind) {
+            case SORTED_ARRAY:
+                return new SortedArrayStore(sorted);
+            case HISTOGRAM:
+                return new HistogramStore(sorted);
+            case HEAP:
+                return new HeapStore(sorted);
+            default:
+                return new TreeStore(sorted);
+        }
+    }
+
+    /**
+     * Впорядкований масив; вилучені poll() елементи відрізаються зсувом початку.
+     */
+    private static final class SortedArrayStore implements Store {
+        private short[] data;
+        private int head;
+        private int size;
+
+        SortedArrayStore(short[] sorted) {
+            this.data = sorted;
+            this.size = sorted.length;
+        }
+
+        public void add(short value) {
+            int position = upperBound(value);
+            if (head + size == data.length) {
+                // стискаємо вилучений початок або розширюємо масив
+                short[] target = size + 1 <= data.length / 2 ? data : new short[Math.max(16, data.length * 2)];
+                System.arraycopy(data, head, target, 0, size);
+                position -= head;
+                data = target;
+                head = 0;
+            }
+            System.arraycopy(data, position, data, position + 1, head + size - position);
+            data[position] = value;
+            size++;
+        }
+
+        public boolean contains(short value) {
+            return Arrays.binarySearch(data, head, head + size, value) >= 0;
+        }
+
+        public long countInRange(short from, short to) {
+            return upperBound(to) - lowerBound(from);
+        }
+
+        public short min() {
+            return data[head];
+        }
+
+        public short max() {
+            return data[head + size - 1];
+        }
+
+        public short poll() {
+            size--;
+            return data[head++];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public short[] toSortedArray() {
+            return Arrays.copyOfRange(data, head, head + size);
+        }
+
+        private int lowerBound(short value) {
+            int low = head;
+            int high = head + size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (data[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int upperBound(short value) {
+            int low = head;
+            int high = head + size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (data[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Лічильники по домену short і бітова карта непорожніх значень (біт на значення).
+     */
+    private static final class HistogramStore implements Store {
+        private final int[] counts = new int[ShortQueryEngine.DOMAIN_SIZE];
+        private final long[] words = new long[ShortQueryEngine.DOMAIN_SIZE / 64];
+        private int size;
+
+        HistogramStore(short[] sorted) {
+            for (short value : sorted) {
+                add(value);
+            }
+        }
+
+        public void add(short value) {
+            int index = ShortQueryEngine.indexOf(value);
+            counts[index]++;
+            words[index >>> 6] |= 1L << index;
+            size++;
+        }
+
+        public boolean contains(short value) {
+            return counts[ShortQueryEngine.indexOf(value)] > 0;
+        }
+
+        public long countInRange(short from, short to) {
+            int first = ShortQueryEngine.indexOf(from);
+            int last = ShortQueryEngine.indexOf(to);
+            long total = 0;
+            for (int word = first >>> 6; word <= last >>> 6; word++) {
+                long bits = words[word];
+                if (word == first >>> 6) {
+                    bits &= -1L << first;
+                }
+                if (word == last >>> 6) {
+                    bits &= -1L >>> (63 - (last & 63));
+                }
+                while (bits != 0) {
+                    total += counts[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                    bits &= bits - 1;
+                }
+            }
+            return total;
+        }
+
+        public short min() {
+            for (int word = 0; word < words.length; word++) {
+                if (words[word] != 0) {
+                    return ShortQueryEngine.valueAt((word << 6) + Long.numberOfTrailingZeros(words[word]));
+                }
+            }
+            throw new IllegalStateException("Гістограма порожня");
+        }
+
+        public short max() {
+            for (int word = words.length - 1; word >= 0; word--) {
+                if (words[word] != 0) {
+                    return ShortQueryEngine.valueAt((word << 6) + 63 - Long.numberOfLeadingZeros(words[word]));
+                }
+            }
+            throw new IllegalStateException("Гістограма порожня");
+        }
+
+        public short poll() {
+            short value = min();
+            int index = ShortQueryEngine.indexOf(value);
+            if (--counts[index] == 0) {
+                words[index >>> 6] &= ~(1L << index);
+            }
+            size--;
+            return value;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public short[] toSortedArray() {
+            short[] result = new short[size];
+            int position = 0;
+            for (int word = 0; word < words.length; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    Arrays.fill(result, position, position + counts[index], ShortQueryEngine.valueAt(index));
+                    position += counts[index];
+                    bits &= bits - 1;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Двійкова мін-купа на примітивному масиві. Впорядкований масив уже є купою,
+     * тому побудова з нього не потребує перестановок.
+     */
+    private static final class HeapStore implements Store {
+        private short[] heap;
+        private int size;
+
+        HeapStore(short[] sorted) {
+            this.heap = sorted.length == 0 ? new short[16] : sorted;
+            this.size = sorted.length;
+        }
+
+        public void add(short value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+            int position = size++;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[position] = heap[parent];
+                position = parent;
+            }
+            heap[position] = value;
+        }
+
+        public boolean contains(short value) {
+            for (int i = 0; i < size; i++) {
+                if (heap[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long countInRange(short from, short to) {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                if (heap[i] >= from && heap[i] <= to) {
+                    total++;
+                }
+            }
+            return total;
+        }
+
+        public short min() {
+            return heap[0];
+        }
+
+        public short max() {
+            // максимум купи - серед листків, тобто в другій половині масиву
+            short max = heap[size - 1];
+            for (int i = size >>> 1; i < size; i++) {
+                max = (short) Math.max(max, heap[i]);
+            }
+            return max;
+        }
+
+        public short poll() {
+            short result = heap[0];
+            short last = heap[--size];
+            int position = 0;
+            int half = size >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[position] = heap[child];
+                position = child;
+            }
+            if (size > 0) {
+                heap[position] = last;
+            }
+            return result;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public short[] toSortedArray() {
+            short[] result = Arrays.copyOf(heap, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    /**
+     * Впорядкована мапа значення → кількість входжень.
+     */
+    private static final class TreeStore implements Store {
+        private final TreeMap<Short, Integer> counts = new TreeMap<>();
+        private int size;
+
+        TreeStore(short[] sorted) {
+            for (short value : sorted) {
+                add(value);
+            }
+        }
+
+        public void add(short value) {
+            counts.merge(value, 1, Integer::sum);
+            size++;
+        }
+
+        public boolean contains(short value) {
+            return counts.containsKey(value);
+        }
+
+        public long countInRange(short from, short to) {
+            long total = 0;
+            for (int count : counts.subMap(from, true, to, true).values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        public short min() {
+            return counts.firstKey();
+        }
+
+        public short max() {
+            return counts.lastKey();
+        }
+
+        public short poll() {
+            Map.Entry<Short, Integer> first = counts.firstEntry();
+            if (first.getValue() == 1) {
+                counts.pollFirstEntry();
+            } else {
+                counts.put(first.getKey(), first.getValue() - 1);
+            }
+            size--;
+            return first.getKey();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public short[] toSortedArray() {
+            short[] result = new short[size];
+            int position = 0;
+            for (Map.Entry<Short, Integer> entry : counts.entrySet()) {
+                Arrays.fill(result, position, position + entry.getValue(), entry.getKey());
+                position += entry.getValue();
+            }
+            return result;
+        }
+    }
+}
@@ -1,3 +1,8 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
 /**
  * Загальний клас BasicDataOperation координує роботу різних структур даних.
  * 
@@ -11,35 +16,56 @@
  *   <li>Порівняльний аналіз продуктивності структур даних</li>
  *   <li>Централізоване управління обробкою даних</li>
  *   <li>Демонстрація переваг різних колекцій</li>
+ *   <li>Запити діапазонів, рангу та перцентилів ({@link ShortQueryEngine})</li>
+ *   <li>Потокова статистика файлу з обмеженим обсягом пам'яті ({@link StreamingStatistics})</li>
+ *   <li>Оцінка обсягу пам'яті структур даних ({@link MemoryFootprint})</li>
+ *   <li>Автоматичний вибір подання за складом операцій ({@link AdaptiveShortStore})</li>
+ *   <li>Стовпець поза купою, відображений на файл ({@link OffHeapShortColumn})</li>
  * </ul>
  * 
  * <p>Приклад використання:</p>
  * <pre>
  * {@code
- * java BasicDataOperation "2024-03-16T00:12:38Z" list
- * java BasicDataOperation "2024-03-16T00:12:38Z" queue  
- * java BasicDataOperation "2024-03-16T00:12:38Z" set
- * java BasicDataOperation "2024-03-16T00:12:38Z" all
+ * java BasicDataOperation 420 list
+ * java BasicDataOperation 420 queue
+ * java BasicDataOperation 420 set
+ * java BasicDataOperation 420 adaptive
+ * java BasicDataOperation 420 footprint
+ * java BasicDataOperation 420 all
  * }
  * </pre>
+ *
+ * <p>Оцінка обсягу пам'яті викликає збирання сміття, тому режим {@code all} виконує її
+ * лише з властивістю {@code -Dmemory.footprint=true}.</p>
+ *
+ * <p>Режим консольного виводу задається властивістю {@code -Doutput.mode=direct|quiet|buffered|async}
+ * (див. {@link OutputSink}).</p>
  */
 public class BasicDataOperation {
     static final String PATH_TO_DATA_FILE = "list/short.data";
 
     Short shortValueToSearch;
     Short[] shortArray;
+    SortedShortRun sortedRun;
 
     private static final String SEPARATOR = "\n" + "=".repeat(80) + "\n";
     private static final String USAGE_MESSAGE = """
-        Використання: java BasicDataOperation <пошукове-значення>
-               
-        Приклад:
-          java BasicDataOperation "420"
+        Використання: java BasicDataOperation <пошукове-значення> [list|queue|set|adaptive|footprint|all]
+
+        Без другого аргументу виконуються всі операції (all); оцінка обсягу пам'яті (footprint)
+        входить до all лише з -Dmemory.footprint=true, бо викликає збирання сміття.
+
+        Приклади:
+          java BasicDataOperation 420
+          java BasicDataOperation 420 queue
+          java BasicDataOperation 420 adaptive
         """;
+    private static final List<String> MODES = List.of("list", "queue", "set", "adaptive", "footprint", "all");
 
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println(USAGE_MESSAGE);
+        if (args.length < 1 || args.length > 2) {
+            OutputSink.println(USAGE_MESSAGE);
+            OutputSink.flush();
             return;
         }
 
@@ -49,7 +75,15 @@ public class BasicDataOperation {
         try {
             Short.parseShort(searchValue);
         } catch (Exception e) {
-            System.out.println("Помилка: Невірний формат короткого числа (-32,768 - 32,767).");
+            OutputSink.println("Помилка: Невірний формат короткого числа (-32,768 - 32,767).");
+            OutputSink.flush();
+            return;
+        }
+
+        if (args.length == 2 && !MODES.contains(args[1].toLowerCase())) {
+            OutputSink.println("Помилка: Невідомий режим '" + args[1] + "'.");
+            OutputSink.println(USAGE_MESSAGE);
+            OutputSink.flush();
             return;
         }
 
@@ -63,20 +97,63 @@ public class BasicDataOperation {
      * @param args Аргументи командного рядка
      */
     private void executeOperations(String[] args) {
-        System.out.println(SEPARATOR);
-        System.out.println("🚀 РОЗПОЧАТО АНАЛІЗ ДАНИХ short 🚀");
-        System.out.println("Пошуковий параметр: " + args[0]);
-        System.out.println(SEPARATOR);
+        OutputSink.println(SEPARATOR);
+        OutputSink.println("🚀 РОЗПОЧАТО АНАЛІЗ ДАНИХ short 🚀");
+        OutputSink.println("Пошуковий параметр: " + args[0]);
+        String mode = args.length > 1 ? args[1].toLowerCase() : "all";
+        OutputSink.println("Режим: " + mode);
+        OutputSink.println(SEPARATOR);
         
         // Підготовка даних та перевірка формату
         shortValueToSearch = Short.parseShort(args[0]);
         shortArray = DataFileHandler.loadArrayFromFile(PATH_TO_DATA_FILE);
         
-        runAllOperations();
+        switch (mode) {
+            case "list":
+                runListOperations();
+                break;
+            case "queue":
+                runQueueOperations();
+                break;
+            case "set":
+                runSetOperations();
+                break;
+            case "adaptive":
+                runAdaptiveOperations();
+                break;
+            case "footprint":
+                runMemoryFootprint();
+                break;
+            default:
+                runAllOperations();
+                break;
+        }
+
+        // трасу операцій обробників (-Dworkload.trace=файл) можна відтворити через LoadGenerator
+        WorkloadTrace.saveRecording();
+
+        OutputSink.println(SEPARATOR);
+        OutputSink.println("✅ АНАЛІЗ ЗАВЕРШЕНО ✅");
+        OutputSink.println(SEPARATOR);
+
+        // дописуємо накопичений вивід (режими buffered та async)
+        OutputSink.flush();
+    }
 
-        System.out.println(SEPARATOR);
-        System.out.println("✅ АНАЛІЗ ЗАВЕРШЕНО ✅");
-        System.out.println(SEPARATOR);
+    /**
+     * Повертає впорядковані дані, сортуючи їх під час першого звернення.
+     * Черга, множина та адаптивне сховище будуються з одного результату; режим list його не потребує.
+     *
+     * @return Впорядковані значення shortArray.
+     */
+    private SortedShortRun sortedRun() {
+        if (sortedRun == null) {
+            long timeStart = PerformanceTracker.startTiming();
+            sortedRun = SortedShortRun.of(shortArray);
+            PerformanceTracker.displayOperationTime(timeStart, "одноразове сортування даних short для побудови структур",
+                    "Short[]", shortArray.length, sortedRun.distinctCount());
+        }
+        return sortedRun;
     }
 
     /**
@@ -84,15 +161,15 @@ public class BasicDataOperation {
      *
      */
     private void runListOperations() {
-        System.out.println("📋 ОБРОБКА ДАНИХ З ВИКОРИСТАННЯМ LIST");
-        System.out.println("-".repeat(50));
+        OutputSink.println("📋 ОБРОБКА ДАНИХ З ВИКОРИСТАННЯМ LIST");
+        OutputSink.println("-".repeat(50));
         
         try {
             // Створення екземпляра класу з передаванням даних
             BasicDataOperationUsingList listProcessor = new BasicDataOperationUsingList(shortValueToSearch, shortArray);
             listProcessor.executeDataOperations();
         } catch (Exception e) {
-            System.out.println("❌ Помилка при роботі з List: " + e.getMessage());
+            OutputSink.println("❌ Помилка при роботі з List: " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -102,15 +179,15 @@ public class BasicDataOperation {
      *
      */
     private void runQueueOperations() {
-        System.out.println("🔄 ОБРОБКА ДАНИХ З ВИКОРИСТАННЯМ QUEUE");
-        System.out.println("-".repeat(50));
+        OutputSink.println("🔄 ОБРОБКА ДАНИХ З ВИКОРИСТАННЯМ QUEUE");
+        OutputSink.println("-".repeat(50));
         
         try {
             // Створення екземпляра класу з передаванням даних
-            BasicDataOperationUsingQueue queueProcessor = new BasicDataOperationUsingQueue(shortValueToSearch, shortArray);
+            BasicDataOperationUsingQueue queueProcessor = new BasicDataOperationUsingQueue(shortValueToSearch, shortArray, sortedRun());
             queueProcessor.runDataProcessing();
         } catch (Exception e) {
-            System.out.println("❌ Помилка при роботі з Queue: " + e.getMessage());
+            OutputSink.println("❌ Помилка при роботі з Queue: " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -120,15 +197,15 @@ public class BasicDataOperation {
      *
      */
     private void runSetOperations() {
-        System.out.println("🔍 ОБРОБКА ДАНИХ З ВИКОРИСТАННЯМ SET");
-        System.out.println("-".repeat(50));
+        OutputSink.println("🔍 ОБРОБКА ДАНИХ З ВИКОРИСТАННЯМ SET");
+        OutputSink.println("-".repeat(50));
         
         try {
             // Створення екземпляра класу з передаванням даних
-            BasicDataOperationUsingSet setProcessor = new BasicDataOperationUsingSet(shortValueToSearch, shortArray);
+            BasicDataOperationUsingSet setProcessor = new BasicDataOperationUsingSet(shortValueToSearch, shortArray, sortedRun());
             setProcessor.executeDataAnalysis();
         } catch (Exception e) {
-            System.out.println("❌ Помилка при роботі з Set: " + e.getMessage());
+            OutputSink.println("❌ Помилка при роботі з Set: " + e.getMessage());
             e.printStackTrace();
         }
     }
@@ -138,18 +215,228 @@ public class BasicDataOperation {
      *
      */
     private void runAllOperations() {
-        System.out.println("🎯 КОМПЛЕКСНИЙ АНАЛІЗ ВСІХ СТРУКТУР ДАНИХ");
-        System.out.println("=".repeat(60));
+        OutputSink.println("🎯 КОМПЛЕКСНИЙ АНАЛІЗ ВСІХ СТРУКТУР ДАНИХ");
+        OutputSink.println("=".repeat(60));
         
         // Обробка List
         runListOperations();
-        System.out.println("\n" + "~".repeat(60) + "\n");
+        OutputSink.println("\n" + "~".repeat(60) + "\n");
         
         // Обробка Queue  
         runQueueOperations();
-        System.out.println("\n" + "~".repeat(60) + "\n");
+        OutputSink.println("\n" + "~".repeat(60) + "\n");
         
         // Обробка Set
         runSetOperations();
+        OutputSink.println("\n" + "~".repeat(60) + "\n");
+
+        // Запити діапазонів, рангу та перцентилів
+        runQueryOperations();
+        OutputSink.println("\n" + "~".repeat(60) + "\n");
+
+        // Потокова статистика файлу без завантаження масиву
+        runStreamingStatistics();
+        OutputSink.println("\n" + "~".repeat(60) + "\n");
+
+        // Автоматичний вибір подання за складом операцій
+        runAdaptiveOperations();
+        OutputSink.println("\n" + "~".repeat(60) + "\n");
+
+        // Стовпець поза купою, відображений на файл
+        runOffHeapColumn();
+
+        // Обсяг пам'яті структур (виконується останнім і лише на вимогу, бо викликає збирання сміття)
+        if (MemoryFootprint.ENABLED) {
+            OutputSink.println("\n" + "~".repeat(60) + "\n");
+            runMemoryFootprint();
+        }
+    }
+
+    /**
+     * Оцінює обсяг пам'яті структур List, Queue та Set і порівнює з примітивними альтернативами.
+     *
+     */
+    private void runMemoryFootprint() {
+        OutputSink.println("💾 ОБСЯГ ПАМ'ЯТІ СТРУКТУР ДАНИХ");
+        OutputSink.println("-".repeat(50));
+
+        try {
+            MemoryFootprint.reportShortStructures(shortArray);
+        } catch (Exception e) {
+            OutputSink.println("❌ Помилка при оцінці обсягу пам'яті: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Обчислює статистику файлу даних за один прохід, обробляючи частини файлу паралельно.
+     *
+     */
+    private void runStreamingStatistics() {
+        OutputSink.println("🌊 ПОТОКОВА СТАТИСТИКА ФАЙЛУ ДАНИХ");
+        OutputSink.println("-".repeat(50));
+
+        try {
+            long timeStart = PerformanceTracker.startTiming();
+
+            StreamingStatistics statistics = StreamingStatistics.analyzeFile(PATH_TO_DATA_FILE,
+                    Runtime.getRuntime().availableProcessors());
+
+            PerformanceTracker.displayOperationTime(timeStart, "потокова статистика файлу short");
+
+            statistics.printReport(PATH_TO_DATA_FILE);
+        } catch (Exception e) {
+            OutputSink.println("❌ Помилка при обчисленні потокової статистики: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Виконує запити діапазону, рангу та перцентилів над даними short.
+     *
+     */
+    private void runQueryOperations() {
+        OutputSink.println("📊 ЗАПИТИ ДІАПАЗОНІВ, РАНГІВ ТА ПЕРЦЕНТИЛІВ");
+        OutputSink.println("-".repeat(50));
+
+        long timeStart = PerformanceTracker.startTiming();
+        ShortQueryEngine queryEngine = new ShortHistogramQueryEngine(shortArray);
+        PerformanceTracker.displayOperationTime(timeStart, "побудова гістограми префіксних сум short",
+                "Short[]", shortArray.length, null);
+
+        short searchValue = shortValueToSearch;
+        short rangeFrom = (short) Math.max(Short.MIN_VALUE, searchValue - 1000);
+        short rangeTo = (short) Math.min(Short.MAX_VALUE, searchValue + 1000);
+
+        timeStart = PerformanceTracker.startTiming();
+        long rank = queryEngine.rank(searchValue);
+        long rangeCount = queryEngine.countInRange(rangeFrom, rangeTo);
+        PerformanceTracker.displayOperationTime(timeStart, "визначення рангу та кількості в діапазоні",
+                "ShortHistogramQueryEngine", queryEngine.size(), rank + "/" + rangeCount);
+
+        OutputSink.println("Ранг значення '" + searchValue + "': " + rank + " з " + queryEngine.size());
+        OutputSink.println("Кількість значень у діапазоні [" + rangeFrom + ", " + rangeTo + "]: " + rangeCount);
+
+        if (queryEngine.size() == 0) {
+            return;
+        }
+
+        timeStart = PerformanceTracker.startTiming();
+        short p50 = queryEngine.percentile(50);
+        short p90 = queryEngine.percentile(90);
+        short p99 = queryEngine.percentile(99);
+        PerformanceTracker.displayOperationTime(timeStart, "обчислення перцентилів p50/p90/p99",
+                "ShortHistogramQueryEngine", queryEngine.size(), p50 + "/" + p90 + "/" + p99);
+
+        OutputSink.println("p50: " + p50 + ", p90: " + p90 + ", p99: " + p99);
+    }
+
+    /**
+     * Виконує фази з різним складом операцій над {@link AdaptiveShortStore} і показує,
+     * яке подання сховище обирає для кожної фази.
+     *
+     */
+    private void runAdaptiveOperations() {
+        OutputSink.println("🧠 АДАПТИВНИЙ ВИБІР СТРУКТУРИ ДАНИХ");
+        OutputSink.println("-".repeat(50));
+
+        try {
+            AdaptiveShortStore store = new AdaptiveShortStore(sortedRun());
+            Random random = new Random(shortValueToSearch);
+            int phaseOperations = 4 * AdaptiveShortStore.WINDOW_SIZE;
+            OutputSink.println("Початкове подання: " + store.getRepresentation());
+
+            long timeStart = PerformanceTracker.startTiming();
+            int found = 0;
+            for (int i = 0; i < phaseOperations; i++) {
+                if (store.contains((short) random.nextInt())) {
+                    found++;
+                }
+            }
+            PerformanceTracker.displayOperationTime(timeStart, "фаза точкових пошуків",
+                    "AdaptiveShortStore", store.size(), store.getRepresentation());
+            OutputSink.println("Знайдено: " + found + ", подання: " + store.getRepresentation());
+
+            timeStart = PerformanceTracker.startTiming();
+            long inRange = 0;
+            for (int i = 0; i < phaseOperations; i++) {
+                short from = (short) random.nextInt();
+                inRange += store.countInRange(from, (short) Math.min(Short.MAX_VALUE, from + 4096));
+            }
+            PerformanceTracker.displayOperationTime(timeStart, "фаза запитів діапазонів",
+                    "AdaptiveShortStore", store.size(), store.getRepresentation());
+            OutputSink.println("Значень у діапазонах: " + inRange + ", подання: " + store.getRepresentation());
+
+            timeStart = PerformanceTracker.startTiming();
+            long polledSum = 0;
+            for (int i = 0; i < phaseOperations / 2; i++) {
+                store.add((short) random.nextInt());
+                polledSum += store.poll();
+            }
+            PerformanceTracker.displayOperationTime(timeStart, "фаза вставок і вилучень мінімуму",
+                    "AdaptiveShortStore", store.size(), store.getRepresentation());
+            OutputSink.println("Сума вилучених: " + polledSum + ", подання: " + store.getRepresentation());
+
+            timeStart = PerformanceTracker.startTiming();
+            for (int i = 0; i < phaseOperations / 2; i++) {
+                store.add((short) random.nextInt());
+                store.max();
+            }
+            PerformanceTracker.displayOperationTime(timeStart, "фаза вставок і пошуку максимуму",
+                    "AdaptiveShortStore", store.size(), store.getRepresentation());
+            OutputSink.println("Максимум: " + store.max() + ", подання: " + store.getRepresentation());
+
+            OutputSink.println("Кількість міграцій: " + store.getMigrationCount());
+        } catch (Exception e) {
+            OutputSink.println("❌ Помилка при адаптивній обробці: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Перетворює файл даних на стовпець поза купою, відображає його на пам'ять
+     * і виконує сортування, пошук та пошук мінімуму й максимуму без об'єктів Short.
+     *
+     */
+    private void runOffHeapColumn() {
+        OutputSink.println("🗄️ СТОВПЕЦЬ ПОЗА КУПОЮ");
+        OutputSink.println("-".repeat(50));
+
+        try {
+            Path columnFile = Files.createTempFile("short", OffHeapShortColumn.FILE_SUFFIX);
+            columnFile.toFile().deleteOnExit();
+
+            long timeStart = PerformanceTracker.startTiming();
+            long imported = OffHeapShortColumn.importDataFile(PATH_TO_DATA_FILE, columnFile);
+            PerformanceTracker.displayOperationTime(timeStart, "перетворення файлу short на стовпець",
+                    "OffHeapShortColumn", imported, null);
+
+            try (OffHeapShortColumn column = OffHeapShortColumn.map(columnFile, true)) {
+                timeStart = PerformanceTracker.startTiming();
+                short[] bounds = column.minMax();
+                PerformanceTracker.displayOperationTime(timeStart, "визначення мінімуму й максимуму стовпця",
+                        "OffHeapShortColumn", column.size(), bounds[0] + ".." + bounds[1]);
+
+                timeStart = PerformanceTracker.startTiming();
+                column.sort();
+                PerformanceTracker.displayOperationTime(timeStart, "сортування стовпця підрахунком",
+                        "OffHeapShortColumn", column.size(), null);
+
+                timeStart = PerformanceTracker.startTiming();
+                long position = column.binarySearch(shortValueToSearch);
+                PerformanceTracker.displayOperationTime(timeStart, "бінарний пошук у стовпці",
+                        "OffHeapShortColumn", column.size(), position);
+
+                OutputSink.println("Найменше значення: " + bounds[0] + ", найбільше: " + bounds[1]);
+                if (position >= 0) {
+                    OutputSink.println("Елемент '" + shortValueToSearch + "' знайдено в стовпці за позицією: " + position);
+                } else {
+                    OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній у стовпці.");
+                }
+            }
+        } catch (Exception e) {
+            OutputSink.println("❌ Помилка при роботі зі стовпцем поза купою: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
 }
@@ -2,26 +2,42 @@ import java.util.*;
 
 /**
  * Клас BasicDataOperationUsingList реалізує операції з колекціями типу ArrayList для даних short.
- * 
+ *
+ * <p>Послідовності операцій виконуються за планом {@link OperationPlanner}: після сортування
+ * пошук стає бінарним, а мінімум і максимум беруться з крайніх елементів або з уже обчислених значень.</p>
+ *
  * <p>Методи класу:</p>
  * <ul>
  *   <li>{@link #executeDataOperations()} - Виконує комплекс операцій з даними.</li>
- *   <li>{@link #performArraySorting()} - Упорядковує масив елементів short.</li>
- *   <li>{@link #findInArray()} - Здійснює пошук елемента в масиві short.</li>
- *   <li>{@link #locateMinMaxInArray()} - Визначає найменше і найбільше значення в масиві.</li>
- *   <li>{@link #sortList()} - Сортує колекцію List з short.</li>
- *   <li>{@link #findInList()} - Пошук конкретного значення в списку.</li>
- *   <li>{@link #locateMinMaxInList()} - Пошук мінімального і максимального значення в списку.</li>
+ *   <li>{@link #performArraySorting(OperationPlanner.Strategy)} - Упорядковує масив елементів short.</li>
+ *   <li>{@link #findInArray(OperationPlanner.Strategy)} - Здійснює пошук елемента в масиві short.</li>
+ *   <li>{@link #locateMinMaxInArray(OperationPlanner.Strategy)} - Визначає найменше і найбільше значення в масиві.</li>
+ *   <li>{@link #sortList(OperationPlanner.Strategy)} - Сортує колекцію List з short.</li>
+ *   <li>{@link #findInList(OperationPlanner.Strategy)} - Пошук конкретного значення в списку.</li>
+ *   <li>{@link #locateMinMaxInList(OperationPlanner.Strategy)} - Пошук мінімального і максимального значення в списку.</li>
  * </ul>
  */
 public class BasicDataOperationUsingList {
+    private static final List<OperationPlanner.Operation> DATA_OPERATIONS = List.of(
+            OperationPlanner.Operation.FIND,
+            OperationPlanner.Operation.MIN_MAX,
+            OperationPlanner.Operation.SORT,
+            OperationPlanner.Operation.FIND,
+            OperationPlanner.Operation.MIN_MAX);
+
     private Short shortValueToSearch;
     private Short[] shortArray;
     private Vector<Short> shortList;
 
+    private Short listMinValue;
+    private Short listMaxValue;
+    private Short arrayMinValue;
+    private Short arrayMaxValue;
+    private EytzingerIndex.OfShort searchIndex;
+
     /**
      * Конструктор, який iнiцiалiзує об'єкт з готовими даними.
-     * 
+     *
      * @param shortValueToSearch Значення для пошуку
      * @param shortArray Масив short
      */
@@ -30,31 +46,55 @@ public class BasicDataOperationUsingList {
         this.shortArray = shortArray;
         this.shortList = new Vector<>(Arrays.asList(shortArray));
     }
-    
+
     /**
      * Виконує комплексні операції з структурами даних.
-     * 
-     * Метод завантажує масив і список об'єктів short, 
-     * здійснює сортування та пошукові операції.
+     *
+     * Метод складає план для списку і масиву об'єктів short
+     * та виконує сортування і пошукові операції за цим планом.
      */
     public void executeDataOperations() {
         // спочатку працюємо з колекцією List
-        findInList();
-        locateMinMaxInList();
-        
-        sortList();
-        
-        findInList();
-        locateMinMaxInList();
-
-        // потім обробляємо масив дати та часу
-        findInArray();
-        locateMinMaxInArray();
-
-        performArraySorting();
-        
-        findInArray();
-        locateMinMaxInArray();
+        EnumSet<OperationPlanner.Property> listProperties = OperationPlanner.detectProperties(shortList);
+        List<OperationPlanner.Step> listPlan = OperationPlanner.plan(listProperties, DATA_OPERATIONS);
+        OperationPlanner.printPlan("List", listPlan);
+
+        for (OperationPlanner.Step step : listPlan) {
+            switch (step.getOperation()) {
+                case FIND:
+                    findInList(step.getStrategy());
+                    break;
+                case MIN_MAX:
+                    locateMinMaxInList(step.getStrategy());
+                    break;
+                case SORT:
+                    sortList(step.getStrategy());
+                    break;
+                default:
+                    throw new IllegalStateException("Операція не підтримується для List: " + step.getOperation());
+            }
+        }
+
+        // потім обробляємо масив short
+        EnumSet<OperationPlanner.Property> arrayProperties = OperationPlanner.detectProperties(Arrays.asList(shortArray));
+        List<OperationPlanner.Step> arrayPlan = OperationPlanner.plan(arrayProperties, DATA_OPERATIONS);
+        OperationPlanner.printPlan("масиву", arrayPlan);
+
+        for (OperationPlanner.Step step : arrayPlan) {
+            switch (step.getOperation()) {
+                case FIND:
+                    findInArray(step.getStrategy());
+                    break;
+                case MIN_MAX:
+                    locateMinMaxInArray(step.getStrategy());
+                    break;
+                case SORT:
+                    performArraySorting(step.getStrategy());
+                    break;
+                default:
+                    throw new IllegalStateException("Операція не підтримується для масиву: " + step.getOperation());
+            }
+        }
 
         // зберігаємо відсортований масив до окремого файлу
         DataFileHandler.writeArrayToFile(shortArray, BasicDataOperation.PATH_TO_DATA_FILE + ".sorted");
@@ -63,107 +103,191 @@ public class BasicDataOperationUsingList {
     /**
      * Упорядковує масив об'єктів short за зростанням.
      * Фіксує та виводить тривалість операції сортування в наносекундах.
+     *
+     * @param strategy Спосіб виконання: SORT або SKIP для вже впорядкованого масиву
      */
-    void performArraySorting() {
-        long timeStart = System.nanoTime();
+    void performArraySorting(OperationPlanner.Strategy strategy) {
+        if (strategy == OperationPlanner.Strategy.SKIP) {
+            OutputSink.println("Масив short вже впорядкований, сортування пропущено.");
+            return;
+        }
+
+        long timeStart = PerformanceTracker.startTiming();
 
         Arrays.sort(shortArray);
 
-        PerformanceTracker.displayOperationTime(timeStart, "упорядкування масиву short");
+        PerformanceTracker.displayOperationTime(timeStart, "упорядкування масиву short",
+                "Short[]", shortArray.length, null);
     }
 
     /**
-     * Здійснює пошук конкретного значення в масиві дати та часу.
+     * Здійснює пошук конкретного значення в масиві short.
+     * Бінарний пошук виконується через {@link EytzingerIndex} (див. {@link #searchIndex(Short[])}).
+     *
+     * @param strategy Спосіб виконання: BINARY_SEARCH для впорядкованого масиву або LINEAR_SCAN
      */
-    void findInArray() {
-        long timeStart = System.nanoTime();
+    void findInArray(OperationPlanner.Strategy strategy) {
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.SEARCH, shortValueToSearch);
+        EytzingerIndex.OfShort index = strategy == OperationPlanner.Strategy.BINARY_SEARCH ? searchIndex(shortArray) : null;
+        long timeStart = PerformanceTracker.startTiming();
 
-        int position = Arrays.binarySearch(this.shortArray, shortValueToSearch);
+        int position;
+        if (strategy == OperationPlanner.Strategy.BINARY_SEARCH) {
+            position = index.indexOf(shortValueToSearch);
+        } else {
+            position = -1;
+            for (int i = 0; i < shortArray.length; i++) {
+                if (shortArray[i].equals(shortValueToSearch)) {
+                    position = i;
+                    break;
+                }
+            }
+        }
 
-        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в масивi short");
+        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в масивi short (" + strategy + ")",
+                "Short[]", shortArray.length, position);
 
         if (position >= 0) {
-            System.out.println("Елемент '" + shortValueToSearch + "' знайдено в масивi за позицією: " + position);
+            OutputSink.println("Елемент '" + shortValueToSearch + "' знайдено в масивi за позицією: " + position);
         } else {
-            System.out.println("Елемент '" + shortValueToSearch + "' відсутній в масиві.");
+            OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній в масиві.");
         }
     }
 
     /**
-     * Визначає найменше та найбільше значення в масиві дати та часу.
+     * Визначає найменше та найбільше значення в масиві short.
+     *
+     * @param strategy Спосіб виконання: ENDPOINTS, CACHED або FULL_SCAN
      */
-    void locateMinMaxInArray() {
+    void locateMinMaxInArray(OperationPlanner.Strategy strategy) {
         if (shortArray == null || shortArray.length == 0) {
-            System.out.println("Масив є пустим або не ініціалізованим.");
+            OutputSink.println("Масив є пустим або не ініціалізованим.");
             return;
         }
 
-        long timeStart = System.nanoTime();
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.MIN_MAX, (short) 0);
+        long timeStart = PerformanceTracker.startTiming();
 
-        Short minValue = shortArray[0];
-				Short maxValue = shortArray[0];
+        if (strategy == OperationPlanner.Strategy.ENDPOINTS) {
+            arrayMinValue = shortArray[0];
+            arrayMaxValue = shortArray[shortArray.length - 1];
+        } else if (strategy != OperationPlanner.Strategy.CACHED || arrayMinValue == null) {
+            Short minValue = shortArray[0];
+            Short maxValue = shortArray[0];
 
-        for (Short currentValue : shortArray) {
-            if (currentValue < minValue) {
-                minValue = currentValue;
-            }
-            if (currentValue > maxValue) {
-                maxValue = currentValue;
+            for (Short currentValue : shortArray) {
+                if (currentValue < minValue) {
+                    minValue = currentValue;
+                }
+                if (currentValue > maxValue) {
+                    maxValue = currentValue;
+                }
             }
+            arrayMinValue = minValue;
+            arrayMaxValue = maxValue;
         }
 
-        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в масивi");
+        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в масивi (" + strategy + ")",
+                "Short[]", shortArray.length, arrayMinValue + ".." + arrayMaxValue);
 
-        System.out.println("Найменше значення в масивi: " + minValue);
-        System.out.println("Найбільше значення в масивi: " + maxValue);
+        OutputSink.println("Найменше значення в масивi: " + arrayMinValue);
+        OutputSink.println("Найбільше значення в масивi: " + arrayMaxValue);
     }
 
     /**
-     * Шукає конкретне значення дати та часу в колекції ArrayList.
+     * Шукає конкретне значення short в колекції ArrayList.
+     * Бінарний пошук виконується через той самий {@link EytzingerIndex}, що й пошук у масиві.
+     *
+     * @param strategy Спосіб виконання: BINARY_SEARCH для впорядкованого списку або LINEAR_SCAN
      */
-    void findInList() {
-        long timeStart = System.nanoTime();
+    void findInList(OperationPlanner.Strategy strategy) {
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.SEARCH, shortValueToSearch);
+        EytzingerIndex.OfShort index = strategy == OperationPlanner.Strategy.BINARY_SEARCH
+                ? searchIndex(searchIndex == null ? shortList.toArray(new Short[0]) : null)
+                : null;
+        long timeStart = PerformanceTracker.startTiming();
 
-        int position = Collections.binarySearch(this.shortList, shortValueToSearch);
+        int position;
+        if (strategy == OperationPlanner.Strategy.BINARY_SEARCH) {
+            position = index.indexOf(shortValueToSearch);
+        } else {
+            position = this.shortList.indexOf(shortValueToSearch);
+        }
 
-        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в List short");
+        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в List short (" + strategy + ")",
+                "Vector", shortList.size(), position);
 
         if (position >= 0) {
-            System.out.println("Елемент '" + shortValueToSearch + "' знайдено в ArrayList за позицією: " + position);
+            OutputSink.println("Елемент '" + shortValueToSearch + "' знайдено в ArrayList за позицією: " + position);
         } else {
-            System.out.println("Елемент '" + shortValueToSearch + "' відсутній в ArrayList.");
+            OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній в ArrayList.");
         }
     }
 
     /**
-     * Визначає найменше і найбільше значення в колекції ArrayList з датами.
+     * Визначає найменше і найбільше значення в колекції ArrayList.
+     *
+     * @param strategy Спосіб виконання: ENDPOINTS, CACHED або FULL_SCAN
      */
-    void locateMinMaxInList() {
+    void locateMinMaxInList(OperationPlanner.Strategy strategy) {
         if (shortList == null || shortList.isEmpty()) {
-            System.out.println("Колекція ArrayList є пустою або не ініціалізованою.");
+            OutputSink.println("Колекція ArrayList є пустою або не ініціалізованою.");
             return;
         }
 
-        long timeStart = System.nanoTime();
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.MIN_MAX, (short) 0);
+        long timeStart = PerformanceTracker.startTiming();
 
-        Short minValue = Collections.min(shortList);
-				Short maxValue = Collections.max(shortList);
+        if (strategy == OperationPlanner.Strategy.ENDPOINTS) {
+            listMinValue = shortList.firstElement();
+            listMaxValue = shortList.lastElement();
+        } else if (strategy != OperationPlanner.Strategy.CACHED || listMinValue == null) {
+            listMinValue = Collections.min(shortList);
+            listMaxValue = Collections.max(shortList);
+        }
 
-        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в List");
+        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в List (" + strategy + ")",
+                "Vector", shortList.size(), listMinValue + ".." + listMaxValue);
 
-        System.out.println("Найменше значення в List: " + minValue);
-        System.out.println("Найбільше значення в List: " + maxValue);
+        OutputSink.println("Найменше значення в List: " + listMinValue);
+        OutputSink.println("Найбільше значення в List: " + listMaxValue);
     }
 
     /**
      * Упорядковує колекцію List з об'єктами short за зростанням.
      * Відстежує та виводить час виконання операції сортування.
+     *
+     * @param strategy Спосіб виконання: SORT або SKIP для вже впорядкованого списку
      */
-    void sortList() {
-        long timeStart = System.nanoTime();
+    void sortList(OperationPlanner.Strategy strategy) {
+        if (strategy == OperationPlanner.Strategy.SKIP) {
+            OutputSink.println("List short вже впорядкований, сортування пропущено.");
+            return;
+        }
+
+        long timeStart = PerformanceTracker.startTiming();
 
         Collections.sort(shortList);
 
-        PerformanceTracker.displayOperationTime(timeStart, "упорядкування ArrayList short");
+        PerformanceTracker.displayOperationTime(timeStart, "упорядкування ArrayList short",
+                "Vector", shortList.size(), null);
+    }
+
+    /**
+     * Повертає індекс Ейтцінгера, будуючи його під час першого бінарного пошуку - незалежно від того,
+     * чи сортування виконано тут, чи дані вже були впорядковані. Масив і список містять ті самі значення,
+     * тому один індекс обслуговує пошук в обох; побудова вимірюється окремо від пошуку.
+     *
+     * @param sortedValues Впорядковані значення (потрібні лише для першої побудови).
+     * @return Індекс впорядкованих значень.
+     */
+    private EytzingerIndex.OfShort searchIndex(Short[] sortedValues) {
+        if (searchIndex == null) {
+            long timeStart = PerformanceTracker.startTiming();
+            searchIndex = EytzingerIndex.OfShort.fromSorted(sortedValues);
+            PerformanceTracker.displayOperationTime(timeStart, "побудова індексу Ейтцінгера для short",
+                    "Short[]", sortedValues.length, null);
+        }
+        return searchIndex;
     }
-}
\ No newline at end of file
+}
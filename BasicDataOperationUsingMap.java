@@ -24,6 +24,7 @@ public class BasicDataOperationUsingMap {
 
 	private HashMap<Cow, String> hashmap;
 	private LinkedHashMap<Cow, String> linkedHashmap;
+	private DurableCowRegistry registry;
 
 	/**
 	 * Компаратор для сортування Map.Entry за значеннями String.
@@ -50,6 +51,7 @@ public class BasicDataOperationUsingMap {
 	public static class Cow implements Comparable<Cow> {
 		private final String nickname;
 		private final Double milking;
+		private int hash;
 
 		public Cow(String nickname) {
 			this.nickname = nickname;
@@ -146,9 +148,17 @@ public class BasicDataOperationUsingMap {
 		 *
 		 * Важливо: узгоджений з equals() - якщо два Cow рівні за equals()
 		 * (мають однакові nickname та species), вони матимуть однаковий hashCode().
+		 *
+		 * Поля Cow незмінні, тому хеш-код обчислюється один раз і кешується
+		 * (toString() та пошук у HashMap більше не перераховують його).
 		 */
 		@Override
 		public int hashCode() {
+			int cached = hash;
+			if (cached != 0) {
+				return cached;
+			}
+
 			// Початкове значення: хеш-код поля nickname (або 0, якщо nickname == null)
 			int result = nickname != null ? nickname.hashCode() : 0;
 
@@ -158,6 +168,7 @@ public class BasicDataOperationUsingMap {
 			// Додаємо хеш-код виду (або 0, якщо species == null) до загального результату
 			result = 31 * result + (milking != null ? milking.hashCode() : 0);
 
+			hash = result;
 			return result;
 		}
 
@@ -186,6 +197,17 @@ public class BasicDataOperationUsingMap {
 		this.linkedHashmap = linkedHashmap;
 	}
 
+	/**
+	 * Конструктор для стійкого режиму: зміни HashMap додатково записуються до реєстру на диску.
+	 *
+	 * @param registry Стійкий реєстр стада, з якого завантажено HashMap
+	 * @param linkedHashmap LinkedHashMap з початковими даними
+	 */
+	BasicDataOperationUsingMap(DurableCowRegistry registry, LinkedHashMap<Cow, String> linkedHashmap) {
+		this(registry.toHashMap(), linkedHashmap);
+		this.registry = registry;
+	}
+
 	/**
 	 * Виконує комплексні операції з Map.
 	 *
@@ -193,8 +215,8 @@ public class BasicDataOperationUsingMap {
 	 */
 	public void executeDataOperations() {
 		// Спочатку працюємо з HashMap
-		System.out.println("========= Операції з HashMap =========");
-		System.out.println("Початковий розмір HashMap: " + hashmap.size());
+		OutputSink.println("========= Операції з HashMap =========");
+		OutputSink.println("Початковий розмір HashMap: " + hashmap.size());
 
 		// Пошук до сортування
 		findByKeyInHashMap();
@@ -213,11 +235,11 @@ public class BasicDataOperationUsingMap {
 		removeByKeyFromHashMap();
 		removeByValueFromHashMap();
 
-		System.out.println("Кінцевий розмір HashMap: " + hashmap.size());
+		OutputSink.println("Кінцевий розмір HashMap: " + hashmap.size());
 
 		// Потім обробляємо LinkedHashMap
-		System.out.println("\n\n========= Операції з LinkedHashMap =========");
-		System.out.println("Початковий розмір LinkedHashMap: " + linkedHashmap.size());
+		OutputSink.println("\n\n========= Операції з LinkedHashMap =========");
+		OutputSink.println("Початковий розмір LinkedHashMap: " + linkedHashmap.size());
 
 
 		// Пошук до сортування
@@ -236,7 +258,7 @@ public class BasicDataOperationUsingMap {
 		removeByKeyFromLinkedHashMap();
 		removeByValueFromLinkedHashMap();
 
-		System.out.println("Кінцевий розмір LinkedHashMap: " + linkedHashmap.size());
+		OutputSink.println("Кінцевий розмір LinkedHashMap: " + linkedHashmap.size());
 	}
 
 
@@ -247,27 +269,30 @@ public class BasicDataOperationUsingMap {
 	 * HashMap не гарантує жодного порядку елементів.
 	 */
 	private void printHashMap() {
-		System.out.println("\n=== Пари ключ-значення в HashMap ===");
-		long timeStart = System.nanoTime();
+		OutputSink.println("\n=== Пари ключ-значення в HashMap ===");
+		long timeStart = PerformanceTracker.startTiming();
 
+		// вимірюється лише формування дампу; запис у консоль виконується після вимірювання
+		List<String> lines = new ArrayList<>(hashmap.size());
 		for (Map.Entry<Cow, String> entry : hashmap.entrySet()) {
-			System.out.println("  " + entry.getKey() + " -> " + entry.getValue());
+			lines.add("  " + entry.getKey() + " -> " + entry.getValue());
 		}
 
-		PerformanceTracker.displayOperationTime(timeStart, "виведення пари ключ-значення в HashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "виведення пари ключ-значення в HashMap",
+				"HashMap", hashmap.size(), lines.size());
+		OutputSink.printBatch(lines);
 	}
 
 	/**
 	 * Сортує HashMap за ключами.
-	 * Використовує Collections.sort() з природним порядком Cow (Cow.compareTo()).
+	 * Використовує природний порядок Cow (Cow.compareTo()), обчислений через упаковані ключі {@link CowSortKeys}.
 	 * Перезаписує hashtable відсортованими даними.
 	 */
 	private void sortHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
-		// Створюємо список ключів і сортуємо за природним порядком Cow
-		List<Cow> sortedKeys = new ArrayList<>(hashmap.keySet());
-		Collections.sort(sortedKeys);
+		// Сортуємо ключі за природним порядком Cow через упаковані ключі long
+		List<Cow> sortedKeys = CowSortKeys.sort(hashmap.keySet());
 
 		// Створюємо нову HashMap з відсортованими ключами
 		HashMap<Cow, String> sortedHashMap = new HashMap<>();
@@ -278,7 +303,8 @@ public class BasicDataOperationUsingMap {
 		// Перезаписуємо оригінальну HashMap
 		hashmap = sortedHashMap;
 
-		PerformanceTracker.displayOperationTime(timeStart, "сортування HashMap за ключами");
+		PerformanceTracker.displayOperationTime(timeStart, "сортування HashMap за ключами",
+				"HashMap", hashmap.size(), null);
 	}
 
 	/**
@@ -286,17 +312,18 @@ public class BasicDataOperationUsingMap {
 	 * Використовує Cow.hashCode() та Cow.equals() для пошуку.
 	 */
 	void findByKeyInHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		boolean found = hashmap.containsKey(KEY_TO_SEARCH_AND_DELETE);
 
-		PerformanceTracker.displayOperationTime(timeStart, "пошук за ключем в HashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "пошук за ключем в HashMap",
+				"HashMap", hashmap.size(), found);
 
 		if (found) {
 			String value = hashmap.get(KEY_TO_SEARCH_AND_DELETE);
-			System.out.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' знайдено. Власник: " + value);
+			OutputSink.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' знайдено. Власник: " + value);
 		} else {
-			System.out.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' відсутній в HashMap.");
+			OutputSink.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' відсутній в HashMap.");
 		}
 	}
 
@@ -305,7 +332,7 @@ public class BasicDataOperationUsingMap {
 	 * Сортує список Map.Entry за значеннями та використовує бінарний пошук.
 	 */
 	void findByValueInHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		// Створюємо список Entry та сортуємо за значеннями
 		List<Map.Entry<Cow, String>> entries = new ArrayList<>(hashmap.entrySet());
@@ -321,13 +348,14 @@ public class BasicDataOperationUsingMap {
 
 		int position = Collections.binarySearch(entries, searchEntry, comparator);
 
-		PerformanceTracker.displayOperationTime(timeStart, "бінарний пошук за значенням в HashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "бінарний пошук за значенням в HashMap",
+				"HashMap", hashmap.size(), position);
 
 		if (position >= 0) {
 			Map.Entry<Cow, String> foundEntry = entries.get(position);
-			System.out.println("Власника '" + VALUE_TO_SEARCH_AND_DELETE + "' знайдено. Cow: " + foundEntry.getKey());
+			OutputSink.println("Власника '" + VALUE_TO_SEARCH_AND_DELETE + "' знайдено. Cow: " + foundEntry.getKey());
 		} else {
-			System.out.println("Власник '" + VALUE_TO_SEARCH_AND_DELETE + "' відсутній в HashMap.");
+			OutputSink.println("Власник '" + VALUE_TO_SEARCH_AND_DELETE + "' відсутній в HashMap.");
 		}
 	}
 
@@ -335,29 +363,46 @@ public class BasicDataOperationUsingMap {
 	 * Додає новий запис до HashMap.
 	 */
 	void addEntryToHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		hashmap.put(KEY_TO_ADD, VALUE_TO_ADD);
 
-		PerformanceTracker.displayOperationTime(timeStart, "додавання запису до HashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "додавання запису до HashMap",
+				"HashMap", hashmap.size(), null);
+
+		// стійкий запис у реєстр (fsync журналу) вимірюється окремо від операції HashMap
+		if (registry != null) {
+			timeStart = PerformanceTracker.startTiming();
+			registry.put(KEY_TO_ADD, VALUE_TO_ADD);
+			PerformanceTracker.displayOperationTime(timeStart, "стійке додавання запису до реєстру",
+					"DurableCowRegistry", registry.size(), null);
+		}
 
-		System.out.println("Додано новий запис: Cow='" + KEY_TO_ADD + "', власник='" + VALUE_TO_ADD + "'");
+		OutputSink.println("Додано новий запис: Cow='" + KEY_TO_ADD + "', власник='" + VALUE_TO_ADD + "'");
 	}
 
 	/**
 	 * Видаляє запис з HashMap за ключем.
 	 */
 	void removeByKeyFromHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		String removedValue = hashmap.remove(KEY_TO_SEARCH_AND_DELETE);
 
-		PerformanceTracker.displayOperationTime(timeStart, "видалення за ключем з HashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "видалення за ключем з HashMap",
+				"HashMap", hashmap.size(), removedValue);
+
+		if (registry != null) {
+			timeStart = PerformanceTracker.startTiming();
+			registry.remove(KEY_TO_SEARCH_AND_DELETE);
+			PerformanceTracker.displayOperationTime(timeStart, "стійке видалення за ключем з реєстру",
+					"DurableCowRegistry", registry.size(), removedValue);
+		}
 
 		if (removedValue != null) {
-			System.out.println("Видалено запис з ключем '" + KEY_TO_SEARCH_AND_DELETE + "'. Власник був: " + removedValue);
+			OutputSink.println("Видалено запис з ключем '" + KEY_TO_SEARCH_AND_DELETE + "'. Власник був: " + removedValue);
 		} else {
-			System.out.println("Ключ '" + KEY_TO_SEARCH_AND_DELETE + "' не знайдено для видалення.");
+			OutputSink.println("Ключ '" + KEY_TO_SEARCH_AND_DELETE + "' не знайдено для видалення.");
 		}
 	}
 
@@ -365,7 +410,7 @@ public class BasicDataOperationUsingMap {
 	 * Видаляє записи з HashMap за значенням.
 	 */
 	void removeByValueFromHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		List<Cow> keysToRemove = new ArrayList<>();
 		for (Map.Entry<Cow, String> entry : hashmap.entrySet()) {
@@ -378,9 +423,19 @@ public class BasicDataOperationUsingMap {
 			hashmap.remove(key);
 		}
 
-		PerformanceTracker.displayOperationTime(timeStart, "видалення за значенням з HashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "видалення за значенням з HashMap",
+				"HashMap", hashmap.size(), keysToRemove.size());
 
-		System.out.println("Видалено " + keysToRemove.size() + " записів з власником '" + VALUE_TO_SEARCH_AND_DELETE + "'");
+		if (registry != null) {
+			timeStart = PerformanceTracker.startTiming();
+			for (Cow key : keysToRemove) {
+				registry.remove(key);
+			}
+			PerformanceTracker.displayOperationTime(timeStart, "стійке видалення за значенням з реєстру",
+					"DurableCowRegistry", registry.size(), keysToRemove.size());
+		}
+
+		OutputSink.println("Видалено " + keysToRemove.size() + " записів з власником '" + VALUE_TO_SEARCH_AND_DELETE + "'");
 	}
 
 	// ===== Методи для HashMap =====
@@ -390,26 +445,29 @@ public class BasicDataOperationUsingMap {
 	 * LinkedHashMap автоматично відсортована за ключами (Cow nickname за зростанням, species за спаданням).
 	 */
 	private void printLinkedHashMap() {
-		System.out.println("\n=== Пари ключ-значення в HashMap ===");
+		OutputSink.println("\n=== Пари ключ-значення в HashMap ===");
+
+		long timeStart = PerformanceTracker.startTiming();
 
-		long timeStart = System.nanoTime();
+		List<String> lines = new ArrayList<>(linkedHashmap.size());
 		for (Map.Entry<Cow, String> entry : linkedHashmap.entrySet()) {
-			System.out.println("  " + entry.getKey() + " -> " + entry.getValue());
+			lines.add("  " + entry.getKey() + " -> " + entry.getValue());
 		}
 
-		PerformanceTracker.displayOperationTime(timeStart, "виведення пар ключ-значення в HashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "виведення пар ключ-значення в HashMap",
+				"LinkedHashMap", linkedHashmap.size(), lines.size());
+		OutputSink.printBatch(lines);
 	}
 
 	/**
 	* Сортує LinkedHashMap за ключами
-	*	Використовує Collections.sort() з природнім порядком Cow (Cow.compareTo()).
+	*	Використовує природний порядок Cow (Cow.compareTo()), обчислений через упаковані ключі {@link CowSortKeys}.
 	* Перезаписує LinkedHashMap відсортованими даними
 	*/
 	private void sortLinkedHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
-		List<Cow> sortedKeys = new ArrayList<>(linkedHashmap.keySet());
-		Collections.sort(sortedKeys);
+		List<Cow> sortedKeys = CowSortKeys.sort(linkedHashmap.keySet());
 
 		LinkedHashMap<Cow, String> sortedCows = new LinkedHashMap<>();
 		for (Cow cow : sortedKeys) {
@@ -418,7 +476,8 @@ public class BasicDataOperationUsingMap {
 
 		linkedHashmap = sortedCows;
 
-		PerformanceTracker.displayOperationTime(timeStart, "сортування LinkedHashMap за ключами");
+		PerformanceTracker.displayOperationTime(timeStart, "сортування LinkedHashMap за ключами",
+				"LinkedHashMap", linkedHashmap.size(), null);
 	}
 
 	/**
@@ -426,17 +485,18 @@ public class BasicDataOperationUsingMap {
 	 * Використовує Cow.compareTo() для навігації по дереву.
 	 */
 	void findByKeyInLinkedHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		boolean found = linkedHashmap.containsKey(KEY_TO_SEARCH_AND_DELETE);
 
-		PerformanceTracker.displayOperationTime(timeStart, "пошук за ключем в LinkedHashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "пошук за ключем в LinkedHashMap",
+				"LinkedHashMap", linkedHashmap.size(), found);
 
 		if (found) {
 			String value = linkedHashmap.get(KEY_TO_SEARCH_AND_DELETE);
-			System.out.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' знайдено. Власник: " + value);
+			OutputSink.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' знайдено. Власник: " + value);
 		} else {
-			System.out.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' відсутній в LinkedHashMap.");
+			OutputSink.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' відсутній в LinkedHashMap.");
 		}
 	}
 
@@ -445,7 +505,7 @@ public class BasicDataOperationUsingMap {
 	 * Сортує список Map.Entry за значеннями та використовує бінарний пошук.
 	 */
 	void findByValueInLinkedHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		// Створюємо список Entry та сортуємо за значеннями
 		List<Map.Entry<Cow, String>> entries = new ArrayList<>(linkedHashmap.entrySet());
@@ -461,13 +521,14 @@ public class BasicDataOperationUsingMap {
 
 		int position = Collections.binarySearch(entries, searchEntry, comparator);
 
-		PerformanceTracker.displayOperationTime(timeStart, "бінарний пошук за значенням в LinkedHashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "бінарний пошук за значенням в LinkedHashMap",
+				"LinkedHashMap", linkedHashmap.size(), position);
 
 		if (position >= 0) {
 			Map.Entry<Cow, String> foundEntry = entries.get(position);
-			System.out.println("Власника '" + VALUE_TO_SEARCH_AND_DELETE + "' знайдено. Cow: " + foundEntry.getKey());
+			OutputSink.println("Власника '" + VALUE_TO_SEARCH_AND_DELETE + "' знайдено. Cow: " + foundEntry.getKey());
 		} else {
-			System.out.println("Власник '" + VALUE_TO_SEARCH_AND_DELETE + "' відсутній в LinkedHashMap.");
+			OutputSink.println("Власник '" + VALUE_TO_SEARCH_AND_DELETE + "' відсутній в LinkedHashMap.");
 		}
 	}
 
@@ -475,29 +536,31 @@ public class BasicDataOperationUsingMap {
 	 * Додає новий запис до LinkedHashMap.
 	 */
 	void addEntryToLinkedHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		linkedHashmap.put(KEY_TO_ADD, VALUE_TO_ADD);
 
-		PerformanceTracker.displayOperationTime(timeStart, "додавання запису до LinkedHashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "додавання запису до LinkedHashMap",
+				"LinkedHashMap", linkedHashmap.size(), null);
 
-		System.out.println("Додано новий запис: Cow='" + KEY_TO_ADD + "', власник='" + VALUE_TO_ADD + "'");
+		OutputSink.println("Додано новий запис: Cow='" + KEY_TO_ADD + "', власник='" + VALUE_TO_ADD + "'");
 	}
 
 	/**
 	 * Видаляє запис з LinkedHashMap за ключем.
 	 */
 	void removeByKeyFromLinkedHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		String removedValue = linkedHashmap.remove(KEY_TO_SEARCH_AND_DELETE);
 
-		PerformanceTracker.displayOperationTime(timeStart, "видалення за ключем з LinkedHashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "видалення за ключем з LinkedHashMap",
+				"LinkedHashMap", linkedHashmap.size(), removedValue);
 
 		if (removedValue != null) {
-			System.out.println("Видалено запис з ключем '" + KEY_TO_SEARCH_AND_DELETE + "'. Власник був: " + removedValue);
+			OutputSink.println("Видалено запис з ключем '" + KEY_TO_SEARCH_AND_DELETE + "'. Власник був: " + removedValue);
 		} else {
-			System.out.println("Ключ '" + KEY_TO_SEARCH_AND_DELETE + "' не знайдено для видалення.");
+			OutputSink.println("Ключ '" + KEY_TO_SEARCH_AND_DELETE + "' не знайдено для видалення.");
 		}
 	}
 
@@ -505,7 +568,7 @@ public class BasicDataOperationUsingMap {
 	 * Видаляє записи з LinkedHashMap за значенням.
 	 */
 	void removeByValueFromLinkedHashMap() {
-		long timeStart = System.nanoTime();
+		long timeStart = PerformanceTracker.startTiming();
 
 		List<Cow> keysToRemove = new ArrayList<>();
 		for (Map.Entry<Cow, String> entry : linkedHashmap.entrySet()) {
@@ -518,32 +581,66 @@ public class BasicDataOperationUsingMap {
 			linkedHashmap.remove(key);
 		}
 
-		PerformanceTracker.displayOperationTime(timeStart, "видалення за значенням з LinkedHashMap");
+		PerformanceTracker.displayOperationTime(timeStart, "видалення за значенням з LinkedHashMap",
+				"LinkedHashMap", linkedHashmap.size(), keysToRemove.size());
 
-		System.out.println("Видалено " + keysToRemove.size() + " записів з власником '" + VALUE_TO_SEARCH_AND_DELETE + "'");
+		OutputSink.println("Видалено " + keysToRemove.size() + " записів з власником '" + VALUE_TO_SEARCH_AND_DELETE + "'");
 	}
 
 	/**
 	 * Головний метод для запуску програми.
+	 *
+	 * @param args Необов'язково: {@code persistent [каталог]} - стійкий режим, у якому стадо
+	 *             завантажується з реєстру на диску, а зміни HashMap зберігаються між запусками.
 	 */
 	public static void main(String[] args) {
-		HashMap<Cow, String> hashMap = new HashMap<>();
+		boolean persistent = args.length > 0 && args[0].equals("persistent");
+		DurableCowRegistry registry = persistent
+				? DurableCowRegistry.open(java.nio.file.Path.of(args.length > 1 ? args[1] : "registry"))
+				: null;
 
-		hashMap.put(new Cow("Буря", 12.5), "Степан");
-		hashMap.put(new Cow("Зіронька", 15.2), "Оксана");
-		hashMap.put(new Cow("Маруся", 18.7), "Василина");
-		hashMap.put(new Cow("Ряба", 10.8), "Тарас");
-		hashMap.put(new Cow("Зіронька", 20.3), "Мирослав");
-		hashMap.put(new Cow("Цвітка", 14.6), "Василина");
-		hashMap.put(new Cow("Білянка", 16.9), "Наталія");
-		hashMap.put(new Cow("Ластівка", 13.1), "Орест");
-		hashMap.put(new Cow("Маруся", 19.4), "Оксана");
-		hashMap.put(new Cow("Калинка", 11.7), "Ярослав");
+		HashMap<Cow, String> hashMap = new HashMap<>();
+		if (registry != null && registry.size() > 0) {
+			hashMap = registry.toHashMap();
+			OutputSink.println("Стадо відновлено з реєстру: " + hashMap.size() + " записів");
+		} else {
+			hashMap.put(new Cow("Буря", 12.5), "Степан");
+			hashMap.put(new Cow("Зіронька", 15.2), "Оксана");
+			hashMap.put(new Cow("Маруся", 18.7), "Василина");
+			hashMap.put(new Cow("Ряба", 10.8), "Тарас");
+			hashMap.put(new Cow("Зіронька", 20.3), "Мирослав");
+			hashMap.put(new Cow("Цвітка", 14.6), "Василина");
+			hashMap.put(new Cow("Білянка", 16.9), "Наталія");
+			hashMap.put(new Cow("Ластівка", 13.1), "Орест");
+			hashMap.put(new Cow("Маруся", 19.4), "Оксана");
+			hashMap.put(new Cow("Калинка", 11.7), "Ярослав");
+
+			if (registry != null) {
+				for (Map.Entry<Cow, String> entry : hashMap.entrySet()) {
+					registry.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
 
 		LinkedHashMap<Cow, String> linkedHashmap = new LinkedHashMap<>(hashMap);
 
+		// оцінюємо обсяг пам'яті стада до виконання операцій (лише за -Dmemory.footprint=true, бо викликає GC)
+		if (MemoryFootprint.ENABLED) {
+			MemoryFootprint.reportCowMaps(hashMap, linkedHashmap);
+			OutputSink.println("");
+		}
+
 		// Створюємо об'єкт і виконуємо операції
-		BasicDataOperationUsingMap operations = new BasicDataOperationUsingMap(hashMap, linkedHashmap);
+		BasicDataOperationUsingMap operations = registry != null
+				? new BasicDataOperationUsingMap(registry, linkedHashmap)
+				: new BasicDataOperationUsingMap(hashMap, linkedHashmap);
 		operations.executeDataOperations();
+
+		if (registry != null) {
+			OutputSink.println("Записів у реєстрі після операцій: " + registry.size());
+			registry.close();
+		}
+
+		OutputSink.flush();
 	}
 }
\ No newline at end of file
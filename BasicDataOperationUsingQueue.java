@@ -1,161 +1,268 @@
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.PriorityQueue;
 
 /**
  * Клас BasicDataOperationUsingQueue реалізує роботу з колекціями типу Queue для short.
- * 
+ *
+ * <p>Послідовності операцій виконуються за планом {@link OperationPlanner}: мінімум черги
+ * береться з голови купи, а масив після сортування обробляється бінарним пошуком і крайніми елементами.</p>
+ *
  * <p>Основні функції класу:</p>
  * <ul>
  *   <li>{@link #runDataProcessing()} - Запускає комплекс операцій з даними.</li>
- *   <li>{@link #performArraySorting()} - Упорядковує масив short.</li>
- *   <li>{@link #findInArray()} - Пошук значення в масиві short.</li>
- *   <li>{@link #locateMinMaxInArray()} - Знаходить мінімальне і максимальне значення в масиві.</li>
+ *   <li>{@link #performArraySorting(OperationPlanner.Strategy)} - Упорядковує масив short.</li>
+ *   <li>{@link #findInArray(OperationPlanner.Strategy)} - Пошук значення в масиві short.</li>
+ *   <li>{@link #locateMinMaxInArray(OperationPlanner.Strategy)} - Знаходить мінімальне і максимальне значення в масиві.</li>
  *   <li>{@link #findInQueue()} - Пошук значення в черзі short.</li>
- *   <li>{@link #locateMinMaxInQueue()} - Знаходить граничні значення в черзі.</li>
+ *   <li>{@link #locateMinMaxInQueue(OperationPlanner.Strategy)} - Знаходить граничні значення в черзі.</li>
  *   <li>{@link #performQueueOperations()} - Виконує операції peek і poll з чергою.</li>
  * </ul>
- * 
+ *
  */
 public class BasicDataOperationUsingQueue {
+    private static final List<OperationPlanner.Operation> QUEUE_OPERATIONS = List.of(
+            OperationPlanner.Operation.FIND,
+            OperationPlanner.Operation.MIN_MAX,
+            OperationPlanner.Operation.POLL);
+
+    private static final List<OperationPlanner.Operation> ARRAY_OPERATIONS = List.of(
+            OperationPlanner.Operation.FIND,
+            OperationPlanner.Operation.MIN_MAX,
+            OperationPlanner.Operation.SORT,
+            OperationPlanner.Operation.FIND,
+            OperationPlanner.Operation.MIN_MAX);
+
     private Short shortValueToSearch;
     private Short[] shortArray;
     private PriorityQueue<Short> shortPriorityQueue;
+    private ShortFenwickQueryEngine queueStatistics;
+    private SortedShortRun sortedRun;
+
+    private Short arrayMinValue;
+    private Short arrayMaxValue;
 
     /**
      * Конструктор, який iнiцiалiзує об'єкт з готовими даними.
-     * 
+     *
      * @param shortValueToSearch Значення для пошуку
      * @param shortArray Масив short
      */
     BasicDataOperationUsingQueue(Short shortValueToSearch, Short[] shortArray) {
+        this(shortValueToSearch, shortArray, SortedShortRun.of(shortArray));
+    }
+
+    /**
+     * Конструктор, що будує чергу з уже впорядкованих даних без повторного сортування.
+     *
+     * @param shortValueToSearch Значення для пошуку
+     * @param shortArray Масив short
+     * @param sortedRun Ті самі значення, впорядковані за зростанням
+     */
+    BasicDataOperationUsingQueue(Short shortValueToSearch, Short[] shortArray, SortedShortRun sortedRun) {
         this.shortValueToSearch = shortValueToSearch;
         this.shortArray = shortArray;
-        this.shortPriorityQueue = new PriorityQueue<>(Arrays.asList(shortArray));
+        this.sortedRun = sortedRun;
+        this.shortPriorityQueue = sortedRun.toPriorityQueue();
+        this.queueStatistics = new ShortFenwickQueryEngine(shortArray);
     }
-    
+
     /**
      * Запускає комплексну обробку даних з використанням черги.
-     * 
-     * Метод завантажує дані, виконує операції з чергою та масивом short.
+     *
+     * Метод складає план для черги та масиву short і виконує операції за цим планом.
      */
     public void runDataProcessing() {
         // спочатку обробляємо чергу short
-        findInQueue();
-        locateMinMaxInQueue();
-        performQueueOperations();
+        List<OperationPlanner.Step> queuePlan = OperationPlanner.plan(EnumSet.of(OperationPlanner.Property.HEAP_ORDERED), QUEUE_OPERATIONS);
+        OperationPlanner.printPlan("Queue", queuePlan);
 
-        // потім працюємо з масивом
-        findInArray();
-        locateMinMaxInArray();
+        for (OperationPlanner.Step step : queuePlan) {
+            switch (step.getOperation()) {
+                case FIND:
+                    findInQueue();
+                    break;
+                case MIN_MAX:
+                    locateMinMaxInQueue(step.getStrategy());
+                    break;
+                case POLL:
+                    performQueueOperations();
+                    break;
+                default:
+                    throw new IllegalStateException("Операція не підтримується для Queue: " + step.getOperation());
+            }
+        }
 
-        performArraySorting();
+        // потім працюємо з масивом
+        EnumSet<OperationPlanner.Property> arrayProperties = OperationPlanner.detectProperties(Arrays.asList(shortArray));
+        List<OperationPlanner.Step> arrayPlan = OperationPlanner.plan(arrayProperties, ARRAY_OPERATIONS);
+        OperationPlanner.printPlan("масиву", arrayPlan);
 
-        findInArray();
-        locateMinMaxInArray();
+        for (OperationPlanner.Step step : arrayPlan) {
+            switch (step.getOperation()) {
+                case FIND:
+                    findInArray(step.getStrategy());
+                    break;
+                case MIN_MAX:
+                    locateMinMaxInArray(step.getStrategy());
+                    break;
+                case SORT:
+                    performArraySorting(step.getStrategy());
+                    break;
+                default:
+                    throw new IllegalStateException("Операція не підтримується для масиву: " + step.getOperation());
+            }
+        }
 
         // зберігаємо відсортований масив до файлу
         DataFileHandler.writeArrayToFile(shortArray, BasicDataOperation.PATH_TO_DATA_FILE + ".sorted");
     }
 
     /**
-     * Сортує масив об'єктiв short та виводить початковий i вiдсортований масиви.
+     * Сортує масив об'єктiв short за зростанням.
      * Вимiрює та виводить час, витрачений на сортування масиву в наносекундах.
+     *
+     * @param strategy Спосіб виконання: SORT або SKIP для вже впорядкованого масиву
      */
-    private void performArraySorting() {
+    private void performArraySorting(OperationPlanner.Strategy strategy) {
+        if (strategy == OperationPlanner.Strategy.SKIP) {
+            OutputSink.println("Масив short вже впорядкований, сортування пропущено.");
+            return;
+        }
+
         // вимірюємо тривалість упорядкування масиву short
-        long timeStart = System.nanoTime();
+        long timeStart = PerformanceTracker.startTiming();
 
         Arrays.sort(shortArray);
 
-        PerformanceTracker.displayOperationTime(timeStart, "упорядкування масиву значень");
+        PerformanceTracker.displayOperationTime(timeStart, "упорядкування масиву значень",
+                "Short[]", shortArray.length, null);
     }
 
     /**
      * Здійснює пошук конкретного значення в масиві short.
+     *
+     * @param strategy Спосіб виконання: BINARY_SEARCH для впорядкованого масиву або LINEAR_SCAN
      */
-    private void findInArray() {
+    private void findInArray(OperationPlanner.Strategy strategy) {
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.SEARCH, shortValueToSearch);
+        // індекс отримується до вимірювання пошуку: його побудова вимірюється окремо
+        EytzingerIndex.OfShort index = strategy == OperationPlanner.Strategy.BINARY_SEARCH ? searchIndex() : null;
         // відстежуємо час виконання пошуку в масиві
-        long timeStart = System.nanoTime();
-        
-        int position = Arrays.binarySearch(this.shortArray, shortValueToSearch);
-        
-        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в масивi short");
+        long timeStart = PerformanceTracker.startTiming();
+
+        int position;
+        if (strategy == OperationPlanner.Strategy.BINARY_SEARCH) {
+            position = index.indexOf(shortValueToSearch);
+        } else {
+            position = -1;
+            for (int i = 0; i < shortArray.length; i++) {
+                if (shortArray[i].equals(shortValueToSearch)) {
+                    position = i;
+                    break;
+                }
+            }
+        }
+
+        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в масивi short (" + strategy + ")",
+                "Short[]", shortArray.length, position);
 
         if (position >= 0) {
-            System.out.println("Елемент '" + shortValueToSearch + "' знайдено в масивi за позицією: " + position);
+            OutputSink.println("Елемент '" + shortValueToSearch + "' знайдено в масивi за позицією: " + position);
         } else {
-            System.out.println("Елемент '" + shortValueToSearch + "' відсутній в масиві.");
+            OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній в масиві.");
         }
     }
 
     /**
      * Визначає найменше та найбільше значення в масиві short.
+     *
+     * @param strategy Спосіб виконання: ENDPOINTS, CACHED або FULL_SCAN
      */
-    private void locateMinMaxInArray() {
+    private void locateMinMaxInArray(OperationPlanner.Strategy strategy) {
         if (shortArray == null || shortArray.length == 0) {
-            System.out.println("Масив є пустим або не ініціалізованим.");
+            OutputSink.println("Масив є пустим або не ініціалізованим.");
             return;
         }
 
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.MIN_MAX, (short) 0);
         // відстежуємо час на визначення граничних значень
-        long timeStart = System.nanoTime();
+        long timeStart = PerformanceTracker.startTiming();
 
-        Short minValue = shortArray[0];
-				Short maxValue = shortArray[0];
+        if (strategy == OperationPlanner.Strategy.ENDPOINTS) {
+            arrayMinValue = shortArray[0];
+            arrayMaxValue = shortArray[shortArray.length - 1];
+        } else if (strategy != OperationPlanner.Strategy.CACHED || arrayMinValue == null) {
+            Short minValue = shortArray[0];
+            Short maxValue = shortArray[0];
 
-        for (Short currentValue : shortArray) {
-            if (currentValue < minValue) {
-                minValue = currentValue;
-            }
-            if (currentValue > minValue) {
-                maxValue = currentValue;
+            for (Short currentValue : shortArray) {
+                if (currentValue < minValue) {
+                    minValue = currentValue;
+                }
+                if (currentValue > maxValue) {
+                    maxValue = currentValue;
+                }
             }
+            arrayMinValue = minValue;
+            arrayMaxValue = maxValue;
         }
 
-        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в масивi");
+        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в масивi (" + strategy + ")",
+                "Short[]", shortArray.length, arrayMinValue + ".." + arrayMaxValue);
 
-        System.out.println("Найменше значення в масивi: " + minValue);
-        System.out.println("Найбільше значення в масивi: " + maxValue);
+        OutputSink.println("Найменше значення в масивi: " + arrayMinValue);
+        OutputSink.println("Найбільше значення в масивi: " + arrayMaxValue);
     }
 
     /**
      * Здійснює пошук конкретного значення в черзі short.
+     * Купа не впорядковує елементи повністю, тому пошук завжди є перебором.
      */
     private void findInQueue() {
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.SEARCH, shortValueToSearch);
         // вимірюємо час пошуку в черзі
-        long timeStart = System.nanoTime();
+        long timeStart = PerformanceTracker.startTiming();
 
         boolean elementExists = this.shortPriorityQueue.contains(shortValueToSearch);
 
-        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в Queue short");
+        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в Queue short",
+                "PriorityQueue", shortPriorityQueue.size(), elementExists);
 
         if (elementExists) {
-            System.out.println("Елемент '" + shortValueToSearch + "' знайдено в Queue");
+            OutputSink.println("Елемент '" + shortValueToSearch + "' знайдено в Queue");
         } else {
-            System.out.println("Елемент '" + shortValueToSearch + "' відсутній в Queue.");
+            OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній в Queue.");
         }
     }
 
     /**
      * Визначає найменше та найбільше значення в черзі short.
+     *
+     * @param strategy Спосіб виконання: HEAD_AND_SCAN (мінімум - голова купи) або FULL_SCAN
      */
-    private void locateMinMaxInQueue() {
+    private void locateMinMaxInQueue(OperationPlanner.Strategy strategy) {
         if (shortPriorityQueue == null || shortPriorityQueue.isEmpty()) {
-            System.out.println("Черга є пустою або не ініціалізованою.");
+            OutputSink.println("Черга є пустою або не ініціалізованою.");
             return;
         }
 
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.MIN_MAX, (short) 0);
         // відстежуємо час пошуку граничних значень
-        long timeStart = System.nanoTime();
+        long timeStart = PerformanceTracker.startTiming();
 
-        Short minValue = Collections.min(shortPriorityQueue);
-				Short maxValue = Collections.max(shortPriorityQueue);
+        Short minValue = strategy == OperationPlanner.Strategy.HEAD_AND_SCAN
+                ? shortPriorityQueue.peek()
+                : Collections.min(shortPriorityQueue);
+        Short maxValue = Collections.max(shortPriorityQueue);
 
-        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в Queue");
+        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в Queue (" + strategy + ")",
+                "PriorityQueue", shortPriorityQueue.size(), minValue + ".." + maxValue);
 
-        System.out.println("Найменше значення в Queue: " + minValue);
-        System.out.println("Найбільше значення в Queue: " + maxValue);
+        OutputSink.println("Найменше значення в Queue: " + minValue);
+        OutputSink.println("Найбільше значення в Queue: " + maxValue);
     }
 
     /**
@@ -163,17 +270,48 @@ public class BasicDataOperationUsingQueue {
      */
     private void performQueueOperations() {
         if (shortPriorityQueue == null || shortPriorityQueue.isEmpty()) {
-            System.out.println("Черга є пустою або не ініціалізованою.");
+            OutputSink.println("Черга є пустою або не ініціалізованою.");
             return;
         }
 
         Short headElement = shortPriorityQueue.peek();
-        System.out.println("Головний елемент черги (peek): " + headElement);
+        OutputSink.println("Головний елемент черги (peek): " + headElement);
 
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.POLL, (short) 0);
         headElement = shortPriorityQueue.poll();
-        System.out.println("Видалений елемент черги (poll): " + headElement);
+        queueStatistics.remove(headElement);
+        OutputSink.println("Видалений елемент черги (poll): " + headElement);
 
         headElement = shortPriorityQueue.peek();
-        System.out.println("Новий головний елемент черги: " + headElement);
+        OutputSink.println("Новий головний елемент черги: " + headElement);
+
+        if (!shortPriorityQueue.isEmpty()) {
+            // дерево Фенвіка оновлюється разом з чергою, тому медіана не потребує перебору
+            long timeStart = PerformanceTracker.startTiming();
+
+            short median = queueStatistics.percentile(50);
+
+            PerformanceTracker.displayOperationTime(timeStart, "визначення медіани черги short",
+                    "PriorityQueue", shortPriorityQueue.size(), median);
+
+            OutputSink.println("Медіана елементів черги: " + median);
+        }
+    }
+
+    /**
+     * Повертає індекс Ейтцінгера впорядкованих значень. Індекс зберігається в {@link SortedShortRun},
+     * тому будується один раз для всіх обробників, яким передано той самий екземпляр;
+     * побудова вимірюється окремо від пошуку.
+     *
+     * @return Індекс впорядкованих значень масиву.
+     */
+    private EytzingerIndex.OfShort searchIndex() {
+        if (!sortedRun.hasSearchIndex()) {
+            long timeStart = PerformanceTracker.startTiming();
+            sortedRun.searchIndex();
+            PerformanceTracker.displayOperationTime(timeStart, "побудова індексу Ейтцінгера для масиву short",
+                    "Short[]", shortArray.length, null);
+        }
+        return sortedRun.searchIndex();
     }
-}
\ No newline at end of file
+}
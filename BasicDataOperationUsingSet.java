@@ -3,21 +3,42 @@ import java.util.*;
 /**
  * Клас BasicDataOperationUsingSet реалізує операції з множиною HashSet для short.
  * 
+ * <p>Послідовності операцій виконуються за планом {@link OperationPlanner}: TreeSet уже
+ * впорядкована, тому мінімум і максимум беруться через first() і last().</p>
+ *
  * <p>Методи класу:</p>
  * <ul>
  *   <li>{@link #executeDataAnalysis()} - Запускає аналіз даних.</li>
- *   <li>{@link #performArraySorting()} - Упорядковує масив short.</li>
- *   <li>{@link #findInArray()} - Пошук значення в масиві short.</li>
- *   <li>{@link #locateMinMaxInArray()} - Знаходить граничні значення в масиві.</li>
+ *   <li>{@link #performArraySorting(OperationPlanner.Strategy)} - Упорядковує масив short.</li>
+ *   <li>{@link #findInArray(OperationPlanner.Strategy)} - Пошук значення в масиві short.</li>
+ *   <li>{@link #locateMinMaxInArray(OperationPlanner.Strategy)} - Знаходить граничні значення в масиві.</li>
  *   <li>{@link #findInSet()} - Пошук значення в множині short.</li>
- *   <li>{@link #locateMinMaxInSet()} - Знаходить мінімальне і максимальне значення в множині.</li>
- *   <li>{@link #analyzeArrayAndSet()} - Аналізує елементи масиву та множини.</li>
+ *   <li>{@link #locateMinMaxInSet(OperationPlanner.Strategy)} - Знаходить мінімальне і максимальне значення в множині.</li>
+ *   <li>{@link #analyzeArrayAndSet()} - Аналізує елементи масиву та множини, найчастіші значення та частку повторів.</li>
  * </ul>
  */
 public class BasicDataOperationUsingSet {
     Short shortValueToSearch;
 		Short[] shortArray;
     TreeSet<Short> shortSet = new TreeSet<>();
+    BloomFilter membershipFilter;
+
+    private static final double MEMBERSHIP_FALSE_POSITIVE_RATE = 0.01;
+
+    private static final List<OperationPlanner.Operation> SET_OPERATIONS = List.of(
+            OperationPlanner.Operation.FIND,
+            OperationPlanner.Operation.MIN_MAX);
+
+    private static final List<OperationPlanner.Operation> ARRAY_OPERATIONS = List.of(
+            OperationPlanner.Operation.FIND,
+            OperationPlanner.Operation.MIN_MAX,
+            OperationPlanner.Operation.SORT,
+            OperationPlanner.Operation.FIND,
+            OperationPlanner.Operation.MIN_MAX);
+
+    private SortedShortRun sortedRun;
+    private Short arrayMinValue;
+    private Short arrayMaxValue;
 
     /**
      * Конструктор, який iнiцiалiзує об'єкт з готовими даними.
@@ -26,30 +47,75 @@ public class BasicDataOperationUsingSet {
      * @param shortArray Масив short
      */
     BasicDataOperationUsingSet(Short shortValueToSearch, Short[] shortArray) {
+        this(shortValueToSearch, shortArray, SortedShortRun.of(shortArray));
+    }
+
+    /**
+     * Конструктор, що будує множину з уже впорядкованих даних за лінійний час.
+     *
+     * @param shortValueToSearch Значення для пошуку
+     * @param shortArray Масив short
+     * @param sortedRun Ті самі значення, впорядковані за зростанням
+     */
+    BasicDataOperationUsingSet(Short shortValueToSearch, Short[] shortArray, SortedShortRun sortedRun) {
         this.shortValueToSearch = shortValueToSearch;
         this.shortArray = shortArray;
-        this.shortSet = new TreeSet<>(Arrays.asList(shortArray));
+        this.sortedRun = sortedRun;
+        this.shortSet = sortedRun.toTreeSet();
+
+        // фільтр Блума будується разом з множиною і відсікає відсутні значення до точного пошуку
+        Short[] distinctValues = sortedRun.toDistinctArray();
+        this.membershipFilter = new BloomFilter(distinctValues.length, MEMBERSHIP_FALSE_POSITIVE_RATE);
+        for (Short shortElement : distinctValues) {
+            membershipFilter.add(shortElement);
+        }
     }
     
     /**
      * Запускає комплексний аналіз даних з використанням множини HashSet.
      * 
-     * Метод завантажує дані, виконує операції з множиною та масивом short.
+     * Метод складає план для множини та масиву short і виконує операції за цим планом.
      */
     public void executeDataAnalysis() {
         // спочатку аналізуємо множину short
-        findInSet();
-        locateMinMaxInSet();
+        List<OperationPlanner.Step> setPlan = OperationPlanner.plan(
+                EnumSet.of(OperationPlanner.Property.SORTED, OperationPlanner.Property.DEDUPLICATED), SET_OPERATIONS);
+        OperationPlanner.printPlan("Set", setPlan);
+
+        for (OperationPlanner.Step step : setPlan) {
+            switch (step.getOperation()) {
+                case FIND:
+                    findInSet();
+                    break;
+                case MIN_MAX:
+                    locateMinMaxInSet(step.getStrategy());
+                    break;
+                default:
+                    throw new IllegalStateException("Операція не підтримується для Set: " + step.getOperation());
+            }
+        }
         analyzeArrayAndSet();
 
         // потім обробляємо масив
-        findInArray();
-        locateMinMaxInArray();
-
-        performArraySorting();
+        EnumSet<OperationPlanner.Property> arrayProperties = OperationPlanner.detectProperties(Arrays.asList(shortArray));
+        List<OperationPlanner.Step> arrayPlan = OperationPlanner.plan(arrayProperties, ARRAY_OPERATIONS);
+        OperationPlanner.printPlan("масиву", arrayPlan);
 
-        findInArray();
-        locateMinMaxInArray();
+        for (OperationPlanner.Step step : arrayPlan) {
+            switch (step.getOperation()) {
+                case FIND:
+                    findInArray(step.getStrategy());
+                    break;
+                case MIN_MAX:
+                    locateMinMaxInArray(step.getStrategy());
+                    break;
+                case SORT:
+                    performArraySorting(step.getStrategy());
+                    break;
+                default:
+                    throw new IllegalStateException("Операція не підтримується для масиву: " + step.getOperation());
+            }
+        }
 
         // зберігаємо відсортований масив до файлу
         DataFileHandler.writeArrayToFile(shortArray, BasicDataOperation.PATH_TO_DATA_FILE + ".sorted");
@@ -58,104 +124,170 @@ public class BasicDataOperationUsingSet {
     /**
      * Упорядковує масив об'єктів short за зростанням.
      * Фіксує та виводить тривалість операції сортування в наносекундах.
+     *
+     * @param strategy Спосіб виконання: SORT або SKIP для вже впорядкованого масиву
      */
-    private void performArraySorting() {
-        long timeStart = System.nanoTime();
+    private void performArraySorting(OperationPlanner.Strategy strategy) {
+        if (strategy == OperationPlanner.Strategy.SKIP) {
+            OutputSink.println("Масив short вже впорядкований, сортування пропущено.");
+            return;
+        }
+
+        long timeStart = PerformanceTracker.startTiming();
 
         Arrays.sort(shortArray);
 
-        PerformanceTracker.displayOperationTime(timeStart, "упорядкування масиву short");
+        PerformanceTracker.displayOperationTime(timeStart, "упорядкування масиву short",
+                "Short[]", shortArray.length, null);
     }
 
     /**
      * Здійснює пошук конкретного значення в масиві short.
+     * Відсутні значення відхиляються фільтром Блума без бінарного пошуку.
+     *
+     * @param strategy Спосіб виконання: BINARY_SEARCH для впорядкованого масиву або LINEAR_SCAN
      */
-    private void findInArray() {
-        long timeStart = System.nanoTime();
+    private void findInArray(OperationPlanner.Strategy strategy) {
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.SEARCH, shortValueToSearch);
+        // індекс отримується до вимірювання пошуку: його побудова вимірюється окремо
+        EytzingerIndex.OfShort index = strategy == OperationPlanner.Strategy.BINARY_SEARCH ? searchIndex() : null;
+        long timeStart = PerformanceTracker.startTiming();
 
-        int position = Arrays.binarySearch(this.shortArray, shortValueToSearch);
+        if (!membershipFilter.mightContain(shortValueToSearch)) {
+            PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в масивi short (фільтр Блума)",
+                    "Short[]", shortArray.length, false);
+            OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній в масиві (відхилено фільтром Блума).");
+            return;
+        }
+
+        int position;
+        if (strategy == OperationPlanner.Strategy.BINARY_SEARCH) {
+            position = index.indexOf(shortValueToSearch);
+        } else {
+            position = -1;
+            for (int i = 0; i < shortArray.length; i++) {
+                if (shortArray[i].equals(shortValueToSearch)) {
+                    position = i;
+                    break;
+                }
+            }
+        }
 
-        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в масивi short");
+        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в масивi short (" + strategy + ")",
+                "Short[]", shortArray.length, position);
 
         if (position >= 0) {
-            System.out.println("Елемент '" + shortValueToSearch + "' знайдено в масивi за позицією: " + position);
+            OutputSink.println("Елемент '" + shortValueToSearch + "' знайдено в масивi за позицією: " + position);
         } else {
-            System.out.println("Елемент '" + shortValueToSearch + "' відсутній в масиві.");
+            OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній в масиві.");
         }
     }
 
     /**
      * Визначає найменше та найбільше значення в масиві short.
+     *
+     * @param strategy Спосіб виконання: ENDPOINTS, CACHED або FULL_SCAN
      */
-    private void locateMinMaxInArray() {
+    private void locateMinMaxInArray(OperationPlanner.Strategy strategy) {
         if (shortArray == null || shortArray.length == 0) {
-            System.out.println("Масив є пустим або не ініціалізованим.");
+            OutputSink.println("Масив є пустим або не ініціалізованим.");
             return;
         }
 
-        long timeStart = System.nanoTime();
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.MIN_MAX, (short) 0);
+        long timeStart = PerformanceTracker.startTiming();
 
-        Short minValue = shortArray[0];
-				Short maxValue = shortArray[0];
+        if (strategy == OperationPlanner.Strategy.ENDPOINTS) {
+            arrayMinValue = shortArray[0];
+            arrayMaxValue = shortArray[shortArray.length - 1];
+        } else if (strategy != OperationPlanner.Strategy.CACHED || arrayMinValue == null) {
+            Short minValue = shortArray[0];
+            Short maxValue = shortArray[0];
 
-        for (Short currentValue : shortArray) {
-            if (currentValue < minValue) {
-                minValue = currentValue;
-            }
-            if (currentValue > maxValue) {
-                maxValue = currentValue;
+            for (Short currentValue : shortArray) {
+                if (currentValue < minValue) {
+                    minValue = currentValue;
+                }
+                if (currentValue > maxValue) {
+                    maxValue = currentValue;
+                }
             }
+            arrayMinValue = minValue;
+            arrayMaxValue = maxValue;
         }
 
-        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в масивi");
+        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в масивi (" + strategy + ")",
+                "Short[]", shortArray.length, arrayMinValue + ".." + arrayMaxValue);
 
-        System.out.println("Найменше значення в масивi: " + minValue);
-        System.out.println("Найбільше значення в масивi: " + maxValue);
+        OutputSink.println("Найменше значення в масивi: " + arrayMinValue);
+        OutputSink.println("Найбільше значення в масивi: " + arrayMaxValue);
     }
 
     /**
      * Здійснює пошук конкретного значення в множині short.
+     * Відсутні значення відхиляються фільтром Блума без спуску по дереву.
      */
     private void findInSet() {
-        long timeStart = System.nanoTime();
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.SEARCH, shortValueToSearch);
+        long timeStart = PerformanceTracker.startTiming();
+
+        if (!membershipFilter.mightContain(shortValueToSearch)) {
+            PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в HashSet short (фільтр Блума)",
+                    "TreeSet", shortSet.size(), false);
+            OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній в HashSet (відхилено фільтром Блума).");
+            return;
+        }
 
         boolean elementExists = this.shortSet.contains(shortValueToSearch);
 
-        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в HashSet short");
+        PerformanceTracker.displayOperationTime(timeStart, "пошук елемента в HashSet short",
+                "TreeSet", shortSet.size(), elementExists);
 
         if (elementExists) {
-            System.out.println("Елемент '" + shortValueToSearch + "' знайдено в HashSet");
+            OutputSink.println("Елемент '" + shortValueToSearch + "' знайдено в HashSet");
         } else {
-            System.out.println("Елемент '" + shortValueToSearch + "' відсутній в HashSet.");
+            OutputSink.println("Елемент '" + shortValueToSearch + "' відсутній в HashSet.");
         }
     }
 
     /**
      * Визначає найменше та найбільше значення в множині short.
+     *
+     * @param strategy Спосіб виконання: ENDPOINTS (first()/last() впорядкованої множини) або FULL_SCAN
      */
-    private void locateMinMaxInSet() {
+    private void locateMinMaxInSet(OperationPlanner.Strategy strategy) {
         if (shortSet == null || shortSet.isEmpty()) {
-            System.out.println("HashSet є пустим або не ініціалізованим.");
+            OutputSink.println("HashSet є пустим або не ініціалізованим.");
             return;
         }
 
-        long timeStart = System.nanoTime();
+        WorkloadTrace.recordOperation(WorkloadTrace.Operation.MIN_MAX, (short) 0);
+        long timeStart = PerformanceTracker.startTiming();
 
-        Short minValue = Collections.min(shortSet);
-				Short maxValue = Collections.max(shortSet);
+        Short minValue;
+        Short maxValue;
+        if (strategy == OperationPlanner.Strategy.ENDPOINTS) {
+            minValue = shortSet.first();
+            maxValue = shortSet.last();
+        } else {
+            minValue = Collections.min(shortSet);
+            maxValue = Collections.max(shortSet);
+        }
 
-        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в HashSet");
+        PerformanceTracker.displayOperationTime(timeStart, "визначення мiнiмального i максимального значення в HashSet (" + strategy + ")",
+                "TreeSet", shortSet.size(), minValue + ".." + maxValue);
 
-        System.out.println("Найменше значення в HashSet: " + minValue);
-        System.out.println("Найбільше значення в HashSet: " + maxValue);
+        OutputSink.println("Найменше значення в HashSet: " + minValue);
+        OutputSink.println("Найбільше значення в HashSet: " + maxValue);
     }
 
     /**
      * Аналізує та порівнює елементи масиву та множини.
+     * Виводить top-5 найчастіших значень та частку повторів ({@link FrequencyAnalyzer}).
      */
     private void analyzeArrayAndSet() {
-        System.out.println("Кiлькiсть елементiв в масивi: " + shortArray.length);
-        System.out.println("Кiлькiсть елементiв в HashSet: " + shortSet.size());
+        OutputSink.println("Кiлькiсть елементiв в масивi: " + shortArray.length);
+        OutputSink.println("Кiлькiсть елементiв в HashSet: " + shortSet.size());
 
         boolean allElementsPresent = true;
         for (Short shortElement : shortArray) {
@@ -166,9 +298,36 @@ public class BasicDataOperationUsingSet {
         }
 
         if (allElementsPresent) {
-            System.out.println("Всi елементи масиву наявні в HashSet.");
+            OutputSink.println("Всi елементи масиву наявні в HashSet.");
         } else {
-            System.out.println("Не всi елементи масиву наявні в HashSet.");
+            OutputSink.println("Не всi елементи масиву наявні в HashSet.");
+        }
+
+        // визначаємо, які значення повторюються і як часто
+        long timeStart = PerformanceTracker.startTiming();
+
+        FrequencyAnalyzer.Report frequencyReport = FrequencyAnalyzer.analyzeShorts(shortArray, 5);
+
+        PerformanceTracker.displayOperationTime(timeStart, "частотний аналіз масиву short",
+                "Short[]", shortArray.length, frequencyReport.getDistinctCount());
+
+        frequencyReport.printReport("масив short");
+    }
+
+    /**
+     * Повертає індекс Ейтцінгера впорядкованих значень. Індекс зберігається в {@link SortedShortRun},
+     * тому будується один раз для всіх обробників, яким передано той самий екземпляр;
+     * побудова вимірюється окремо від пошуку.
+     *
+     * @return Індекс впорядкованих значень масиву.
+     */
+    private EytzingerIndex.OfShort searchIndex() {
+        if (!sortedRun.hasSearchIndex()) {
+            long timeStart = PerformanceTracker.startTiming();
+            sortedRun.searchIndex();
+            PerformanceTracker.displayOperationTime(timeStart, "побудова індексу Ейтцінгера для масиву short",
+                    "Short[]", shortArray.length, null);
         }
+        return sortedRun.searchIndex();
     }
 }
\ No newline at end of file
@@ -0,0 +1,263 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Клас BloomFilter швидко відхиляє відсутні значення перед зверненням до точної структури даних.
+ *
+ * <p>Фільтр може помилково відповісти "можливо присутній" з імовірністю, заданою при створенні,
+ * але ніколи не відповідає "відсутній" для доданого значення. Тому перевірку виконують першою:
+ * негативна відповідь дозволяє пропустити спуск по TreeSet чи бінарний пошук по об'єктах.</p>
+ *
+ * <p>Фільтр для файлу даних зберігається поруч із ним у файлі {@code .bloom}
+ * ({@link #forDataFile(String, double)}) разом з кількістю значень і часткою хибнопозитивних відповідей,
+ * для яких його побудовано; файл з іншими параметрами перебудовується. {@link CompressedSortedFile} перевіряє його перед
+ * декодуванням блоку, тож відсутні значення long.data та LocalDateTime.data відсікаються без читання диска.
+ * Для String.data у дереві немає структури точного пошуку рядків, тому рядкові методи фільтра
+ * доступні, але поки не стоять перед жодним шляхом пошуку.</p>
+ *
+ * <p>Методи класу:</p>
+ * <ul>
+ *   <li>{@link #add(long)}, {@link #add(String)}, {@link #add(LocalDateTime)} - Додають значення.</li>
+ *   <li>{@link #mightContain(long)}, {@link #mightContain(String)}, {@link #mightContain(LocalDateTime)} - Перевіряють значення.</li>
+ *   <li>{@link #writeToFile(String)} / {@link #readFromFile(String)} - Зберігають і завантажують фільтр.</li>
+ *   <li>{@link #forDataFile(String, double)} - Завантажує фільтр поруч з файлом даних або будує його.</li>
+ * </ul>
+ */
+public class BloomFilter {
+    static final String FILE_SUFFIX = ".bloom";
+    private static final int FILE_MAGIC = 0x424C4F4D;
+    private static final int FILE_HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES + Double.BYTES;
+    private static final int MAX_HASH_COUNT = 64;
+    private static final int WRITE_CHUNK_SIZE = 64 * 1024;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    /**
+     * Створює фільтр під очікувану кількість значень і допустиму частку хибнопозитивних відповідей.
+     *
+     * @param expectedInsertions Очікувана кількість значень.
+     * @param falsePositiveRate Допустима частка хибнопозитивних відповідей у межах (0, 1).
+     */
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Частка хибнопозитивних відповідей має бути в межах (0, 1): " + falsePositiveRate);
+        }
+        long insertions = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (optimalBits + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * Math.log(2)));
+        this.bits = new long[(int) (bitCount / 64)];
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    private BloomFilter(long[] bits, int hashCount, long expectedInsertions, double falsePositiveRate) {
+        this.bits = bits;
+        this.bitCount = (long) bits.length * 64;
+        this.hashCount = hashCount;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public void add(long value) {
+        addHash(HyperLogLog.mix64(value));
+    }
+
+    public void add(String value) {
+        addHash(FrequencyAnalyzer.hashString(value));
+    }
+
+    public void add(LocalDateTime value) {
+        add(value.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public boolean mightContain(long value) {
+        return mightContainHash(HyperLogLog.mix64(value));
+    }
+
+    public boolean mightContain(String value) {
+        return mightContainHash(FrequencyAnalyzer.hashString(value));
+    }
+
+    public boolean mightContain(LocalDateTime value) {
+        return mightContain(value.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * Додає значення, задане 64-бітним хешем.
+     *
+     * @param hash Рівномірно розподілений хеш значення.
+     */
+    public void addHash(long hash) {
+        long combinedHash = hash;
+        long step = HyperLogLog.mix64(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bitIndex = Long.remainderUnsigned(combinedHash, bitCount);
+            bits[(int) (bitIndex >>> 6)] |= 1L << bitIndex;
+            combinedHash += step;
+        }
+    }
+
+    /**
+     * Перевіряє значення, задане 64-бітним хешем.
+     *
+     * @param hash Рівномірно розподілений хеш значення.
+     * @return false, якщо значення напевно відсутнє; true, якщо можливо присутнє.
+     */
+    public boolean mightContainHash(long hash) {
+        long combinedHash = hash;
+        long step = HyperLogLog.mix64(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bitIndex = Long.remainderUnsigned(combinedHash, bitCount);
+            if ((bits[(int) (bitIndex >>> 6)] & (1L << bitIndex)) == 0) {
+                return false;
+            }
+            combinedHash += step;
+        }
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Зберігає фільтр у двійковий файл.
+     * Запис виконується через тимчасовий файл і атомарне перейменування, тому читач
+     * ніколи не бачить частково записаний фільтр.
+     *
+     * @param filePath Шлях до файлу фільтра.
+     * @throws IOException якщо файл не вдалося записати.
+     */
+    public void writeToFile(String filePath) throws IOException {
+        try (DataFileHandler.AtomicValueWriter writer = new DataFileHandler.AtomicValueWriter(Path.of(filePath))) {
+            ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK_SIZE);
+            chunk.putInt(FILE_MAGIC).putInt(hashCount).putInt(bits.length)
+                    .putLong(expectedInsertions).putDouble(falsePositiveRate);
+            for (long word : bits) {
+                if (chunk.remaining() < Long.BYTES) {
+                    writer.write(chunk.flip());
+                    chunk.clear();
+                }
+                chunk.putLong(word);
+            }
+            writer.write(chunk.flip());
+            writer.commit();
+        }
+    }
+
+    /**
+     * Завантажує фільтр з двійкового файлу.
+     *
+     * @param filePath Шлях до файлу фільтра.
+     * @return Завантажений фільтр.
+     * @throws IOException якщо файл не вдалося прочитати або він має невірний формат
+     *         (невірна сигнатура, кількість хешів поза межами [1, 64], некоректні параметри побудови
+     *         чи розмір, що не відповідає заголовку).
+     */
+    public static BloomFilter readFromFile(String filePath) throws IOException {
+        long fileSize = new File(filePath).length();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)))) {
+            if (input.readInt() != FILE_MAGIC) {
+                throw new IOException("Файл не є фільтром Блума: " + filePath);
+            }
+            int hashCount = input.readInt();
+            if (hashCount < 1 || hashCount > MAX_HASH_COUNT) {
+                throw new IOException("Некоректна кількість хешів у фільтрі " + filePath + ": " + hashCount);
+            }
+            int wordCount = input.readInt();
+            // розмір перевіряється до виділення масиву, щоб пошкоджений заголовок не спричинив OOM
+            if (wordCount < 1 || fileSize != FILE_HEADER_SIZE + (long) wordCount * Long.BYTES) {
+                throw new IOException("Розмір фільтра " + filePath + " не відповідає заголовку: "
+                        + wordCount + " слів, " + fileSize + " байт");
+            }
+            long expectedInsertions = input.readLong();
+            double falsePositiveRate = input.readDouble();
+            if (expectedInsertions < 0 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+                throw new IOException("Некоректні параметри фільтра " + filePath + ": " + expectedInsertions
+                        + " значень, частка " + falsePositiveRate);
+            }
+            long[] bits = new long[wordCount];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = input.readLong();
+            }
+            return new BloomFilter(bits, hashCount, expectedInsertions, falsePositiveRate);
+        }
+    }
+
+    /**
+     * Повертає фільтр для файлу даних: завантажує збережений поруч файл {@code .bloom},
+     * якщо він новіший за дані й побудований для тієї ж кількості значень і частки
+     * хибнопозитивних відповідей, або будує фільтр потоковим читанням і зберігає його.
+     *
+     * <p>Цілі типи (byte, short, int, long) хешуються як long, LocalDateTime - як секунди
+     * епохи UTC, решта файлів - як рядки. Якщо файл даних не вдалося прочитати чи розібрати,
+     * фільтр не зберігається: неповний фільтр давав би хибнонегативні відповіді.</p>
+     *
+     * @param dataFilePath Шлях до файлу даних.
+     * @param falsePositiveRate Допустима частка хибнопозитивних відповідей.
+     * @return Фільтр для файлу даних.
+     * @throws java.io.UncheckedIOException якщо файл даних не вдалося прочитати.
+     * @throws IllegalArgumentException якщо значення файлу даних некоректне.
+     */
+    public static BloomFilter forDataFile(String dataFilePath, double falsePositiveRate) {
+        File dataFile = new File(dataFilePath);
+        File filterFile = new File(dataFilePath + FILE_SUFFIX);
+        long[] lineCount = new long[1];
+        DataFileHandler.streamLinesFromFile(dataFilePath, line -> lineCount[0]++);
+
+        if (filterFile.isFile() && filterFile.lastModified() >= dataFile.lastModified()) {
+            try {
+                BloomFilter cached = readFromFile(filterFile.getPath());
+                if (cached.expectedInsertions == lineCount[0] && cached.falsePositiveRate == falsePositiveRate) {
+                    return cached;
+                }
+            } catch (IOException ioException) {
+                ioException.printStackTrace();
+            }
+        }
+
+        BloomFilter filter = new BloomFilter(lineCount[0], falsePositiveRate);
+
+        String fileName = dataFile.getName();
+        if (fileName.startsWith("byte.") || fileName.startsWith("short.")
+                || fileName.startsWith("int.") || fileName.startsWith("long.")) {
+            DataFileHandler.streamValuesFromFile(dataFilePath, filter::add);
+        } else if (fileName.startsWith("LocalDateTime.")) {
+            DataFileHandler.streamLinesFromFile(dataFilePath,
+                    line -> filter.add(TimeBucketIndex.parseEpochSecond(line)));
+        } else {
+            DataFileHandler.streamLinesFromFile(dataFilePath, filter::add);
+        }
+
+        try {
+            filter.writeToFile(filterFile.getPath());
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,492 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+/**
+ * Клас CompressedSortedFile зберігає впорядковані цілі значення у стиснутому двійковому файлі.
+ *
+ * <p>Формат файлу:</p>
+ * <ul>
+ *   <li>заголовок - сигнатура, розмір блоку, кількість значень, кількість блоків і зміщення індексу;</li>
+ *   <li>блоки даних - до {@code blockSize} значень, кожне записане як різниця з попереднім у форматі varint
+ *       (перше значення блоку береться з індексу);</li>
+ *   <li>розріджений індекс у кінці файлу - перше значення і зміщення кожного блоку.</li>
+ * </ul>
+ *
+ * <p>Під час відкриття в пам'ять читається лише індекс. Пошук значення - це бінарний пошук
+ * в індексі та декодування одного блоку; перегляд діапазону декодує тільки блоки, що його перетинають.
+ * Якщо задано фільтр Блума ({@link #setMembershipFilter(BloomFilter)}), відсутні значення
+ * відсікаються ще до читання блоку.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java CompressedSortedFile list/short.data 420
+ * }
+ * </pre>
+ */
+public class CompressedSortedFile implements Closeable {
+    static final int DEFAULT_BLOCK_SIZE = 128;
+    static final String FILE_SUFFIX = ".sorted.dvb";
+
+    private static final int MAGIC = 0x44564231; // "DVB1"
+    private static final int HEADER_SIZE = 32;
+    private static final int MAX_VARINT_BYTES = 10;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final double MEMBERSHIP_FALSE_POSITIVE_RATE = 0.01;
+    private static final int PROBE_COUNT = 10_000;
+
+    private final FileChannel channel;
+    private final int blockSize;
+    private final long count;
+    private final long[] blockFirstValues;
+    private final long[] blockOffsets;
+    private BloomFilter membershipFilter;
+
+    private CompressedSortedFile(FileChannel channel, int blockSize, long count, long[] blockFirstValues, long[] blockOffsets) {
+        this.channel = channel;
+        this.blockSize = blockSize;
+        this.count = count;
+        this.blockFirstValues = blockFirstValues;
+        this.blockOffsets = blockOffsets;
+    }
+
+    /**
+     * Записує впорядковані значення у стиснутий файл з типовим розміром блоку.
+     *
+     * @param sortedValues Значення за зростанням.
+     * @param filePath Шлях до файлу.
+     */
+    public static void write(long[] sortedValues, String filePath) {
+        write(sortedValues, filePath, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Записує впорядковані значення у стиснутий файл.
+     *
+     * @param sortedValues Значення за зростанням.
+     * @param filePath Шлях до файлу.
+     * @param blockSize Кількість значень у блоці.
+     * @throws IllegalArgumentException якщо значення не впорядковані або розмір блоку недодатний.
+     */
+    public static void write(long[] sortedValues, String filePath, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Розмір блоку має бути додатним: " + blockSize);
+        }
+        for (int i = 1; i < sortedValues.length; i++) {
+            if (sortedValues[i] < sortedValues[i - 1]) {
+                throw new IllegalArgumentException("Значення мають бути впорядковані за зростанням (позиція " + i + ")");
+            }
+        }
+
+        // файл пишеться поблоково через один буфер блоку; у пам'яті лишається тільки розріджений індекс
+        int blockCount = (sortedValues.length + blockSize - 1) / blockSize;
+        long[] firstValues = new long[blockCount];
+        long[] offsets = new long[blockCount + 1];
+        ByteBuffer data = ByteBuffer.allocate(Math.max(HEADER_SIZE, (int) Math.min(WRITE_BUFFER_SIZE,
+                (long) blockSize * MAX_VARINT_BYTES)));
+
+        try (FileChannel output = FileChannel.open(Path.of(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = HEADER_SIZE;
+            for (int block = 0; block < blockCount; block++) {
+                int start = block * blockSize;
+                int end = (int) Math.min(sortedValues.length, (long) start + blockSize);
+                firstValues[block] = sortedValues[start];
+                offsets[block] = position;
+                for (int i = start + 1; i < end; i++) {
+                    if (data.remaining() < MAX_VARINT_BYTES) {
+                        position += drain(output, data, position);
+                    }
+                    // різниця невід'ємна, але може перевищувати Long.MAX_VALUE - записуємо як беззнакову
+                    writeVarint(data, sortedValues[i] - sortedValues[i - 1]);
+                }
+                position += drain(output, data, position);
+            }
+            offsets[blockCount] = position;
+
+            long indexOffset = position;
+            for (int block = 0; block <= blockCount; block++) {
+                if (data.remaining() < 2 * Long.BYTES) {
+                    position += drain(output, data, position);
+                }
+                if (block < blockCount) {
+                    data.putLong(firstValues[block]);
+                }
+                data.putLong(offsets[block]);
+            }
+            drain(output, data, position);
+
+            data.putInt(MAGIC);
+            data.putInt(blockSize);
+            data.putLong(sortedValues.length);
+            data.putInt(blockCount);
+            data.putInt(0);
+            data.putLong(indexOffset);
+            drain(output, data, 0);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    // записує вміст буфера з позиції position і очищує буфер; повертає кількість записаних байтів
+    private static int drain(FileChannel output, ByteBuffer data, long position) throws IOException {
+        data.flip();
+        int length = data.remaining();
+        while (data.hasRemaining()) {
+            output.write(data, position + data.position());
+        }
+        data.clear();
+        return length;
+    }
+
+    /**
+     * Відкриває стиснутий файл і читає його розріджений індекс.
+     *
+     * @param filePath Шлях до файлу.
+     * @return Відкритий файл (потребує закриття).
+     * @throws IllegalArgumentException якщо файл має інший формат.
+     */
+    public static CompressedSortedFile open(String filePath) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Файл не є стиснутим впорядкованим файлом: " + filePath);
+            }
+            int blockSize = header.getInt(4);
+            long count = header.getLong(8);
+            int blockCount = header.getInt(16);
+            long indexOffset = header.getLong(24);
+
+            ByteBuffer index = readFully(channel, indexOffset, blockCount * 16 + 8);
+            long[] firstValues = new long[blockCount];
+            long[] offsets = new long[blockCount + 1];
+            for (int block = 0; block < blockCount; block++) {
+                firstValues[block] = index.getLong();
+                offsets[block] = index.getLong();
+            }
+            offsets[blockCount] = index.getLong();
+            return new CompressedSortedFile(channel, blockSize, count, firstValues, offsets);
+        } catch (IOException ioException) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(ioException);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public int getBlockCount() {
+        return blockFirstValues.length;
+    }
+
+    /**
+     * Встановлює фільтр Блума, що перевіряється перед декодуванням блоку в {@link #contains(long)}.
+     *
+     * @param membershipFilter Фільтр, що містить усі значення файлу, або null.
+     */
+    public void setMembershipFilter(BloomFilter membershipFilter) {
+        this.membershipFilter = membershipFilter;
+    }
+
+    /**
+     * Перевіряє наявність значення, декодуючи не більше одного блоку.
+     *
+     * @param value Шукане значення.
+     * @return true, якщо значення є у файлі.
+     */
+    public boolean contains(long value) {
+        if (membershipFilter != null && !membershipFilter.mightContain(value)) {
+            return false;
+        }
+        int block = findBlock(value, true);
+        if (block < 0) {
+            return false;
+        }
+        long[] values = decodeBlock(block);
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    /**
+     * Повертає значення за позицією у впорядкованій послідовності.
+     *
+     * @param position Позиція (від 0).
+     * @return Значення.
+     */
+    public long get(long position) {
+        if (position < 0 || position >= count) {
+            throw new IndexOutOfBoundsException("Позиція " + position + " поза межами [0, " + count + ")");
+        }
+        return decodeBlock((int) (position / blockSize))[(int) (position % blockSize)];
+    }
+
+    /**
+     * Підраховує значення, менші за задане (ранг значення).
+     *
+     * @param value Значення.
+     * @return Кількість менших значень.
+     */
+    public long countLessThan(long value) {
+        int block = findBlock(value, false);
+        if (block < 0) {
+            return 0;
+        }
+        return (long) block * blockSize + lowerBound(decodeBlock(block), value);
+    }
+
+    /**
+     * Передає обробнику всі значення в інтервалі [from, to] за зростанням.
+     * Декодуються лише блоки, що перетинають інтервал.
+     *
+     * @param from Початок інтервалу (включно).
+     * @param to Кінець інтервалу (включно).
+     * @param consumer Обробник значень.
+     */
+    public void scan(long from, long to, LongConsumer consumer) {
+        if (from > to || count == 0) {
+            return;
+        }
+        int block = Math.max(0, findBlock(from, false));
+        for (; block < blockFirstValues.length && blockFirstValues[block] <= to; block++) {
+            for (long value : decodeBlock(block)) {
+                if (value > to) {
+                    return;
+                }
+                if (value >= from) {
+                    consumer.accept(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Повертає всі значення в інтервалі [from, to].
+     *
+     * @param from Початок інтервалу (включно).
+     * @param to Кінець інтервалу (включно).
+     * @return Значення за зростанням.
+     */
+    public long[] range(long from, long to) {
+        long[][] buffer = { new long[64] };
+        int[] size = { 0 };
+        scan(from, to, value -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+            }
+            buffer[0][size[0]++] = value;
+        });
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(channel);
+    }
+
+    // останній блок, перше значення якого не більше за value (inclusive) або менше за value; -1, якщо такого немає
+    private int findBlock(long value, boolean inclusive) {
+        int low = 0;
+        int high = blockFirstValues.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long first = blockFirstValues[middle];
+            if (first < value || (inclusive && first == value)) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private long[] decodeBlock(int block) {
+        long start = blockOffsets[block];
+        int length = (int) (blockOffsets[block + 1] - start);
+        ByteBuffer data;
+        try {
+            data = readFully(channel, start, length);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+
+        int valueCount = (int) Math.min(blockSize, count - (long) block * blockSize);
+        long[] values = new long[valueCount];
+        long current = blockFirstValues[block];
+        values[0] = current;
+        for (int i = 1; i < valueCount; i++) {
+            current += readVarint(data);
+            values[i] = current;
+        }
+        return values;
+    }
+
+    private static int lowerBound(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void writeVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+
+    // позиційне читання не змінює позицію каналу, тому блоки можна читати з кількох потоків
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Несподіваний кінець файлу на позиції " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+        }
+    }
+
+    /**
+     * Стискає впорядковані дані short.data, long.data та LocalDateTime.data і виконує пошук у стиснутому файлі
+     * з фільтром Блума, збереженим поруч із файлом даних.
+     *
+     * @param args Необов'язкові шлях до файлу short і шукане значення.
+     */
+    public static void main(String[] args) {
+        String shortPath = args.length > 0 ? args[0] : BasicDataOperation.PATH_TO_DATA_FILE;
+        long searchValue = args.length > 1 ? Long.parseLong(args[1]) : 0;
+
+        long[] shortValues = Arrays.stream(DataFileHandler.loadArrayFromFile(shortPath)).mapToLong(Short::longValue).toArray();
+        Arrays.sort(shortValues);
+        compressAndQuery(shortValues, shortPath, searchValue, searchValue - 1000, searchValue + 1000);
+
+        String longPath = "list/long.data";
+        long[][] longBuffer = { new long[1024] };
+        int[] longCount = { 0 };
+        DataFileHandler.streamValuesFromFile(longPath, value -> {
+            if (longCount[0] == longBuffer[0].length) {
+                longBuffer[0] = Arrays.copyOf(longBuffer[0], longCount[0] * 2);
+            }
+            longBuffer[0][longCount[0]++] = value;
+        });
+        long[] longValues = Arrays.copyOf(longBuffer[0], longCount[0]);
+        Arrays.sort(longValues);
+        compressAndQuery(longValues, longPath, searchValue, searchValue - 1_000_000_000L, searchValue + 1_000_000_000L);
+
+        TimeBucketIndex timeIndex = TimeBucketIndex.fromFile(TimeBucketIndex.PATH_TO_DATA_FILE, TimeBucketIndex.Granularity.DAY);
+        long[] epochSeconds = timeIndex.sortedEpochSeconds();
+        if (epochSeconds.length > 0) {
+            long middle = epochSeconds[epochSeconds.length / 2];
+            compressAndQuery(epochSeconds, TimeBucketIndex.PATH_TO_DATA_FILE, middle, middle - 7 * 86400L, middle + 7 * 86400L);
+            OutputSink.println("  (мітки LocalDateTime як секунди епохи; центр вікна " + Instant.ofEpochSecond(middle) + ")");
+        }
+        OutputSink.flush();
+    }
+
+    private static void compressAndQuery(long[] sortedValues, String sourcePath, long searchValue, long from, long to) {
+        String compressedPath = sourcePath + FILE_SUFFIX;
+
+        long timeStart = PerformanceTracker.startTiming();
+        write(sortedValues, compressedPath);
+        PerformanceTracker.displayOperationTime(timeStart, "запис стиснутого файлу " + compressedPath,
+                "CompressedSortedFile", sortedValues.length, null);
+
+        long textBytes = 0;
+        for (long value : sortedValues) {
+            textBytes += Long.toString(value).length() + System.lineSeparator().length();
+        }
+        try {
+            OutputSink.println("Розмір: " + Files.size(Path.of(compressedPath)) + " байт (текстом ≈" + textBytes + " байт)");
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+        }
+
+        try (CompressedSortedFile compressed = open(compressedPath)) {
+            timeStart = PerformanceTracker.startTiming();
+            long[] probes = new Random(42).longs(PROBE_COUNT, from, to + 1).toArray();
+            int foundWithoutFilter = 0;
+            for (long probe : probes) {
+                foundWithoutFilter += compressed.contains(probe) ? 1 : 0;
+            }
+            PerformanceTracker.displayOperationTime(timeStart, "пошук " + PROBE_COUNT + " значень без фільтра",
+                    "CompressedSortedFile", compressed.size(), foundWithoutFilter);
+
+            timeStart = PerformanceTracker.startTiming();
+            BloomFilter filter = BloomFilter.forDataFile(sourcePath, MEMBERSHIP_FALSE_POSITIVE_RATE);
+            compressed.setMembershipFilter(filter);
+            PerformanceTracker.displayOperationTime(timeStart, "завантаження фільтра " + sourcePath + BloomFilter.FILE_SUFFIX);
+
+            timeStart = PerformanceTracker.startTiming();
+            int foundWithFilter = 0;
+            int rejected = 0;
+            for (long probe : probes) {
+                foundWithFilter += compressed.contains(probe) ? 1 : 0;
+                rejected += filter.mightContain(probe) ? 0 : 1;
+            }
+            PerformanceTracker.displayOperationTime(timeStart, "пошук " + PROBE_COUNT + " значень з фільтром",
+                    "CompressedSortedFile", compressed.size(), foundWithFilter);
+            OutputSink.println("Знайдено: " + foundWithFilter + " з " + PROBE_COUNT + ", відсічено фільтром: " + rejected);
+
+            timeStart = PerformanceTracker.startTiming();
+            boolean found = compressed.contains(searchValue);
+            PerformanceTracker.displayOperationTime(timeStart, "пошук у стиснутому файлі",
+                    "CompressedSortedFile", compressed.size(), found);
+            OutputSink.println("Значення " + searchValue + (found ? " знайдено" : " відсутнє")
+                    + " (блоків: " + compressed.getBlockCount() + ")");
+
+            timeStart = PerformanceTracker.startTiming();
+            long[] rangeValues = compressed.range(from, to);
+            PerformanceTracker.displayOperationTime(timeStart, "перегляд діапазону стиснутого файлу",
+                    "CompressedSortedFile", compressed.size(), rangeValues.length);
+            OutputSink.println("Значень у діапазоні [" + from + ", " + to + "]: " + rangeValues.length);
+        }
+    }
+}
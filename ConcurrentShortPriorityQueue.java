@@ -0,0 +1,147 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Клас ConcurrentShortPriorityQueue - неблокуюча черга з пріоритетами для значень short.
+ *
+ * <p>Для кожного з 65 536 значень домену зберігається лічильник входжень (кошик), а непорожні
+ * кошики позначаються у дворівневій бітовій карті: 1024 слова по 64 кошики та 16 слів зведення,
+ * де біт означає непорожнє слово нижнього рівня. Тому:</p>
+ * <ul>
+ *   <li>{@link #offer(short)} - атомарне збільшення лічильника та встановлення бітів, без блокувань;</li>
+ *   <li>{@link #poll()} - пошук першого встановленого біта (не більше 16 + 1 + 1 слів) і CAS-зменшення
+ *       лічильника; потоки, що працюють з різними значеннями, не конкурують за одну комірку.</li>
+ * </ul>
+ *
+ * <p>Біт кошика знімається, коли споживач бачить нульовий лічильник, після чого лічильник перевіряється
+ * повторно і біт за потреби відновлюється, тож значення не губляться. Черга узгоджена у стані спокою:
+ * poll() може повернути null, якщо виробник уже збільшив лічильник, але ще не встановив біт.</p>
+ */
+public class ConcurrentShortPriorityQueue {
+    private static final int WORD_COUNT = ShortQueryEngine.DOMAIN_SIZE / 64;
+    private static final int SUMMARY_COUNT = WORD_COUNT / 64;
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(ShortQueryEngine.DOMAIN_SIZE);
+    private final AtomicLongArray words = new AtomicLongArray(WORD_COUNT);
+    private final AtomicLongArray summary = new AtomicLongArray(SUMMARY_COUNT);
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Додає значення до черги.
+     *
+     * @param value Значення (пріоритет; менше значення - вищий пріоритет).
+     */
+    public void offer(short value) {
+        int bucket = ShortQueryEngine.indexOf(value);
+        counts.getAndIncrement(bucket);
+        size.increment();
+        markBucket(bucket);
+    }
+
+    /**
+     * Вилучає найменше значення.
+     *
+     * @return Найменше значення або null, якщо черга порожня.
+     */
+    public Short poll() {
+        while (true) {
+            int bucket = findFirstBucket();
+            if (bucket < 0) {
+                return null;
+            }
+
+            int count = counts.get(bucket);
+            while (count > 0) {
+                if (counts.compareAndSet(bucket, count, count - 1)) {
+                    size.decrement();
+                    return ShortQueryEngine.valueAt(bucket);
+                }
+                count = counts.get(bucket);
+            }
+
+            // кошик спорожнів: знімаємо біт і повторно перевіряємо лічильник
+            clearBucket(bucket);
+        }
+    }
+
+    /**
+     * Повертає найменше значення без вилучення.
+     *
+     * @return Найменше значення або null, якщо черга порожня.
+     */
+    public Short peek() {
+        while (true) {
+            int bucket = findFirstBucket();
+            if (bucket < 0) {
+                return null;
+            }
+            if (counts.get(bucket) > 0) {
+                return ShortQueryEngine.valueAt(bucket);
+            }
+            clearBucket(bucket);
+        }
+    }
+
+    /**
+     * Повертає кількість елементів (точна лише у стані спокою).
+     *
+     * @return Кількість елементів.
+     */
+    public long size() {
+        return size.sum();
+    }
+
+    public boolean isEmpty() {
+        return findFirstBucket() < 0;
+    }
+
+    private void markBucket(int bucket) {
+        int word = bucket >>> 6;
+        long bit = 1L << bucket;
+        // читання перед атомарним OR уникає зайвого запису в кеш-лінію, якщо біт уже встановлено
+        if ((words.get(word) & bit) == 0) {
+            words.getAndAccumulate(word, bit, (current, mask) -> current | mask);
+        }
+        int summaryWord = word >>> 6;
+        long summaryBit = 1L << word;
+        if ((summary.get(summaryWord) & summaryBit) == 0) {
+            summary.getAndAccumulate(summaryWord, summaryBit, (current, mask) -> current | mask);
+        }
+    }
+
+    private void clearBucket(int bucket) {
+        int word = bucket >>> 6;
+        long bit = 1L << bucket;
+        long remaining = words.accumulateAndGet(word, ~bit, (current, mask) -> current & mask);
+        if (counts.get(bucket) > 0) {
+            // виробник додав значення між перевіркою і зняттям біта - відновлюємо позначку
+            markBucket(bucket);
+            return;
+        }
+        if (remaining == 0) {
+            int summaryWord = word >>> 6;
+            long summaryBit = 1L << word;
+            summary.accumulateAndGet(summaryWord, ~summaryBit, (current, mask) -> current & mask);
+            if (words.get(word) != 0) {
+                summary.getAndAccumulate(summaryWord, summaryBit, (current, mask) -> current | mask);
+            }
+        }
+    }
+
+    private int findFirstBucket() {
+        for (int summaryWord = 0; summaryWord < SUMMARY_COUNT; summaryWord++) {
+            long summaryBits = summary.get(summaryWord);
+            while (summaryBits != 0) {
+                int word = (summaryWord << 6) + Long.numberOfTrailingZeros(summaryBits);
+                long bits = words.get(word);
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                // слово вже порожнє, але біт зведення ще не знято - переходимо до наступного
+                summaryBits &= summaryBits - 1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Клас CountMinSketch наближено підраховує частоти елементів потоку з фіксованим обсягом пам'яті.
+ *
+ * <p>Оцінка ніколи не буває меншою за справжню частоту і перевищує її не більше ніж на
+ * epsilon * N з імовірністю 1 - delta, де N - загальна кількість доданих елементів.</p>
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final long[][] table;
+    private final long[] rowSeeds;
+    private long totalCount;
+
+    /**
+     * Створює ескіз із заданими параметрами точності.
+     *
+     * @param epsilon Допустима похибка як частка від загальної кількості елементів.
+     * @param delta Імовірність перевищення похибки.
+     */
+    CountMinSketch(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Параметри epsilon та delta мають бути в межах (0, 1).");
+        }
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = (int) Math.ceil(Math.log(1 / delta));
+        this.table = new long[depth][width];
+        this.rowSeeds = new long[depth];
+        for (int row = 0; row < depth; row++) {
+            rowSeeds[row] = HyperLogLog.mix64(row + 0x5DEECE66DL);
+        }
+    }
+
+    /**
+     * Додає елемент, заданий своїм хешем, і повертає оновлену оцінку його частоти.
+     *
+     * @param hash 64-бітний хеш елемента.
+     * @return Оцінка частоти елемента після додавання.
+     */
+    public long addAndEstimate(long hash) {
+        totalCount++;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long[] counters = table[row];
+            int column = columnOf(hash, row);
+            long updated = ++counters[column];
+            if (updated < estimate) {
+                estimate = updated;
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Повертає оцінку частоти елемента.
+     *
+     * @param hash 64-бітний хеш елемента.
+     * @return Оцінка частоти.
+     */
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table[row][columnOf(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    private int columnOf(long hash, int row) {
+        long rowHash = HyperLogLog.mix64(hash ^ rowSeeds[row]);
+        return (int) Long.remainderUnsigned(rowHash, width);
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Клас CowSortKeys упорядковує корів у природному порядку {@link BasicDataOperationUsingMap.Cow}
+ * через попередньо обчислені цілочисельні ключі замість викликів compareTo.
+ *
+ * <p>Для кожної корови будується ключ {@code long} з трьох полів (від старших бітів до молодших):</p>
+ * <ul>
+ *   <li>ранг клички у впорядкованому словнику різних кличок (null - ранг 0, тобто першою);</li>
+ *   <li>ранг надою серед різних значень за {@link Double#compareTo(Double)} (null - останнім);</li>
+ *   <li>номер корови у вхідній колекції - робить ключі унікальними й сортування стабільним.</li>
+ * </ul>
+ *
+ * <p>Рядки порівнюються лише під час сортування словника різних кличок; далі ключі впорядковуються
+ * порозрядним сортуванням {@link RadixSort#sortUnsignedKeys(long[], int, boolean)} за стільки байтів,
+ * скільки займає ключ, а корови переставляються один раз за номерами з ключів. Якщо три поля
+ * не вміщуються в 64 біти, виконується звичайне {@link Collections#sort(List)}.</p>
+ */
+public class CowSortKeys {
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Повертає корів, упорядкованих так само, як {@link Collections#sort(List)} за Cow.compareTo().
+     *
+     * @param cows Корови для сортування.
+     * @return Новий впорядкований список.
+     */
+    public static List<BasicDataOperationUsingMap.Cow> sort(Collection<BasicDataOperationUsingMap.Cow> cows) {
+        BasicDataOperationUsingMap.Cow[] items = cows.toArray(new BasicDataOperationUsingMap.Cow[0]);
+        int count = items.length;
+
+        // словник кличок: ранг 0 зарезервовано для null
+        HashMap<String, Integer> nicknameRanks = new HashMap<>();
+        for (BasicDataOperationUsingMap.Cow cow : items) {
+            if (cow.getNickname() != null) {
+                nicknameRanks.putIfAbsent(cow.getNickname(), 0);
+            }
+        }
+        String[] nicknames = nicknameRanks.keySet().toArray(new String[0]);
+        Arrays.sort(nicknames);
+        for (int rank = 0; rank < nicknames.length; rank++) {
+            nicknameRanks.put(nicknames[rank], rank + 1);
+        }
+
+        // Arrays.sort(double[]) використовує той самий повний порядок, що й Double.compareTo
+        double[] milkings = new double[count];
+        int milkingCount = 0;
+        for (BasicDataOperationUsingMap.Cow cow : items) {
+            if (cow.getMilking() != null) {
+                milkings[milkingCount++] = cow.getMilking();
+            }
+        }
+        Arrays.sort(milkings, 0, milkingCount);
+        int distinctMilkings = 0;
+        for (int i = 0; i < milkingCount; i++) {
+            if (distinctMilkings == 0
+                    || Double.compare(milkings[i], milkings[distinctMilkings - 1]) != 0) {
+                milkings[distinctMilkings++] = milkings[i];
+            }
+        }
+
+        int indexBits = bitsFor(count);
+        int milkingBits = bitsFor(distinctMilkings + 1);
+        int nicknameBits = bitsFor(nicknames.length + 1);
+        int keyBits = nicknameBits + milkingBits + indexBits;
+        if (keyBits > Long.SIZE) {
+            List<BasicDataOperationUsingMap.Cow> sorted = new ArrayList<>(cows);
+            Collections.sort(sorted);
+            return sorted;
+        }
+
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            BasicDataOperationUsingMap.Cow cow = items[i];
+            long nicknameRank = cow.getNickname() == null ? 0 : nicknameRanks.get(cow.getNickname());
+            long milkingRank = cow.getMilking() == null
+                    ? distinctMilkings
+                    : Arrays.binarySearch(milkings, 0, distinctMilkings, cow.getMilking());
+            keys[i] = nicknameRank << (milkingBits + indexBits) | milkingRank << indexBits | i;
+        }
+
+        RadixSort.sortUnsignedKeys(keys, (keyBits + 7) / 8, count >= PARALLEL_THRESHOLD);
+
+        long indexMask = (1L << indexBits) - 1;
+        List<BasicDataOperationUsingMap.Cow> sorted = new ArrayList<>(count);
+        for (long key : keys) {
+            sorted.add(items[(int) (key & indexMask)]);
+        }
+        return sorted;
+    }
+
+    /**
+     * Повертає кількість бітів, достатню для значень [0, valueCount).
+     */
+    private static int bitsFor(int valueCount) {
+        return valueCount <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(valueCount - 1L);
+    }
+}
@@ -1,13 +1,28 @@
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
  * Клас DataFileHandler управляє роботою з файлами даних short.
  */
 public class DataFileHandler {
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Завантажує масив об'єктів short з файлу.
      * 
@@ -38,20 +53,504 @@ public class DataFileHandler {
         return resultArray;
     }
 
+    /**
+     * Завантажує масив значень double з файлу.
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @return Масив значень double.
+     * @throws UncheckedIOException якщо файл не вдалося прочитати.
+     */
+    public static double[] loadDoubleArrayFromFile(String filePath) {
+        double[][] buffer = { new double[1024] };
+        int[] size = { 0 };
+        streamLinesFromFile(filePath, line -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+            }
+            buffer[0][size[0]++] = Double.parseDouble(line);
+        });
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+
+    /**
+     * Завантажує масив значень float з файлу.
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @return Масив значень float.
+     * @throws UncheckedIOException якщо файл не вдалося прочитати.
+     */
+    public static float[] loadFloatArrayFromFile(String filePath) {
+        float[][] buffer = { new float[1024] };
+        int[] size = { 0 };
+        streamLinesFromFile(filePath, line -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+            }
+            buffer[0][size[0]++] = Float.parseFloat(line);
+        });
+        return Arrays.copyOf(buffer[0], size[0]);
+    }
+
     /**
      * Зберігає масив об'єктів short у файл.
+     * Запис виконується через {@link AtomicValueWriter}, тому читачі ніколи не бачать частково записаний файл.
      * 
      * @param shortArray Масив об'єктів short.
      * @param filePath Шлях до файлу для збереження.
      */
     public static void writeArrayToFile(Short[] shortArray, String filePath) {
-        try (BufferedWriter fileWriter = new BufferedWriter(new FileWriter(filePath))) {
+        try (AtomicValueWriter valueWriter = new AtomicValueWriter(Path.of(filePath))) {
             for (Short shortElement : shortArray) {
-                fileWriter.write(Short.toString(shortElement));
-                fileWriter.newLine();
+                valueWriter.write(shortElement);
             }
+            valueWriter.commit();
         } catch (IOException ioException) {
             ioException.printStackTrace();
         }
     }
+
+    /**
+     * Записувач цілих значень (одне в рядку) з атомарною заміною цільового файлу.
+     *
+     * <p>Цифри кодуються безпосередньо в байтовий буфер без створення рядків, буфер записується
+     * у тимчасовий файл поруч із цільовим великими частинами через FileChannel. Метод
+     * {@link #commit()} скидає дані на диск і атомарно перейменовує тимчасовий файл на цільовий;
+     * закриття без commit() видаляє тимчасовий файл, а цільовий залишається незмінним.</p>
+     *
+     * <p>Тимчасовий файл створюється з {@link StandardOpenOption#CREATE_NEW} під випадковою назвою,
+     * тож наявний файл чи символьне посилання з такою назвою ніколи не перезаписується.
+     * Після перейменування на диск скидається й каталог, щоб заміна пережила збій.</p>
+     */
+    static final class AtomicValueWriter implements Closeable {
+        private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+        private static final int MAX_LINE_BYTES = 20 + LINE_SEPARATOR.length;
+        private static final int TEMPORARY_NAME_ATTEMPTS = 16;
+
+        private final Path targetPath;
+        private final Path temporaryPath;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(STREAM_BUFFER_SIZE);
+        private final byte[] digits = new byte[20];
+        private boolean committed;
+
+        /**
+         * Створює тимчасовий файл у каталозі цільового файлу.
+         *
+         * @param targetPath Шлях до цільового файлу.
+         * @throws IOException якщо тимчасовий файл не вдалося створити.
+         */
+        AtomicValueWriter(Path targetPath) throws IOException {
+            this.targetPath = targetPath.toAbsolutePath();
+            // файл створюється з типовими правами, як і цільовий (на відміну від Files.createTempFile)
+            Path candidate = null;
+            FileChannel created = null;
+            FileAlreadyExistsException collision = null;
+            for (int attempt = 0; created == null && attempt < TEMPORARY_NAME_ATTEMPTS; attempt++) {
+                candidate = this.targetPath.resolveSibling(this.targetPath.getFileName() + "."
+                        + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+                try {
+                    created = FileChannel.open(candidate, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                } catch (FileAlreadyExistsException e) {
+                    collision = e;
+                }
+            }
+            if (created == null) {
+                throw collision;
+            }
+            this.temporaryPath = candidate;
+            this.channel = created;
+        }
+
+        /**
+         * Дописує значення окремим рядком.
+         *
+         * @param value Значення.
+         * @throws IOException якщо запис не вдався.
+         */
+        void write(long value) throws IOException {
+            if (buffer.remaining() < MAX_LINE_BYTES) {
+                drain();
+            }
+
+            // цифри формуються з кінця; модуль залишку, а не значення, коректно обробляє Long.MIN_VALUE
+            int position = digits.length;
+            long remainder = value;
+            do {
+                digits[--position] = (byte) ('0' + Math.abs(remainder % 10));
+                remainder /= 10;
+            } while (remainder != 0);
+            if (value < 0) {
+                buffer.put((byte) '-');
+            }
+            buffer.put(digits, position, digits.length - position);
+            buffer.put(LINE_SEPARATOR);
+        }
+
+        /**
+         * Дописує двійкові дані як є (для файлів, що не складаються з рядків значень).
+         *
+         * @param data Дані від поточної позиції до межі.
+         * @throws IOException якщо запис не вдався.
+         */
+        void write(ByteBuffer data) throws IOException {
+            drain();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+
+        /**
+         * Скидає дані на диск і атомарно замінює цільовий файл.
+         *
+         * @throws IOException якщо запис або перейменування не вдалися.
+         */
+        void commit() throws IOException {
+            drain();
+            channel.force(true);
+            channel.close();
+            try {
+                Files.move(temporaryPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            committed = true;
+            forceDirectory(targetPath.getParent());
+        }
+
+        /**
+         * Закриває записувач; якщо commit() не виконано, тимчасовий файл видаляється.
+         *
+         * @throws IOException якщо закриття не вдалося.
+         */
+        @Override
+        public void close() throws IOException {
+            if (committed) {
+                return;
+            }
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(temporaryPath);
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Розбір цілих значень (одне в рядку) безпосередньо з байтів файлу.
+     *
+     * <p>Перед знаком і після цифр допускаються пробіли, табуляції та '\r', порожні рядки пропускаються.
+     * Знак '+' або '-' допускається лише безпосередньо перед цифрами, BOM (EF BB BF) - лише на початку
+     * файлу. Значення, що не вміщується в long, відхиляється.</p>
+     */
+    private static final class ValueParser {
+        private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        private static final int BEFORE_VALUE = 0;
+        private static final int AFTER_SIGN = 1;
+        private static final int IN_DIGITS = 2;
+        private static final int AFTER_VALUE = 3;
+
+        private final String filePath;
+        private int state = BEFORE_VALUE;
+        private int byteOrderMarkBytes;
+        private boolean negative;
+        // накопичуємо від'ємне значення, щоб коректно розібрати Long.MIN_VALUE
+        private long accumulated;
+        private long value;
+
+        ValueParser(String filePath) {
+            this.filePath = filePath;
+        }
+
+        /**
+         * Обробляє наступний байт файлу.
+         *
+         * @param currentByte Байт.
+         * @param offset Зміщення байта від початку файлу.
+         * @return true, якщо байт завершив рядок зі значенням (значення доступне через {@link #value()}).
+         * @throws NumberFormatException якщо рядок не є цілим числом або значення поза межами long.
+         */
+        boolean accept(byte currentByte, long offset) {
+            if (offset < BYTE_ORDER_MARK.length && byteOrderMarkBytes == offset) {
+                if (currentByte == BYTE_ORDER_MARK[(int) offset]) {
+                    byteOrderMarkBytes++;
+                    return false;
+                }
+                if (offset > 0) {
+                    throw invalid(offset);
+                }
+            }
+
+            if (currentByte >= '0' && currentByte <= '9') {
+                if (state == AFTER_VALUE) {
+                    throw invalid(offset);
+                }
+                try {
+                    accumulated = Math.subtractExact(Math.multiplyExact(accumulated, 10), currentByte - '0');
+                } catch (ArithmeticException e) {
+                    throw outOfRange(offset);
+                }
+                state = IN_DIGITS;
+                return false;
+            }
+            switch (currentByte) {
+                case '\n':
+                    return finish(offset);
+                case '-':
+                case '+':
+                    if (state != BEFORE_VALUE) {
+                        throw invalid(offset);
+                    }
+                    negative = currentByte == '-';
+                    state = AFTER_SIGN;
+                    return false;
+                case ' ':
+                case '\t':
+                case '\r':
+                    if (state == AFTER_SIGN) {
+                        throw invalid(offset);
+                    }
+                    if (state == IN_DIGITS) {
+                        state = AFTER_VALUE;
+                    }
+                    return false;
+                default:
+                    throw invalid(offset);
+            }
+        }
+
+        /**
+         * Завершує поточний рядок (кінець рядка або файлу).
+         *
+         * @param offset Зміщення кінця рядка.
+         * @return true, якщо рядок містив значення.
+         * @throws NumberFormatException якщо рядок містить лише знак або значення поза межами long.
+         */
+        boolean finish(long offset) {
+            if (state == AFTER_SIGN) {
+                throw invalid(offset);
+            }
+            boolean hasValue = state != BEFORE_VALUE;
+            if (hasValue) {
+                if (!negative && accumulated == Long.MIN_VALUE) {
+                    throw outOfRange(offset);
+                }
+                value = negative ? accumulated : -accumulated;
+            }
+            state = BEFORE_VALUE;
+            negative = false;
+            accumulated = 0;
+            return hasValue;
+        }
+
+        long value() {
+            return value;
+        }
+
+        private NumberFormatException invalid(long offset) {
+            return new NumberFormatException("Некоректний символ у файлі " + filePath + " за зміщенням " + offset);
+        }
+
+        private NumberFormatException outOfRange(long offset) {
+            return new NumberFormatException("Значення поза межами long у файлі " + filePath + " за зміщенням " + offset);
+        }
+    }
+
+    /**
+     * Скидає на диск запис каталогу, щоб створення чи перейменування файлу в ньому пережило збій.
+     * На платформах, де каталог не можна відкрити як канал (Windows), нічого не робить.
+     *
+     * @param directory Каталог.
+     * @throws IOException якщо скидання на диск не вдалося.
+     */
+    static void forceDirectory(Path directory) throws IOException {
+        FileChannel directoryChannel;
+        try {
+            directoryChannel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException | UnsupportedOperationException e) {
+            return;
+        }
+        try (directoryChannel) {
+            directoryChannel.force(true);
+        }
+    }
+
+    /**
+     * Послідовний читач цілих значень (одне в рядку) з обмеженим буфером.
+     *
+     * <p>На відміну від {@link #streamValuesFromFile(String, LongConsumer)}, значення вибираються
+     * викликом {@link #next()}, тому кілька файлів можна читати поперемінно (наприклад, під час злиття).
+     * Правила розбору ті самі, що й у {@link #streamValuesFromFile(String, LongConsumer)}.</p>
+     */
+    static final class ValueReader implements Closeable {
+        private final String filePath;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final ValueParser parser;
+        private long offset;
+
+        /**
+         * Відкриває файл для читання.
+         *
+         * @param filePath Шлях до файлу з даними.
+         * @param bufferSize Розмір буфера читання в байтах.
+         * @throws IOException якщо файл не вдалося відкрити.
+         */
+        ValueReader(String filePath, int bufferSize) throws IOException {
+            this.filePath = filePath;
+            this.channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(bufferSize);
+            this.buffer.flip();
+            this.parser = new ValueParser(filePath);
+        }
+
+        /**
+         * Читає наступне значення.
+         *
+         * @return true, якщо значення прочитано; false наприкінці файлу.
+         * @throws IOException якщо читання не вдалося.
+         * @throws NumberFormatException якщо рядок не є цілим числом.
+         */
+        boolean next() throws IOException {
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    int bytesRead = channel.read(buffer);
+                    buffer.flip();
+                    if (bytesRead <= 0) {
+                        // останній рядок без символу нового рядка
+                        return parser.finish(offset);
+                    }
+                }
+                if (parser.accept(buffer.get(), offset++)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Повертає значення, прочитане останнім викликом {@link #next()}.
+         *
+         * @return Значення.
+         */
+        long value() {
+            return parser.value();
+        }
+
+        String getFilePath() {
+            return filePath;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Послідовно читає цілі значення з файлу без створення масиву в пам'яті.
+     *
+     * @param filePath Шлях до файлу з даними (одне ціле число в рядку).
+     * @param consumer Обробник кожного прочитаного значення.
+     * @throws NumberFormatException якщо рядок не є цілим числом.
+     * @throws UncheckedIOException якщо файл не вдалося прочитати.
+     */
+    public static void streamValuesFromFile(String filePath, LongConsumer consumer) {
+        streamValuesFromFile(filePath, 0, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Читає цілі значення з частини файлу без створення масиву в пам'яті.
+     *
+     * <p>Частині належать рядки, що починаються в межах [chunkStart, chunkEnd), тому
+     * послідовні частини, що покривають файл, обробляють кожен рядок рівно один раз.
+     * Розбір виконується безпосередньо з байтів, без створення рядків.</p>
+     *
+     * @param filePath Шлях до файлу з даними (одне ціле число в рядку).
+     * @param chunkStart Зміщення початку частини в байтах.
+     * @param chunkEnd Зміщення кінця частини в байтах (не включно).
+     * @param consumer Обробник кожного прочитаного значення.
+     * @throws NumberFormatException якщо рядок не є цілим числом.
+     * @throws UncheckedIOException якщо файл не вдалося прочитати.
+     */
+    public static void streamValuesFromFile(String filePath, long chunkStart, long chunkEnd, LongConsumer consumer) {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+            ValueParser parser = new ValueParser(filePath);
+
+            // якщо частина починається всередині рядка, пропускаємо його залишок
+            boolean skippingPartialLine = chunkStart > 0;
+            long offset = skippingPartialLine ? chunkStart - 1 : 0;
+            boolean atLineStart = !skippingPartialLine;
+
+            while (true) {
+                buffer.clear();
+                int bytesRead = channel.read(buffer, offset);
+                if (bytesRead <= 0) {
+                    break;
+                }
+                buffer.flip();
+
+                while (buffer.hasRemaining()) {
+                    byte currentByte = buffer.get();
+                    long currentOffset = offset++;
+
+                    if (skippingPartialLine) {
+                        if (currentByte == '\n') {
+                            skippingPartialLine = false;
+                            atLineStart = true;
+                        }
+                        continue;
+                    }
+                    if (atLineStart) {
+                        if (currentOffset >= chunkEnd) {
+                            return;
+                        }
+                        atLineStart = false;
+                    }
+
+                    if (parser.accept(currentByte, currentOffset)) {
+                        consumer.accept(parser.value());
+                    }
+                    if (currentByte == '\n') {
+                        atLineStart = true;
+                    }
+                }
+            }
+
+            if (!skippingPartialLine && parser.finish(offset)) {
+                consumer.accept(parser.value());
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Послідовно читає непорожні рядки текстового файлу в кодуванні UTF-8 без збереження їх у пам'яті.
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @param consumer Обробник кожного рядка (без BOM та кінцевих пробілів).
+     * @throws UncheckedIOException якщо файл не вдалося прочитати або він не є коректним UTF-8.
+     */
+    public static void streamLinesFromFile(String filePath, Consumer<String> consumer) {
+        try (BufferedReader fileReader = Files.newBufferedReader(Path.of(filePath), StandardCharsets.UTF_8)) {
+            String currentLine;
+            while ((currentLine = fileReader.readLine()) != null) {
+                currentLine = currentLine.trim().replaceAll("^\\uFEFF", "");
+                if (!currentLine.isEmpty()) {
+                    consumer.accept(currentLine);
+                }
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
 }
@@ -0,0 +1,606 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Клас DurableCowRegistry зберігає стадо (Cow - власник) на диску з журналом попереднього запису.
+ *
+ * <p>Кожна зміна (put або remove) дописується записом журналу {@code cows.wal} з контрольною
+ * сумою CRC32. Окремий потік фіксації об'єднує записи, що надійшли одночасно, в одну групу і виконує
+ * для неї один запис та одну синхронізацію з диском (group commit); виклик put/remove повертається
+ * лише після того, як його запис став стійким. До HashMap у пам'яті зміна застосовується тільки після
+ * успішної синхронізації, тож {@link #toHashMap()} і {@link #size()} ніколи не показують незаписаний стан.
+ * Після помилки запису (чи переривання потоку фіксації) реєстр відхиляє всі подальші зміни.</p>
+ *
+ * <p>Коли журнал перевищує поріг, стан стискається у знімок {@code cows.snapshot} (записується
+ * в тимчасовий файл і атомарно перейменовується), а журнал очищується. Знімок записується з копії
+ * стану поза блокуванням, тож put/remove не чекають на стиснення. Під час відкриття
+ * завантажується знімок і відтворюється хвіст журналу; пошкоджений або обірваний останній запис
+ * відкидається. Повторне відтворення суфікса журналу поверх знімка дає той самий стан,
+ * тому збій між записом знімка та очищенням журналу безпечний.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java DurableCowRegistry registry 4 10000
+ * java BasicDataOperationUsingMap persistent registry
+ * }
+ * </pre>
+ */
+public class DurableCowRegistry implements Closeable {
+    static final String WAL_FILE = "cows.wal";
+    static final String SNAPSHOT_FILE = "cows.snapshot";
+    static final long DEFAULT_COMPACTION_THRESHOLD = 4 * 1024 * 1024;
+
+    private static final int SNAPSHOT_MAGIC = 0x434F5753; // "COWS"
+    private static final byte OPERATION_PUT = 1;
+    private static final byte OPERATION_REMOVE = 2;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final long compactionThreshold;
+    // стійкий стан: лише зміни, записи яких уже синхронізовано з диском
+    private final HashMap<BasicDataOperationUsingMap.Cow, String> cows = new HashMap<>();
+    // остання ще не стійка зміна кожного ключа; з неї put/remove визначають попереднє значення
+    private final HashMap<BasicDataOperationUsingMap.Cow, Change> unsynced = new HashMap<>();
+    private final FileChannel walChannel;
+    private final Thread committer;
+    private final Object lock = new Object();
+
+    // записи, що очікують фіксації, та буфер, який зараз записує потік фіксації
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer writing = ByteBuffer.allocate(64 * 1024);
+    private ArrayList<Change> pendingChanges = new ArrayList<>();
+    private ArrayList<Change> writingChanges = new ArrayList<>();
+    private long appendedSequence;
+    private long durableSequence;
+    private long walBytes;
+    private long commitBatches;
+    private long compactions;
+    private IOException failure;
+    private boolean compactionRequested;
+    private boolean closed;
+
+    /**
+     * Зміна, що очікує фіксації.
+     */
+    private static final class Change {
+        private final byte operation;
+        private final BasicDataOperationUsingMap.Cow cow;
+        private final String owner;
+
+        Change(byte operation, BasicDataOperationUsingMap.Cow cow, String owner) {
+            this.operation = operation;
+            this.cow = cow;
+            this.owner = owner;
+        }
+    }
+
+    private DurableCowRegistry(Path directory, long compactionThreshold) throws IOException {
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+        Files.createDirectories(directory);
+
+        loadSnapshot(directory.resolve(SNAPSHOT_FILE));
+        this.walChannel = FileChannel.open(directory.resolve(WAL_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.walBytes = replayWal();
+
+        this.committer = new Thread(this::runCommitter, "cow-registry-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Відкриває реєстр у каталозі з типовим порогом стиснення журналу.
+     *
+     * @param directory Каталог реєстру (створюється за потреби).
+     * @return Відкритий реєстр (потребує закриття).
+     */
+    public static DurableCowRegistry open(Path directory) {
+        return open(directory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Відкриває реєстр у каталозі: завантажує знімок і відтворює журнал.
+     *
+     * @param directory Каталог реєстру (створюється за потреби).
+     * @param compactionThreshold Розмір журналу в байтах, після якого стан стискається у знімок.
+     * @return Відкритий реєстр (потребує закриття).
+     */
+    public static DurableCowRegistry open(Path directory, long compactionThreshold) {
+        try {
+            return new DurableCowRegistry(directory, compactionThreshold);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Додає або замінює запис і чекає, доки зміна стане стійкою.
+     *
+     * @param cow Ключ.
+     * @param owner Власник.
+     * @return Попередній власник або null.
+     */
+    public String put(BasicDataOperationUsingMap.Cow cow, String owner) {
+        long ticket;
+        String previous;
+        synchronized (lock) {
+            ensureOpen();
+            previous = currentOwner(cow);
+            ticket = append(new Change(OPERATION_PUT, cow, owner));
+        }
+        awaitDurable(ticket);
+        return previous;
+    }
+
+    /**
+     * Видаляє запис і чекає, доки зміна стане стійкою.
+     *
+     * @param cow Ключ.
+     * @return Видалений власник або null, якщо запису не було.
+     */
+    public String remove(BasicDataOperationUsingMap.Cow cow) {
+        long ticket;
+        String removed;
+        synchronized (lock) {
+            ensureOpen();
+            if (!currentlyContains(cow)) {
+                return null;
+            }
+            removed = currentOwner(cow);
+            ticket = append(new Change(OPERATION_REMOVE, cow, null));
+        }
+        awaitDurable(ticket);
+        return removed;
+    }
+
+    /**
+     * Повертає копію стійкого стану.
+     *
+     * @return Нова HashMap зі стадом.
+     */
+    public HashMap<BasicDataOperationUsingMap.Cow, String> toHashMap() {
+        synchronized (lock) {
+            return new HashMap<>(cows);
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return cows.size();
+        }
+    }
+
+    public long getCommittedRecords() {
+        synchronized (lock) {
+            return durableSequence;
+        }
+    }
+
+    public long getCommitBatches() {
+        synchronized (lock) {
+            return commitBatches;
+        }
+    }
+
+    public long getCompactions() {
+        synchronized (lock) {
+            return compactions;
+        }
+    }
+
+    /**
+     * Стискає поточний стан у знімок і очищує журнал. Стиснення виконує потік фіксації,
+     * метод чекає на його завершення.
+     */
+    public void compact() {
+        synchronized (lock) {
+            ensureOpen();
+            long target = compactions + 1;
+            compactionRequested = true;
+            lock.notifyAll();
+            while (compactions < target) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Не вдалося стиснути журнал реєстру", failure);
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Очікування стиснення перервано", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Дочікується фіксації всіх записів, зупиняє потік фіксації і закриває журнал.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            walChannel.close();
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+        }
+    }
+
+    // ===== Журнал і фіксація =====
+
+    // стан з урахуванням змін, що ще очікують фіксації (викликається під lock)
+    private boolean currentlyContains(BasicDataOperationUsingMap.Cow cow) {
+        Change change = unsynced.get(cow);
+        return change != null ? change.operation == OPERATION_PUT : cows.containsKey(cow);
+    }
+
+    private String currentOwner(BasicDataOperationUsingMap.Cow cow) {
+        Change change = unsynced.get(cow);
+        return change != null ? change.owner : cows.get(cow);
+    }
+
+    private long append(Change change) {
+        pending = encodeRecord(pending, change.operation, change.cow, change.owner);
+        pendingChanges.add(change);
+        unsynced.put(change.cow, change);
+        appendedSequence++;
+        lock.notifyAll();
+        return appendedSequence;
+    }
+
+    private void awaitDurable(long ticket) {
+        synchronized (lock) {
+            while (durableSequence < ticket) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Не вдалося зафіксувати журнал реєстру", failure);
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Очікування фіксації перервано", e);
+                }
+            }
+        }
+    }
+
+    // журнал записує та стискає лише цей потік, тому запис групи і очищення журналу не перетинаються
+    private void runCommitter() {
+        try {
+            while (true) {
+                long batchSequence;
+                synchronized (lock) {
+                    while (pending.position() == 0 && !closed && !compactionRequested) {
+                        lock.wait();
+                    }
+                    if (pending.position() == 0 && closed) {
+                        return;
+                    }
+                    // забираємо всі записи, що накопичилися, поки тривала попередня синхронізація
+                    ByteBuffer batch = pending;
+                    pending = writing;
+                    writing = batch;
+                    ArrayList<Change> changes = pendingChanges;
+                    pendingChanges = writingChanges;
+                    writingChanges = changes;
+                    batchSequence = appendedSequence;
+                }
+
+                writing.flip();
+                long written = writing.remaining();
+                if (written > 0) {
+                    while (writing.hasRemaining()) {
+                        walChannel.write(writing);
+                    }
+                    walChannel.force(false);
+                }
+                writing.clear();
+
+                HashMap<BasicDataOperationUsingMap.Cow, String> snapshot = null;
+                synchronized (lock) {
+                    // записи групи стійкі - тепер їх можна застосувати до стану в пам'яті
+                    for (Change change : writingChanges) {
+                        if (change.operation == OPERATION_PUT) {
+                            cows.put(change.cow, change.owner);
+                        } else {
+                            cows.remove(change.cow);
+                        }
+                        if (unsynced.get(change.cow) == change) {
+                            unsynced.remove(change.cow);
+                        }
+                    }
+                    writingChanges.clear();
+                    if (written > 0) {
+                        durableSequence = batchSequence;
+                        walBytes += written;
+                        commitBatches++;
+                    }
+                    if (compactionRequested || walBytes > compactionThreshold) {
+                        compactionRequested = false;
+                        snapshot = new HashMap<>(cows);
+                    }
+                    lock.notifyAll();
+                }
+
+                if (snapshot != null) {
+                    // знімок пишеться без lock: put/remove тим часом додають записи в pending
+                    compact(snapshot);
+                    synchronized (lock) {
+                        walBytes = 0;
+                        compactions++;
+                        lock.notifyAll();
+                    }
+                }
+            }
+        } catch (IOException ioException) {
+            fail(ioException);
+        } catch (InterruptedException e) {
+            InterruptedIOException interrupted = new InterruptedIOException("Потік фіксації реєстру перервано");
+            interrupted.initCause(e);
+            fail(interrupted);
+        }
+    }
+
+    // зміни, що не стали стійкими, відкидаються; всі, хто чекає на фіксацію, отримують помилку
+    private void fail(IOException cause) {
+        synchronized (lock) {
+            failure = cause;
+            unsynced.clear();
+            pendingChanges.clear();
+            writingChanges.clear();
+            lock.notifyAll();
+        }
+    }
+
+    // записує знімок стану, що містить усі записи журналу, і очищує журнал; викликається лише потоком
+    // фіксації, тому журнал між створенням копії та очищенням не змінюється. Збій до очищення безпечний:
+    // повторне відтворення журналу поверх знімка дає той самий стан
+    private void compact(HashMap<BasicDataOperationUsingMap.Cow, String> state) throws IOException {
+        ByteBuffer snapshot = ByteBuffer.allocate(64 * 1024);
+        snapshot.putInt(SNAPSHOT_MAGIC);
+        snapshot.putInt(state.size());
+        for (Map.Entry<BasicDataOperationUsingMap.Cow, String> entry : state.entrySet()) {
+            snapshot = encodeRecord(snapshot, OPERATION_PUT, entry.getKey(), entry.getValue());
+        }
+        snapshot.flip();
+
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        // знімок пише лише потік фіксації, тому тимчасова назва стала (і права файлу - типові)
+        Path temporaryPath = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel output = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (snapshot.hasRemaining()) {
+                output.write(snapshot);
+            }
+            output.force(true);
+        }
+        try {
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        DataFileHandler.forceDirectory(directory);
+
+        walChannel.truncate(0);
+        walChannel.position(0);
+        walChannel.force(true);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Реєстр закрито");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Журнал реєстру недоступний", failure);
+        }
+    }
+
+    // ===== Відновлення =====
+
+    private void loadSnapshot(Path snapshotPath) throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+        if (data.remaining() < 8 || data.getInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalStateException("Пошкоджений знімок реєстру: " + snapshotPath);
+        }
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            if (!applyRecord(data)) {
+                throw new IllegalStateException("Пошкоджений запис " + i + " у знімку реєстру: " + snapshotPath);
+            }
+        }
+    }
+
+    // відтворює журнал до першого пошкодженого запису і обрізає обірваний хвіст
+    private long replayWal() throws IOException {
+        long size = walChannel.size();
+        ByteBuffer data = ByteBuffer.allocate((int) size);
+        while (data.hasRemaining()) {
+            if (walChannel.read(data, data.position()) < 0) {
+                break;
+            }
+        }
+        data.flip();
+
+        int validEnd = 0;
+        while (applyRecord(data)) {
+            validEnd = data.position();
+        }
+        if (validEnd < size) {
+            walChannel.truncate(validEnd);
+            walChannel.force(true);
+        }
+        walChannel.position(validEnd);
+        return validEnd;
+    }
+
+    private boolean applyRecord(ByteBuffer data) {
+        if (data.remaining() < RECORD_HEADER_SIZE) {
+            return false;
+        }
+        int start = data.position();
+        int length = data.getInt();
+        int checksum = data.getInt();
+        if (length <= 0 || length > data.remaining()) {
+            data.position(start);
+            return false;
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = data.slice(data.position(), length);
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            data.position(start);
+            return false;
+        }
+        data.position(data.position() + length);
+
+        byte operation = payload.get();
+        String nickname = readString(payload);
+        Double milking = payload.get() == 1 ? payload.getDouble() : null;
+        BasicDataOperationUsingMap.Cow cow = new BasicDataOperationUsingMap.Cow(nickname, milking);
+        if (operation == OPERATION_PUT) {
+            cows.put(cow, readString(payload));
+        } else {
+            cows.remove(cow);
+        }
+        return true;
+    }
+
+    // ===== Кодування записів =====
+
+    // запис: довжина корисного навантаження, CRC32, операція, кличка, надої, власник (лише для put)
+    private static ByteBuffer encodeRecord(ByteBuffer buffer, byte operation, BasicDataOperationUsingMap.Cow cow, String owner) {
+        byte[] nickname = cow.getNickname() != null ? cow.getNickname().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] ownerBytes = owner != null ? owner.getBytes(StandardCharsets.UTF_8) : null;
+        int length = 1 + stringSize(nickname) + 1 + (cow.getMilking() != null ? 8 : 0)
+                + (operation == OPERATION_PUT ? stringSize(ownerBytes) : 0);
+
+        buffer = ensureCapacity(buffer, RECORD_HEADER_SIZE + length);
+        int headerPosition = buffer.position();
+        buffer.position(headerPosition + RECORD_HEADER_SIZE);
+        buffer.put(operation);
+        putString(buffer, nickname);
+        if (cow.getMilking() != null) {
+            buffer.put((byte) 1);
+            buffer.putDouble(cow.getMilking());
+        } else {
+            buffer.put((byte) 0);
+        }
+        if (operation == OPERATION_PUT) {
+            putString(buffer, ownerBytes);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(headerPosition + RECORD_HEADER_SIZE, length));
+        buffer.putInt(headerPosition, length);
+        buffer.putInt(headerPosition + 4, (int) crc.getValue());
+        return buffer;
+    }
+
+    private static int stringSize(byte[] bytes) {
+        return 4 + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int required) {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + required));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    /**
+     * Вимірює швидкість стійких змін: кілька потоків одночасно додають записи до реєстру.
+     *
+     * @param args Каталог реєстру, кількість потоків і кількість записів на потік.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "registry");
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int putsPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+
+        long timeStart = PerformanceTracker.startTiming();
+        try (DurableCowRegistry registry = open(directory, 1024 * 1024)) {
+            PerformanceTracker.displayOperationTime(timeStart, "відновлення реєстру зі знімка та журналу",
+                    "DurableCowRegistry", registry.size(), null);
+            OutputSink.println("Записів після відновлення: " + registry.size());
+
+            Thread[] writers = new Thread[threadCount];
+            timeStart = PerformanceTracker.startTiming();
+            for (int t = 0; t < threadCount; t++) {
+                int writerId = t;
+                writers[t] = new Thread(() -> {
+                    for (int i = 0; i < putsPerThread; i++) {
+                        registry.put(new BasicDataOperationUsingMap.Cow("Корова-" + writerId + "-" + (i % 1000), (double) i),
+                                "Власник-" + writerId);
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            long elapsedNanos = System.nanoTime() - timeStart;
+            PerformanceTracker.displayOperationTime(timeStart, "стійкі зміни реєстру з груповою фіксацією",
+                    "DurableCowRegistry", registry.size(), registry.getCommittedRecords());
+
+            long records = (long) threadCount * putsPerThread;
+            long batches = Math.max(1, registry.getCommitBatches());
+            OutputSink.println(String.format("Записів: %d, груп фіксації: %d (%.1f записів на fsync), стиснень: %d",
+                    records, registry.getCommitBatches(), (double) registry.getCommittedRecords() / batches,
+                    registry.getCompactions()));
+            OutputSink.println(String.format("Швидкість: %.0f стійких змін/с", records / (elapsedNanos / 1e9)));
+        }
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,398 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Клас EytzingerIndex - індекс для повторних пошуків у впорядкованих даних short, int та long,
+ * збережених у порядку Ейтцінгера (обхід дерева пошуку в ширину).
+ *
+ * <p>Елемент k є коренем піддерева з дітьми 2k та 2k + 1 (нумерація з 1), тож перші рівні дерева,
+ * через які проходить кожен пошук, лежать поруч на початку масиву й постійно перебувають у кеші,
+ * а наступний вузол обчислюється без розгалужень: {@code k = 2k + (tree[k] < x)}. Після спуску
+ * позиція нижньої межі відновлюється зсувом, що відкидає останні кроки праворуч.</p>
+ *
+ * <p>Java не має інструкції програмної попередньої вибірки (prefetch), тому для даних поза кешем
+ * використовується пакетний пошук: {@link #BATCH_SIZE} незалежних пошуків просуваються по рівнях
+ * по черзі, і процесор виконує їхні промахи кешу одночасно замість очікування кожного окремо.</p>
+ *
+ * <p>Позиції, що повертаються, - індекси у впорядкованому масиві, як у {@link Arrays#binarySearch(int[], int)};
+ * для повторюваних значень повертається перше входження.</p>
+ */
+public class EytzingerIndex {
+    static final int BATCH_SIZE = 16;
+    static final int MAX_SIZE = (1 << 30) - 1;
+
+    /**
+     * Індекс значень short.
+     */
+    public static final class OfShort {
+        private final short[] tree;
+        private final int[] ranks;
+
+        /**
+         * Будує індекс із впорядкованого масиву.
+         *
+         * @param sorted Значення, впорядковані за зростанням.
+         */
+        public OfShort(short[] sorted) {
+            this.ranks = layout(sorted.length);
+            this.tree = new short[sorted.length + 1];
+            for (int k = 1; k < tree.length; k++) {
+                tree[k] = sorted[ranks[k]];
+            }
+        }
+
+        /**
+         * Будує індекс із впорядкованого масиву об'єктів Short.
+         *
+         * @param sorted Значення, впорядковані за зростанням.
+         * @return Індекс.
+         */
+        public static OfShort fromSorted(Short[] sorted) {
+            short[] values = new short[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                values[i] = sorted[i];
+            }
+            return new OfShort(values);
+        }
+
+        /**
+         * Повертає позицію першого значення, не меншого за x.
+         *
+         * @param x Значення.
+         * @return Позиція у впорядкованому масиві; size(), якщо всі значення менші.
+         */
+        public int lowerBound(short x) {
+            int k = 1;
+            while (k < tree.length) {
+                k = 2 * k + (tree[k] < x ? 1 : 0);
+            }
+            return rankOf(resolve(k), ranks);
+        }
+
+        /**
+         * Шукає значення.
+         *
+         * @param x Значення.
+         * @return Позиція першого входження або -(точка вставки) - 1, як у Arrays.binarySearch.
+         */
+        public int indexOf(short x) {
+            int k = 1;
+            while (k < tree.length) {
+                k = 2 * k + (tree[k] < x ? 1 : 0);
+            }
+            int node = resolve(k);
+            return node != 0 && tree[node] == x ? ranks[node] : -rankOf(node, ranks) - 1;
+        }
+
+        public boolean contains(short x) {
+            return indexOf(x) >= 0;
+        }
+
+        /**
+         * Шукає пакет значень, чергуючи кроки незалежних пошуків.
+         *
+         * @param keys Значення для пошуку.
+         * @param positions Результати в тому ж форматі, що й {@link #indexOf(short)}.
+         */
+        public void indexOf(short[] keys, int[] positions) {
+            int n = tree.length;
+            int[] k = new int[BATCH_SIZE];
+            for (int start = 0; start < keys.length; start += BATCH_SIZE) {
+                int count = Math.min(BATCH_SIZE, keys.length - start);
+                Arrays.fill(k, 0, count, 1);
+                // кожен рівень дерева - один крок для всіх пошуків пакета
+                for (int active = count; active > 0; ) {
+                    active = 0;
+                    for (int j = 0; j < count; j++) {
+                        int node = k[j];
+                        if (node < n) {
+                            k[j] = 2 * node + (tree[node] < keys[start + j] ? 1 : 0);
+                            active++;
+                        }
+                    }
+                }
+                for (int j = 0; j < count; j++) {
+                    int node = resolve(k[j]);
+                    positions[start + j] = node != 0 && tree[node] == keys[start + j]
+                            ? ranks[node]
+                            : -rankOf(node, ranks) - 1;
+                }
+            }
+        }
+
+        public int size() {
+            return tree.length - 1;
+        }
+    }
+
+    /**
+     * Індекс значень int.
+     */
+    public static final class OfInt {
+        private final int[] tree;
+        private final int[] ranks;
+
+        /**
+         * Будує індекс із впорядкованого масиву.
+         *
+         * @param sorted Значення, впорядковані за зростанням.
+         */
+        public OfInt(int[] sorted) {
+            this.ranks = layout(sorted.length);
+            this.tree = new int[sorted.length + 1];
+            for (int k = 1; k < tree.length; k++) {
+                tree[k] = sorted[ranks[k]];
+            }
+        }
+
+        /**
+         * Повертає позицію першого значення, не меншого за x.
+         *
+         * @param x Значення.
+         * @return Позиція у впорядкованому масиві; size(), якщо всі значення менші.
+         */
+        public int lowerBound(int x) {
+            int k = 1;
+            while (k < tree.length) {
+                k = 2 * k + (tree[k] < x ? 1 : 0);
+            }
+            return rankOf(resolve(k), ranks);
+        }
+
+        /**
+         * Шукає значення.
+         *
+         * @param x Значення.
+         * @return Позиція першого входження або -(точка вставки) - 1, як у Arrays.binarySearch.
+         */
+        public int indexOf(int x) {
+            int k = 1;
+            while (k < tree.length) {
+                k = 2 * k + (tree[k] < x ? 1 : 0);
+            }
+            int node = resolve(k);
+            return node != 0 && tree[node] == x ? ranks[node] : -rankOf(node, ranks) - 1;
+        }
+
+        public boolean contains(int x) {
+            return indexOf(x) >= 0;
+        }
+
+        /**
+         * Шукає пакет значень, чергуючи кроки незалежних пошуків.
+         *
+         * @param keys Значення для пошуку.
+         * @param positions Результати в тому ж форматі, що й {@link #indexOf(int)}.
+         */
+        public void indexOf(int[] keys, int[] positions) {
+            int n = tree.length;
+            int[] k = new int[BATCH_SIZE];
+            for (int start = 0; start < keys.length; start += BATCH_SIZE) {
+                int count = Math.min(BATCH_SIZE, keys.length - start);
+                Arrays.fill(k, 0, count, 1);
+                for (int active = count; active > 0; ) {
+                    active = 0;
+                    for (int j = 0; j < count; j++) {
+                        int node = k[j];
+                        if (node < n) {
+                            k[j] = 2 * node + (tree[node] < keys[start + j] ? 1 : 0);
+                            active++;
+                        }
+                    }
+                }
+                for (int j = 0; j < count; j++) {
+                    int node = resolve(k[j]);
+                    positions[start + j] = node != 0 && tree[node] == keys[start + j]
+                            ? ranks[node]
+                            : -rankOf(node, ranks) - 1;
+                }
+            }
+        }
+
+        public int size() {
+            return tree.length - 1;
+        }
+    }
+
+    /**
+     * Індекс значень long.
+     */
+    public static final class OfLong {
+        private final long[] tree;
+        private final int[] ranks;
+
+        /**
+         * Будує індекс із впорядкованого масиву.
+         *
+         * @param sorted Значення, впорядковані за зростанням.
+         */
+        public OfLong(long[] sorted) {
+            this.ranks = layout(sorted.length);
+            this.tree = new long[sorted.length + 1];
+            for (int k = 1; k < tree.length; k++) {
+                tree[k] = sorted[ranks[k]];
+            }
+        }
+
+        /**
+         * Повертає позицію першого значення, не меншого за x.
+         *
+         * @param x Значення.
+         * @return Позиція у впорядкованому масиві; size(), якщо всі значення менші.
+         */
+        public int lowerBound(long x) {
+            int k = 1;
+            while (k < tree.length) {
+                k = 2 * k + (tree[k] < x ? 1 : 0);
+            }
+            return rankOf(resolve(k), ranks);
+        }
+
+        /**
+         * Шукає значення.
+         *
+         * @param x Значення.
+         * @return Позиція першого входження або -(точка вставки) - 1, як у Arrays.binarySearch.
+         */
+        public int indexOf(long x) {
+            int k = 1;
+            while (k < tree.length) {
+                k = 2 * k + (tree[k] < x ? 1 : 0);
+            }
+            int node = resolve(k);
+            return node != 0 && tree[node] == x ? ranks[node] : -rankOf(node, ranks) - 1;
+        }
+
+        public boolean contains(long x) {
+            return indexOf(x) >= 0;
+        }
+
+        /**
+         * Шукає пакет значень, чергуючи кроки незалежних пошуків.
+         *
+         * @param keys Значення для пошуку.
+         * @param positions Результати в тому ж форматі, що й {@link #indexOf(long)}.
+         */
+        public void indexOf(long[] keys, int[] positions) {
+            int n = tree.length;
+            int[] k = new int[BATCH_SIZE];
+            for (int start = 0; start < keys.length; start += BATCH_SIZE) {
+                int count = Math.min(BATCH_SIZE, keys.length - start);
+                Arrays.fill(k, 0, count, 1);
+                for (int active = count; active > 0; ) {
+                    active = 0;
+                    for (int j = 0; j < count; j++) {
+                        int node = k[j];
+                        if (node < n) {
+                            k[j] = 2 * node + (tree[node] < keys[start + j] ? 1 : 0);
+                            active++;
+                        }
+                    }
+                }
+                for (int j = 0; j < count; j++) {
+                    int node = resolve(k[j]);
+                    positions[start + j] = node != 0 && tree[node] == keys[start + j]
+                            ? ranks[node]
+                            : -rankOf(node, ranks) - 1;
+                }
+            }
+        }
+
+        public int size() {
+            return tree.length - 1;
+        }
+    }
+
+    /**
+     * Обчислює розміщення Ейтцінгера: для кожного вузла 1..n - позицію його значення у впорядкованому масиві.
+     *
+     * @param n Кількість значень.
+     * @return Масив довжини n + 1 (елемент 0 не використовується).
+     * @throws IllegalArgumentException якщо n більше за {@link #MAX_SIZE}.
+     */
+    static int[] layout(int n) {
+        if (n > MAX_SIZE) {
+            // 2k + 1 для останнього рівня має вміщуватися в int
+            throw new IllegalArgumentException("Забагато значень для індексу: " + n);
+        }
+        int[] ranks = new int[n + 1];
+        // ітеративний центрований обхід (in-order) неявного дерева: i-й відвіданий вузол отримує позицію i
+        int rank = 0;
+        int k = 1;
+        while (rank < n) {
+            while (k <= n) {
+                k = 2 * k;
+            }
+            // повертаємося до найближчого предка, в якого ми були в лівому піддереві
+            k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+            ranks[k] = rank++;
+            k = 2 * k + 1;
+        }
+        return ranks;
+    }
+
+    /**
+     * Перетворює кінцеву позицію спуску на вузол нижньої межі: відкидає кроки праворуч після останнього кроку ліворуч.
+     *
+     * @return Вузол нижньої межі або 0, якщо всі значення менші за шукане.
+     */
+    static int resolve(int k) {
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    private static int rankOf(int node, int[] ranks) {
+        return node == 0 ? ranks.length - 1 : ranks[node];
+    }
+
+    /**
+     * Порівнює послідовний бінарний пошук з пошуком у порядку Ейтцінгера для масивів різного розміру.
+     *
+     * @param args Найбільший розмір масиву в мільйонах елементів (типово 16) і кількість пошуків (типово 2000000).
+     */
+    public static void main(String[] args) {
+        int maxMillions = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Random random = new Random(42);
+
+        OutputSink.println(String.format("%-12s %18s %18s %18s", "елементів",
+                "binarySearch нс", "Ейтцінгер нс", "пакетний нс"));
+        for (int size = 1 << 12; size <= maxMillions * 1_000_000; size <<= 2) {
+            int[] sorted = new int[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = random.nextInt();
+            }
+            Arrays.sort(sorted);
+            OfInt index = new OfInt(sorted);
+
+            int[] keys = new int[lookups];
+            for (int i = 0; i < lookups; i++) {
+                keys[i] = random.nextBoolean() ? sorted[random.nextInt(size)] : random.nextInt();
+            }
+            int[] positions = new int[lookups];
+
+            long checksum = 0;
+            long timeStart = System.nanoTime();
+            for (int key : keys) {
+                checksum += Arrays.binarySearch(sorted, key) >= 0 ? 1 : 0;
+            }
+            long binaryNanos = System.nanoTime() - timeStart;
+
+            timeStart = System.nanoTime();
+            for (int key : keys) {
+                checksum -= index.indexOf(key) >= 0 ? 1 : 0;
+            }
+            long eytzingerNanos = System.nanoTime() - timeStart;
+
+            timeStart = System.nanoTime();
+            index.indexOf(keys, positions);
+            long batchNanos = System.nanoTime() - timeStart;
+
+            if (checksum != 0) {
+                throw new IllegalStateException("Результати пошуку не збігаються");
+            }
+            OutputSink.println(String.format("%-12d %18.1f %18.1f %18.1f", size,
+                    (double) binaryNanos / lookups, (double) eytzingerNanos / lookups, (double) batchNanos / lookups));
+        }
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,305 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * Клас FrequencyAnalyzer визначає найчастіші значення (top-K) та частку повторів у даних.
+ *
+ * <p>Для вузьких типів (byte, short) частоти рахуються точно в масиві лічильників по всьому
+ * домену. Для широких типів (long, String) використовується потоковий режим: ескіз
+ * {@link CountMinSketch} з обмеженою купою кандидатів та {@link HyperLogLog} для оцінки
+ * кількості унікальних значень, тож пам'ять не залежить від обсягу даних.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java FrequencyAnalyzer list/long.data 5
+ * java FrequencyAnalyzer list/String.data 10
+ * }
+ * </pre>
+ */
+public class FrequencyAnalyzer {
+    private static final double SKETCH_EPSILON = 0.0005;
+    private static final double SKETCH_DELTA = 0.001;
+
+    /**
+     * Результат частотного аналізу.
+     */
+    public static class Report {
+        private final long totalCount;
+        private final long distinctCount;
+        private final boolean exact;
+        private final List<String> topValues;
+        private final List<Long> topCounts;
+
+        Report(long totalCount, long distinctCount, boolean exact, List<String> topValues, List<Long> topCounts) {
+            this.totalCount = totalCount;
+            this.distinctCount = distinctCount;
+            this.exact = exact;
+            this.topValues = topValues;
+            this.topCounts = topCounts;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getDistinctCount() {
+            return distinctCount;
+        }
+
+        public List<String> getTopValues() {
+            return topValues;
+        }
+
+        public List<Long> getTopCounts() {
+            return topCounts;
+        }
+
+        /**
+         * Повертає частку повторних значень: 1 - унікальні / всі.
+         *
+         * @return Частка повторів у межах [0, 1].
+         */
+        public double getDuplicateRatio() {
+            if (totalCount == 0) {
+                return 0;
+            }
+            return Math.max(0, 1 - (double) Math.min(distinctCount, totalCount) / totalCount);
+        }
+
+        /**
+         * Виводить звіт через {@link OutputSink}.
+         *
+         * @param title Заголовок звіту.
+         */
+        public void printReport(String title) {
+            String marker = exact ? "" : "≈";
+            OutputSink.println("Частотний аналіз '" + title + "' (" + (exact ? "точний" : "наближений") + "):");
+            OutputSink.println("  Всього значень: " + totalCount + ", унікальних: " + marker + distinctCount);
+            OutputSink.println(String.format("  Частка повторів: %s%.2f%%", marker, getDuplicateRatio() * 100));
+            for (int i = 0; i < topValues.size(); i++) {
+                OutputSink.println("  " + (i + 1) + ". '" + topValues.get(i) + "' - " + marker + topCounts.get(i) + " раз(и)");
+            }
+        }
+    }
+
+    /**
+     * Потоковий трекер найчастіших елементів: ескіз Count-Min плюс купа з K кандидатів.
+     *
+     * @param <T> Тип елементів.
+     */
+    public static class HeavyHitters<T> {
+        private final int k;
+        private final ToLongFunction<T> hasher;
+        private final CountMinSketch sketch = new CountMinSketch(SKETCH_EPSILON, SKETCH_DELTA);
+        private final HyperLogLog distinctEstimator = new HyperLogLog(14);
+        private final Map<T, long[]> candidates = new HashMap<>();
+        private final PriorityQueue<Map.Entry<T, long[]>> candidateHeap =
+                new PriorityQueue<>(Comparator.comparingLong(entry -> entry.getValue()[0]));
+
+        /**
+         * Створює трекер.
+         *
+         * @param k Кількість найчастіших елементів, що відстежуються.
+         * @param hasher Функція 64-бітного хешу елемента.
+         */
+        HeavyHitters(int k, ToLongFunction<T> hasher) {
+            if (k <= 0) {
+                throw new IllegalArgumentException("Кількість top-K має бути додатною: " + k);
+            }
+            this.k = k;
+            this.hasher = hasher;
+        }
+
+        /**
+         * Додає елемент потоку.
+         *
+         * @param item Елемент.
+         */
+        public void add(T item) {
+            long hash = hasher.applyAsLong(item);
+            distinctEstimator.addHash(hash);
+            long estimate = sketch.addAndEstimate(hash);
+
+            long[] candidateCount = candidates.get(item);
+            if (candidateCount != null) {
+                // оновлюємо пріоритет наявного кандидата (купа містить не більше K елементів)
+                Map.Entry<T, long[]> entry = Map.entry(item, candidateCount);
+                candidateHeap.remove(entry);
+                candidateCount[0] = estimate;
+                candidateHeap.add(entry);
+                return;
+            }
+
+            if (candidates.size() < k) {
+                addCandidate(item, estimate);
+            } else if (estimate > candidateHeap.peek().getValue()[0]) {
+                Map.Entry<T, long[]> evicted = candidateHeap.poll();
+                candidates.remove(evicted.getKey());
+                addCandidate(item, estimate);
+            }
+        }
+
+        /**
+         * Формує звіт з кандидатами, впорядкованими за спаданням оцінки частоти.
+         *
+         * @return Наближений звіт.
+         */
+        public Report toReport() {
+            List<Map.Entry<T, long[]>> ordered = new ArrayList<>(candidateHeap);
+            ordered.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+
+            List<String> values = new ArrayList<>();
+            List<Long> counts = new ArrayList<>();
+            for (Map.Entry<T, long[]> entry : ordered) {
+                values.add(String.valueOf(entry.getKey()));
+                counts.add(entry.getValue()[0]);
+            }
+            return new Report(sketch.getTotalCount(), distinctEstimator.estimate(), false, values, counts);
+        }
+
+        private void addCandidate(T item, long estimate) {
+            long[] candidateCount = { estimate };
+            candidates.put(item, candidateCount);
+            candidateHeap.add(Map.entry(item, candidateCount));
+        }
+    }
+
+    /**
+     * Точний частотний аналіз масиву short за допомогою лічильників по всьому домену.
+     *
+     * @param shortArray Масив short.
+     * @param k Кількість найчастіших значень у звіті.
+     * @return Точний звіт.
+     */
+    public static Report analyzeShorts(Short[] shortArray, int k) {
+        int[] counts = new int[ShortQueryEngine.DOMAIN_SIZE];
+        for (Short value : shortArray) {
+            counts[ShortQueryEngine.indexOf(value)]++;
+        }
+        return exactReport(counts, shortArray.length, k);
+    }
+
+    /**
+     * Точний потоковий частотний аналіз файлу з даними short або byte.
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @param k Кількість найчастіших значень у звіті.
+     * @return Точний звіт.
+     */
+    public static Report analyzeShortFile(String filePath, int k) {
+        int[] counts = new int[ShortQueryEngine.DOMAIN_SIZE];
+        long[] total = new long[1];
+        DataFileHandler.streamValuesFromFile(filePath, value -> {
+            counts[ShortQueryEngine.indexOf((short) value)]++;
+            total[0]++;
+        });
+        return exactReport(counts, total[0], k);
+    }
+
+    /**
+     * Наближений потоковий частотний аналіз файлу з цілими значеннями (int, long).
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @param k Кількість найчастіших значень у звіті.
+     * @return Наближений звіт.
+     */
+    public static Report analyzeLongFile(String filePath, int k) {
+        HeavyHitters<Long> heavyHitters = new HeavyHitters<>(k, HyperLogLog::mix64);
+        DataFileHandler.streamValuesFromFile(filePath, heavyHitters::add);
+        return heavyHitters.toReport();
+    }
+
+    /**
+     * Наближений потоковий частотний аналіз текстового файлу (кожен рядок - значення).
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @param k Кількість найчастіших значень у звіті.
+     * @return Наближений звіт.
+     * @throws java.io.UncheckedIOException якщо файл не вдалося прочитати.
+     */
+    public static Report analyzeTextFile(String filePath, int k) {
+        HeavyHitters<String> heavyHitters = new HeavyHitters<>(k, FrequencyAnalyzer::hashString);
+        DataFileHandler.streamLinesFromFile(filePath, heavyHitters::add);
+        return heavyHitters.toReport();
+    }
+
+    /**
+     * Обчислює 64-бітний хеш рядка (FNV-1a з фінальним перемішуванням).
+     *
+     * @param value Рядок.
+     * @return 64-бітний хеш.
+     */
+    static long hashString(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return HyperLogLog.mix64(hash);
+    }
+
+    // вибирає K найбільших лічильників за допомогою мін-купи розміру K
+    private static Report exactReport(int[] counts, long totalCount, int k) {
+        PriorityQueue<Integer> topIndexes = new PriorityQueue<>(Comparator.comparingInt(index -> counts[index]));
+        long distinctCount = 0;
+        for (int index = 0; index < counts.length; index++) {
+            if (counts[index] == 0) {
+                continue;
+            }
+            distinctCount++;
+            if (topIndexes.size() < k) {
+                topIndexes.add(index);
+            } else if (counts[index] > counts[topIndexes.peek()]) {
+                topIndexes.poll();
+                topIndexes.add(index);
+            }
+        }
+
+        List<Integer> ordered = new ArrayList<>(topIndexes);
+        ordered.sort((a, b) -> counts[b] != counts[a] ? Integer.compare(counts[b], counts[a]) : Integer.compare(a, b));
+
+        List<String> values = new ArrayList<>();
+        List<Long> topCounts = new ArrayList<>();
+        for (Integer index : ordered) {
+            values.add(Short.toString(ShortQueryEngine.valueAt(index)));
+            topCounts.add((long) counts[index]);
+        }
+        return new Report(totalCount, distinctCount, true, values, topCounts);
+    }
+
+    /**
+     * Запускає частотний аналіз файлу, обираючи режим за назвою файлу.
+     *
+     * @param args Шлях до файлу та необов'язкова кількість top-K (типово 5).
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            OutputSink.println("Використання: java FrequencyAnalyzer <файл-даних> [кількість-top-K]");
+            return;
+        }
+
+        String filePath = args[0];
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+
+        long timeStart = PerformanceTracker.startTiming();
+        Report report;
+        if (fileName.startsWith("short.") || fileName.startsWith("byte.")) {
+            report = analyzeShortFile(filePath, k);
+        } else if (fileName.startsWith("int.") || fileName.startsWith("long.")) {
+            report = analyzeLongFile(filePath, k);
+        } else {
+            report = analyzeTextFile(filePath, k);
+        }
+        PerformanceTracker.displayOperationTime(timeStart, "частотний аналіз файлу " + fileName);
+
+        report.printReport(filePath);
+        OutputSink.flush();
+    }
+}
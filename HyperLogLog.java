@@ -0,0 +1,121 @@
+/**
+ * Клас HyperLogLog оцінює кількість унікальних значень у потоці з фіксованим обсягом пам'яті.
+ *
+ * <p>Використовує 2^precision однобайтових регістрів. Два екземпляри з однаковою точністю
+ * об'єднуються поелементним максимумом, тому частини файлу можна обробляти паралельно.
+ * Типова відносна похибка оцінки - 1.04 / sqrt(2^precision).</p>
+ */
+public class HyperLogLog {
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Створює оцінювач з точністю 12 (4096 регістрів, похибка близько 1.6%).
+     */
+    HyperLogLog() {
+        this(12);
+    }
+
+    /**
+     * Створює оцінювач із заданою точністю.
+     *
+     * @param precision Кількість біт індексу регістра, від 4 до 18.
+     */
+    HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Точність HyperLogLog має бути в межах [4, 18]: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Додає значення long до оцінки.
+     *
+     * @param value Значення.
+     */
+    public void add(long value) {
+        addHash(mix64(value));
+    }
+
+    /**
+     * Додає рядок до оцінки.
+     *
+     * @param value Рядок.
+     */
+    public void add(String value) {
+        addHash(mix64(value.hashCode() * 0x9E3779B97F4A7C15L + value.length()));
+    }
+
+    /**
+     * Додає до оцінки вже обчислений 64-бітний хеш.
+     *
+     * @param hash Рівномірно розподілений хеш значення.
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // позиція першої одиниці в решті біт (з запобіжником для нульового залишку)
+        long remainder = (hash << precision) | (1L << (precision - 1));
+        byte leadingZeros = (byte) (Long.numberOfLeadingZeros(remainder) + 1);
+        if (leadingZeros > registers[index]) {
+            registers[index] = leadingZeros;
+        }
+    }
+
+    /**
+     * Об'єднує стан іншого оцінювача з поточним.
+     *
+     * @param other Оцінювач з тією ж точністю.
+     * @return Поточний оцінювач.
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Неможливо об'єднати HyperLogLog з різною точністю.");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Повертає оцінку кількості унікальних значень.
+     *
+     * @return Оцінка кількості унікальних значень.
+     */
+    public long estimate() {
+        int registerCount = registers.length;
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+
+        double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        double estimate = alpha * registerCount * registerCount / sum;
+
+        // для малих кардинальностей точніший лінійний підрахунок
+        if (estimate <= 2.5 * registerCount && zeroRegisters > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Перемішує біти значення (фіналізатор SplitMix64), щоб отримати рівномірний хеш.
+     *
+     * @param value Вхідне значення.
+     * @return 64-бітний хеш.
+     */
+    static long mix64(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
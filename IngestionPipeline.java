@@ -0,0 +1,342 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Клас IngestionPipeline обробляє всі файли {@code *.data} каталогу одночасно.
+ *
+ * <p>Кожен файл передається до аналізу, що відповідає його типу (назва файлу до першої крапки):</p>
+ * <ul>
+ *   <li>byte, short, int, long - потокова статистика ({@link StreamingStatistics});</li>
+ *   <li>float, double - порозрядне сортування ({@link RadixSort}) і порядкові статистики;</li>
+ *   <li>String - інвертований індекс слів ({@link TextIndex});</li>
+ *   <li>LocalDateTime, LocalDate - часовий індекс ({@link TimeBucketIndex});</li>
+ *   <li>LocalTime - потокова статистика секунд доби;</li>
+ *   <li>інші (наприклад, Character) - частотний аналіз рядків ({@link FrequencyAnalyzer}).</li>
+ * </ul>
+ *
+ * <p>Файли обробляються на віртуальних потоках, якщо JVM їх підтримує (Java 21+), інакше на
+ * пулі платформних потоків. Кількість одночасно оброблюваних файлів обмежується семафором,
+ * тому загальний час наближається до часу найбільшого файлу, а не до суми часів усіх файлів.
+ * Звіти файлів накопичуються окремо і виводяться разом у порядку назв файлів.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java IngestionPipeline list 4
+ * }
+ * </pre>
+ */
+public class IngestionPipeline {
+    static final String DEFAULT_DIRECTORY = "list";
+
+    /**
+     * Результат обробки одного файлу.
+     */
+    public static class FileReport {
+        private final String fileName;
+        private final String analysis;
+        private final List<String> lines;
+        private final long elapsedNanos;
+        private final String error;
+
+        FileReport(String fileName, String analysis, List<String> lines, long elapsedNanos, String error) {
+            this.fileName = fileName;
+            this.analysis = analysis;
+            this.lines = lines;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getAnalysis() {
+            return analysis;
+        }
+
+        public List<String> getLines() {
+            return lines;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public boolean isFailed() {
+            return error != null;
+        }
+    }
+
+    private final int parallelism;
+
+    /**
+     * Створює конвеєр з обмеженою кількістю одночасно оброблюваних файлів.
+     *
+     * @param parallelism Максимальна кількість файлів, що обробляються одночасно.
+     */
+    IngestionPipeline(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Кількість паралельних файлів має бути додатною: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Знаходить усі файли {@code *.data} у каталозі, впорядковані за назвою.
+     *
+     * @param directory Каталог з файлами даних.
+     * @return Шляхи до файлів.
+     */
+    public static List<Path> discover(Path directory) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.data")) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+        files.sort((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()));
+        return files;
+    }
+
+    /**
+     * Обробляє всі файли одночасно і повертає звіти в тому ж порядку, що й файли.
+     *
+     * @param files Шляхи до файлів.
+     * @return Звіти файлів.
+     */
+    public List<FileReport> run(List<Path> files) {
+        Semaphore permits = new Semaphore(parallelism);
+        ExecutorService executor = newTaskExecutor(Math.min(parallelism, Math.max(1, files.size())));
+        try {
+            List<Future<FileReport>> pending = new ArrayList<>();
+            for (Path file : files) {
+                pending.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return analyze(file);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<FileReport> reports = new ArrayList<>();
+            for (Future<FileReport> report : pending) {
+                reports.add(report.get());
+            }
+            return reports;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Обробку каталогу перервано", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Помилка обробки файлу", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Аналізує один файл відповідно до його типу. Помилки аналізу не переривають конвеєр,
+     * а потрапляють у звіт файлу: для кожного типу помилка читання (UncheckedIOException з
+     * потокового читання) чи розбору значення позначає звіт як невдалий ({@link FileReport#isFailed()}),
+     * а не як успішний аналіз порожнього файлу.
+     *
+     * @param file Шлях до файлу.
+     * @return Звіт файлу.
+     */
+    static FileReport analyze(Path file) {
+        String fileName = file.getFileName().toString();
+        String type = fileName.substring(0, fileName.indexOf('.'));
+        String filePath = file.toString();
+        List<String> lines = new ArrayList<>();
+        String analysis;
+
+        long timeStart = System.nanoTime();
+        try {
+            switch (type) {
+                case "byte":
+                case "short":
+                case "int":
+                case "long":
+                    analysis = "потокова статистика";
+                    describeStatistics(StreamingStatistics.analyzeFile(filePath), lines);
+                    break;
+                case "float":
+                case "double":
+                    analysis = "порозрядне сортування";
+                    describeSorted(filePath, type, lines);
+                    break;
+                case "String":
+                    analysis = "інвертований індекс";
+                    TextIndex textIndex = TextIndex.fromFile(filePath);
+                    lines.add("рядків: " + textIndex.getLineCount() + ", термінів: " + textIndex.getTermCount()
+                            + ", стиснуті списки входжень: " + textIndex.getPostingBytes() + " байт");
+                    break;
+                case "LocalDateTime":
+                    analysis = "часовий індекс";
+                    describeTimeIndex(TimeBucketIndex.fromFile(filePath, TimeBucketIndex.Granularity.DAY), lines);
+                    break;
+                case "LocalDate":
+                    analysis = "часовий індекс";
+                    describeTimeIndex(loadDateIndex(filePath), lines);
+                    break;
+                case "LocalTime":
+                    analysis = "статистика секунд доби";
+                    StreamingStatistics timeStatistics = new StreamingStatistics();
+                    DataFileHandler.streamLinesFromFile(filePath, line -> timeStatistics.accept(LocalTime.parse(line).toSecondOfDay()));
+                    lines.add("значень: " + timeStatistics.getCount()
+                            + ", найраніший: " + LocalTime.ofSecondOfDay(timeStatistics.getMin())
+                            + ", найпізніший: " + LocalTime.ofSecondOfDay(timeStatistics.getMax())
+                            + ", медіана: " + LocalTime.ofSecondOfDay(timeStatistics.quantile(0.5)));
+                    break;
+                default:
+                    analysis = "частотний аналіз";
+                    FrequencyAnalyzer.Report report = FrequencyAnalyzer.analyzeTextFile(filePath, 3);
+                    lines.add("значень: " + report.getTotalCount() + ", унікальних: ≈" + report.getDistinctCount()
+                            + ", найчастіші: " + report.getTopValues());
+                    break;
+            }
+        } catch (RuntimeException e) {
+            return new FileReport(fileName, "помилка", List.of(e.toString()), System.nanoTime() - timeStart, e.toString());
+        }
+        return new FileReport(fileName, analysis, lines, System.nanoTime() - timeStart, null);
+    }
+
+    /**
+     * Виводить зведений звіт конвеєра.
+     *
+     * @param reports Звіти файлів.
+     * @param wallNanos Загальний час роботи конвеєра.
+     */
+    public static void printReport(List<FileReport> reports, long wallNanos) {
+        long totalNanos = 0;
+        long slowestNanos = 0;
+        int failed = 0;
+        List<String> output = new ArrayList<>();
+        for (FileReport report : reports) {
+            totalNanos += report.getElapsedNanos();
+            slowestNanos = Math.max(slowestNanos, report.getElapsedNanos());
+            if (report.isFailed()) {
+                failed++;
+            }
+            output.add(String.format("%-20s %-24s %10.2f мс", report.getFileName(), report.getAnalysis(),
+                    report.getElapsedNanos() / 1e6));
+            for (String line : report.getLines()) {
+                output.add("    " + line);
+            }
+        }
+        output.add("-".repeat(50));
+        output.add("Файлів: " + reports.size() + ", з помилками: " + failed);
+        output.add(String.format("Сума часів файлів: %.2f мс, найдовший файл: %.2f мс, загальний час: %.2f мс",
+                totalNanos / 1e6, slowestNanos / 1e6, wallNanos / 1e6));
+        OutputSink.printBatch(output);
+    }
+
+    private static void describeStatistics(StreamingStatistics statistics, List<String> lines) {
+        lines.add("значень: " + statistics.getCount() + ", мін: " + statistics.getMin() + ", макс: " + statistics.getMax()
+                + String.format(", середнє: %.2f", statistics.getMean())
+                + ", унікальних: ≈" + statistics.estimateDistinctCount());
+    }
+
+    private static void describeSorted(String filePath, String type, List<String> lines) {
+        int count;
+        String min;
+        String median;
+        String max;
+        if (type.equals("float")) {
+            float[] values = DataFileHandler.loadFloatArrayFromFile(filePath);
+            RadixSort.sort(values);
+            count = values.length;
+            min = count > 0 ? Float.toString(values[0]) : "-";
+            median = count > 0 ? Float.toString(values[count / 2]) : "-";
+            max = count > 0 ? Float.toString(values[count - 1]) : "-";
+        } else {
+            double[] values = DataFileHandler.loadDoubleArrayFromFile(filePath);
+            RadixSort.sort(values);
+            count = values.length;
+            min = count > 0 ? Double.toString(values[0]) : "-";
+            median = count > 0 ? Double.toString(values[count / 2]) : "-";
+            max = count > 0 ? Double.toString(values[count - 1]) : "-";
+        }
+        lines.add("значень: " + count + ", мін: " + min + ", медіана: " + median + ", макс: " + max);
+    }
+
+    private static void describeTimeIndex(TimeBucketIndex index, List<String> lines) {
+        long[] sorted = index.sortedEpochSeconds();
+        if (sorted.length == 0) {
+            lines.add("міток: 0");
+            return;
+        }
+        lines.add("міток: " + sorted.length + ", від " + Instant.ofEpochSecond(sorted[0])
+                + " до " + Instant.ofEpochSecond(sorted[sorted.length - 1])
+                + ", непорожніх кошиків (" + index.getGranularity() + "): " + index.countPerBucket().length);
+    }
+
+    private static TimeBucketIndex loadDateIndex(String filePath) {
+        long[][] buffer = { new long[1024] };
+        int[] size = { 0 };
+        DataFileHandler.streamLinesFromFile(filePath, line -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+            }
+            buffer[0][size[0]++] = LocalDate.parse(line).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        });
+        return new TimeBucketIndex(Arrays.copyOf(buffer[0], size[0]), TimeBucketIndex.Granularity.DAY);
+    }
+
+    // віртуальні потоки (Java 21+) підключаються через рефлексію, щоб код компілювався і на старших JDK
+    private static ExecutorService newTaskExecutor(int threads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Обробляє всі файли {@code *.data} каталогу і виводить зведений звіт.
+     *
+     * @param args Каталог (типово list) та необов'язкова кількість паралельних файлів.
+     */
+    public static void main(String[] args) {
+        Path directory = Path.of(args.length > 0 ? args[0] : DEFAULT_DIRECTORY);
+        int parallelism = args.length > 1
+                ? Integer.parseInt(args[1])
+                : Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        List<Path> files = discover(directory);
+        OutputSink.println("Знайдено файлів *.data у '" + directory + "': " + files.size()
+                + ", паралельно: " + parallelism);
+
+        long timeStart = PerformanceTracker.startTiming();
+        List<FileReport> reports = new IngestionPipeline(parallelism).run(files);
+        long wallNanos = System.nanoTime() - timeStart;
+        PerformanceTracker.displayOperationTime(timeStart, "паралельна обробка каталогу " + directory,
+                "каталог", files.size(), reports.size());
+
+        printReport(reports, wallNanos);
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,383 @@
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Клас LoadGenerator відтворює трасу {@link WorkloadTrace} проти структур даних обробників
+ * List, Queue, Set та Map із заданою кількістю потоків і цільовою частотою операцій.
+ *
+ * <p>Потоки по черзі беруть наступну операцію траси. За заданої частоти кожна операція має
+ * запланований час початку {@code start + i / rate}, і затримка рахується від нього, а не від
+ * фактичного початку: якщо система не встигає, час очікування в черзі потрапляє в перцентилі
+ * (без цього повільні відповіді «ховали» б власну затримку). Перцентилі затримки обчислюються
+ * ескізами {@link QuantileSketch} окремо в кожному потоці й об'єднуються наприкінці.
+ * Операція, що завершилася винятком (наприклад, мінімум порожньої колекції), рахується як помилка.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java LoadGenerator --threads=4 --rate=20000 --ops=200000 --mix=search=60,add=15,remove=10,min_max=10,poll=5
+ * java -Dworkload.trace=recorded.trace BasicDataOperation 420 all
+ * java LoadGenerator --trace=recorded.trace --threads=8
+ * }
+ * </pre>
+ */
+public class LoadGenerator {
+    static final String DEFAULT_MIX = "search=60,add=15,remove=10,min_max=10,poll=5";
+    private static final int SKETCH_LEVEL_CAPACITY = 1024;
+    private static final String[] NICKNAMES = {"Буря", "Зіронька", "Маруся", "Ряба", "Цвітка", "Білянка", "Ластівка", "Калинка"};
+    private static final String[] OWNERS = {"Степан", "Оксана", "Василина", "Тарас", "Мирослав", "Наталія", "Орест", "Ярослав"};
+
+    /**
+     * Структура даних, проти якої відтворюється траса. Реалізації мають бути потокобезпечними.
+     */
+    interface ReplayTarget {
+        /**
+         * Виконує операцію траси.
+         *
+         * @param entry Операція.
+         * @throws RuntimeException якщо операція завершилася помилкою.
+         */
+        void apply(WorkloadTrace.Entry entry);
+    }
+
+    /**
+     * Результат відтворення траси проти однієї структури.
+     */
+    static final class ReplayReport {
+        private final String structure;
+        private final int threads;
+        private final double targetRate;
+        private final long completed;
+        private final long errors;
+        private final long wallNanos;
+        private final QuantileSketch latencies;
+        private final long maxLatencyNanos;
+
+        ReplayReport(String structure, int threads, double targetRate, long completed, long errors,
+                long wallNanos, QuantileSketch latencies, long maxLatencyNanos) {
+            this.structure = structure;
+            this.threads = threads;
+            this.targetRate = targetRate;
+            this.completed = completed;
+            this.errors = errors;
+            this.wallNanos = wallNanos;
+            this.latencies = latencies;
+            this.maxLatencyNanos = maxLatencyNanos;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return completed / (wallNanos / 1e9);
+        }
+
+        /**
+         * Повертає перцентиль затримки в наносекундах.
+         *
+         * @param fraction Частка в межах [0, 1].
+         * @return Затримка або 0, якщо операцій не було.
+         */
+        public long getLatencyNanos(double fraction) {
+            return latencies.getCount() == 0 ? 0 : latencies.quantile(fraction);
+        }
+
+        String toRow() {
+            return String.format("%-24s %7d %10s %10d %8d %12.0f %10.1f %10.1f %10.1f %10.1f %10.1f",
+                    structure, threads, targetRate > 0 ? String.format("%.0f", targetRate) : "макс.",
+                    completed, errors, getThroughput(),
+                    getLatencyNanos(0.5) / 1e3, getLatencyNanos(0.9) / 1e3, getLatencyNanos(0.99) / 1e3,
+                    getLatencyNanos(0.999) / 1e3, maxLatencyNanos / 1e3);
+        }
+    }
+
+    /**
+     * Відтворює трасу проти структури.
+     *
+     * @param structure Назва структури для звіту.
+     * @param target Структура.
+     * @param trace Траса.
+     * @param threads Кількість потоків.
+     * @param targetRate Цільова кількість операцій за секунду (0 або менше - без обмеження).
+     * @return Звіт.
+     * @throws IllegalArgumentException якщо кількість потоків не додатна.
+     */
+    static ReplayReport replay(String structure, ReplayTarget target, WorkloadTrace trace, int threads, double targetRate) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Кількість потоків має бути додатною: " + threads);
+        }
+        List<WorkloadTrace.Entry> entries = trace.getEntries();
+        double intervalNanos = targetRate > 0 ? 1e9 / targetRate : 0;
+
+        AtomicInteger nextEntry = new AtomicInteger();
+        LongAdder errors = new LongAdder();
+        QuantileSketch[] sketches = new QuantileSketch[threads];
+        long[] maxLatencies = new long[threads];
+        long[] startNanos = new long[1];
+        CountDownLatch startGate = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            sketches[worker] = new QuantileSketch(SKETCH_LEVEL_CAPACITY);
+            workers[worker] = new Thread(() -> {
+                try {
+                    startGate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                QuantileSketch sketch = sketches[worker];
+                long maxLatency = 0;
+                int index;
+                while ((index = nextEntry.getAndIncrement()) < entries.size()) {
+                    long begin;
+                    if (intervalNanos > 0) {
+                        begin = startNanos[0] + (long) (index * intervalNanos);
+                        for (long wait = begin - System.nanoTime(); wait > 0; wait = begin - System.nanoTime()) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        begin = System.nanoTime();
+                    }
+
+                    try {
+                        target.apply(entries.get(index));
+                    } catch (RuntimeException e) {
+                        errors.increment();
+                    }
+                    long latency = System.nanoTime() - begin;
+                    sketch.add(latency);
+                    maxLatency = Math.max(maxLatency, latency);
+                }
+                maxLatencies[worker] = maxLatency;
+            }, "load-generator-" + worker);
+            workers[worker].start();
+        }
+
+        // запис startNanos видимий потокам завдяки happens-before між countDown і await
+        startNanos[0] = System.nanoTime();
+        startGate.countDown();
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Відтворення траси перервано", e);
+            }
+        }
+        long wallNanos = System.nanoTime() - startNanos[0];
+
+        QuantileSketch latencies = new QuantileSketch(SKETCH_LEVEL_CAPACITY);
+        long maxLatency = 0;
+        for (int t = 0; t < threads; t++) {
+            latencies.merge(sketches[t]);
+            maxLatency = Math.max(maxLatency, maxLatencies[t]);
+        }
+        return new ReplayReport(structure, threads, targetRate, entries.size(), errors.sum(),
+                wallNanos, latencies, maxLatency);
+    }
+
+    /**
+     * Vector, як у {@link BasicDataOperationUsingList}: методи Vector синхронізовані,
+     * складені операції виконуються під його монітором.
+     */
+    static ReplayTarget listTarget(Short[] values) {
+        Vector<Short> list = new Vector<>(List.of(values));
+        return entry -> {
+            switch (entry.getOperation()) {
+                case SEARCH:
+                    list.indexOf(entry.getArgument());
+                    break;
+                case ADD:
+                    list.add(entry.getArgument());
+                    break;
+                case REMOVE:
+                    list.remove((Short) entry.getArgument());
+                    break;
+                case MIN_MAX:
+                    synchronized (list) {
+                        Collections.min(list);
+                        Collections.max(list);
+                    }
+                    break;
+                default:
+                    synchronized (list) {
+                        list.remove(0);
+                    }
+                    break;
+            }
+        };
+    }
+
+    /**
+     * PriorityQueue, як у {@link BasicDataOperationUsingQueue}, під монітором черги.
+     */
+    static ReplayTarget queueTarget(Short[] values) {
+        PriorityQueue<Short> queue = new PriorityQueue<>(List.of(values));
+        return entry -> {
+            synchronized (queue) {
+                switch (entry.getOperation()) {
+                    case SEARCH:
+                        queue.contains(entry.getArgument());
+                        break;
+                    case ADD:
+                        queue.add(entry.getArgument());
+                        break;
+                    case REMOVE:
+                        queue.remove(entry.getArgument());
+                        break;
+                    case MIN_MAX:
+                        queue.element();
+                        Collections.max(queue);
+                        break;
+                    default:
+                        queue.remove();
+                        break;
+                }
+            }
+        };
+    }
+
+    /**
+     * TreeSet, як у {@link BasicDataOperationUsingSet}, під монітором множини.
+     */
+    static ReplayTarget setTarget(Short[] values) {
+        TreeSet<Short> set = SortedShortRun.of(values).toTreeSet();
+        return entry -> {
+            synchronized (set) {
+                switch (entry.getOperation()) {
+                    case SEARCH:
+                        set.contains(entry.getArgument());
+                        break;
+                    case ADD:
+                        set.add(entry.getArgument());
+                        break;
+                    case REMOVE:
+                        set.remove(entry.getArgument());
+                        break;
+                    case MIN_MAX:
+                        set.first();
+                        set.last();
+                        break;
+                    default:
+                        if (set.pollFirst() == null) {
+                            throw new IllegalStateException("Множина порожня");
+                        }
+                        break;
+                }
+            }
+        };
+    }
+
+    /**
+     * HashMap корів, як у {@link BasicDataOperationUsingMap}, під монітором мапи.
+     * Аргумент операції визначає кличку та надій корови.
+     */
+    static ReplayTarget mapTarget(Short[] values) {
+        Map<BasicDataOperationUsingMap.Cow, String> herd = new HashMap<>();
+        for (Short value : values) {
+            herd.put(cowFor(value), OWNERS[Math.floorMod(value, OWNERS.length)]);
+        }
+        return entry -> {
+            BasicDataOperationUsingMap.Cow cow = cowFor(entry.getArgument());
+            synchronized (herd) {
+                switch (entry.getOperation()) {
+                    case SEARCH:
+                        herd.containsKey(cow);
+                        break;
+                    case ADD:
+                        herd.put(cow, OWNERS[Math.floorMod(entry.getArgument(), OWNERS.length)]);
+                        break;
+                    case REMOVE:
+                        herd.remove(cow);
+                        break;
+                    case MIN_MAX:
+                        Collections.min(herd.keySet());
+                        Collections.max(herd.keySet());
+                        break;
+                    default:
+                        Iterator<BasicDataOperationUsingMap.Cow> iterator = herd.keySet().iterator();
+                        iterator.next();
+                        iterator.remove();
+                        break;
+                }
+            }
+        };
+    }
+
+    private static BasicDataOperationUsingMap.Cow cowFor(short value) {
+        return new BasicDataOperationUsingMap.Cow(NICKNAMES[Math.floorMod(value, NICKNAMES.length)], value / 10.0);
+    }
+
+    /**
+     * Генерує або завантажує трасу і відтворює її проти всіх структур.
+     *
+     * @param args Прапорці --trace=файл, --mix=співвідношення, --ops=N, --save=файл, --threads=N, --rate=оп/с.
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                OutputSink.println("Невідомий аргумент: " + arg);
+                OutputSink.println("Використання: java LoadGenerator [--trace=файл] [--mix=" + DEFAULT_MIX
+                        + "] [--ops=N] [--save=файл] [--threads=N] [--rate=оп/с]");
+                OutputSink.flush();
+                return;
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        WorkloadTrace trace;
+        if (options.containsKey("trace")) {
+            trace = WorkloadTrace.load(Path.of(options.get("trace")));
+        } else {
+            trace = WorkloadTrace.generate(WorkloadTrace.parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                    Integer.parseInt(options.getOrDefault("ops", "100000")), 42);
+        }
+        if (options.containsKey("save")) {
+            trace.save(Path.of(options.get("save")));
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+
+        Short[] values = DataFileHandler.loadArrayFromFile(BasicDataOperation.PATH_TO_DATA_FILE);
+        OutputSink.println("Операцій у трасі: " + trace.size() + ", потоків: " + threads
+                + ", початкових значень: " + values.length);
+
+        List<Supplier<ReplayReport>> runs = new ArrayList<>();
+        runs.add(() -> replay("List (Vector)", listTarget(values), trace, threads, rate));
+        runs.add(() -> replay("Queue (PriorityQueue)", queueTarget(values), trace, threads, rate));
+        runs.add(() -> replay("Set (TreeSet)", setTarget(values), trace, threads, rate));
+        runs.add(() -> replay("Map (HashMap)", mapTarget(values), trace, threads, rate));
+
+        long timeStart = PerformanceTracker.startTiming();
+        List<String> rows = new ArrayList<>();
+        rows.add(String.format("%-24s %7s %10s %10s %8s %12s %10s %10s %10s %10s %10s", "структура", "потоків",
+                "ціль оп/с", "операцій", "помилок", "оп/с", "p50 мкс", "p90 мкс", "p99 мкс", "p99.9 мкс", "max мкс"));
+        for (Supplier<ReplayReport> run : runs) {
+            rows.add(run.get().toRow());
+        }
+        PerformanceTracker.displayOperationTime(timeStart, "відтворення траси для List, Queue, Set та Map");
+        OutputSink.printBatch(rows);
+        OutputSink.flush();
+    }
+}
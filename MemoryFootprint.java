@@ -0,0 +1,380 @@
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.function.Supplier;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Клас MemoryFootprint оцінює обсяг пам'яті, який займають структури даних процесорів.
+ *
+ * <p>Для кожної структури розмір оцінюється двома способами:</p>
+ * <ul>
+ *   <li>за розкладкою об'єктів HotSpot - заголовки, посилання, поля та вирівнювання з урахуванням
+ *       поточних налаштувань JVM (стиснуті посилання, вирівнювання об'єктів);</li>
+ *   <li>вимірюванням приросту зайнятої купи до і після побудови кількох копій структури
+ *       (після збирання сміття).</li>
+ * </ul>
+ *
+ * <p>Оцінка розділяє власні вузли і масиви структури та упаковані елементи (Short, Cow, String),
+ * бо елементи можуть спільно використовуватися кількома структурами. Поруч виводяться примітивні
+ * альтернативи для тих самих даних (short[], бітова множина, стовпчикові масиви), що дозволяє
+ * оцінити потребу в пам'яті для більших обсягів даних.</p>
+ *
+ * <p>Вимірювання кілька разів викликає {@code System.gc()}, тому в демонстраціях процесорів звіт
+ * вмикається явно: режимом {@code footprint} класу {@link BasicDataOperation} або властивістю
+ * {@code -Dmemory.footprint=true}.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java MemoryFootprint list/short.data
+ * }
+ * </pre>
+ */
+public class MemoryFootprint {
+    static final boolean ENABLED = Boolean.getBoolean("memory.footprint");
+
+    private static final int MEASURED_COPIES = 64;
+
+    private static final int REFERENCE_SIZE;
+    private static final int OBJECT_HEADER;
+    private static final int ARRAY_HEADER;
+    private static final int ALIGNMENT;
+    private static final boolean COMPACT_STRINGS;
+
+    static {
+        boolean compressedOops = true;
+        boolean compressedClassPointers = true;
+        int alignment = 8;
+        boolean compactStrings = true;
+        try {
+            HotSpotDiagnosticMXBean diagnostic = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            compressedOops = Boolean.parseBoolean(diagnostic.getVMOption("UseCompressedOops").getValue());
+            compressedClassPointers = Boolean.parseBoolean(diagnostic.getVMOption("UseCompressedClassPointers").getValue());
+            alignment = Integer.parseInt(diagnostic.getVMOption("ObjectAlignmentInBytes").getValue());
+            compactStrings = Boolean.parseBoolean(diagnostic.getVMOption("CompactStrings").getValue());
+        } catch (RuntimeException e) {
+            // не HotSpot: залишаємо типові значення 64-бітної JVM
+        }
+        REFERENCE_SIZE = compressedOops ? 4 : 8;
+        OBJECT_HEADER = compressedClassPointers ? 12 : 16;
+        ARRAY_HEADER = align(OBJECT_HEADER + 4, compressedClassPointers ? 4 : 8);
+        ALIGNMENT = alignment;
+        COMPACT_STRINGS = compactStrings;
+    }
+
+    /**
+     * Оцінка обсягу пам'яті однієї структури.
+     */
+    public static class Estimate {
+        private final String structure;
+        private final long elementCount;
+        private final long structureBytes;
+        private final long elementBytes;
+        private final long measuredBytes;
+
+        Estimate(String structure, long elementCount, long structureBytes, long elementBytes, long measuredBytes) {
+            this.structure = structure;
+            this.elementCount = elementCount;
+            this.structureBytes = structureBytes;
+            this.elementBytes = elementBytes;
+            this.measuredBytes = measuredBytes;
+        }
+
+        public String getStructure() {
+            return structure;
+        }
+
+        public long getElementCount() {
+            return elementCount;
+        }
+
+        /**
+         * Повертає розмір власних вузлів і масивів структури.
+         *
+         * @return Розмір у байтах.
+         */
+        public long getStructureBytes() {
+            return structureBytes;
+        }
+
+        /**
+         * Повертає розмір упакованих елементів, на які посилається структура.
+         *
+         * @return Розмір у байтах.
+         */
+        public long getElementBytes() {
+            return elementBytes;
+        }
+
+        public long getTotalBytes() {
+            return structureBytes + elementBytes;
+        }
+
+        /**
+         * Повертає виміряний приріст купи під час побудови (-1, якщо не вимірювався).
+         *
+         * @return Розмір у байтах.
+         */
+        public long getMeasuredBytes() {
+            return measuredBytes;
+        }
+
+        public double getBytesPerElement() {
+            return elementCount == 0 ? 0 : (double) getTotalBytes() / elementCount;
+        }
+
+        Estimate withMeasured(long measured) {
+            return new Estimate(structure, elementCount, structureBytes, elementBytes, measured);
+        }
+    }
+
+    /**
+     * Оцінює Vector&lt;Short&gt; з урахуванням його фактичної місткості.
+     *
+     * @param vector Вектор значень.
+     * @return Оцінка.
+     */
+    public static Estimate estimateVector(Vector<Short> vector) {
+        // Vector: elementData + elementCount, capacityIncrement, modCount
+        long structureBytes = objectSize(1, 12) + arraySize(vector.capacity(), REFERENCE_SIZE);
+        return new Estimate("Vector<Short>", vector.size(), structureBytes, boxedShortBytes(vector), -1);
+    }
+
+    /**
+     * Оцінює PriorityQueue&lt;Short&gt;. Місткість масиву купи вважається рівною кількості елементів.
+     *
+     * @param queue Черга значень.
+     * @return Оцінка.
+     */
+    public static Estimate estimatePriorityQueue(PriorityQueue<Short> queue) {
+        // PriorityQueue: queue, comparator + size, modCount
+        long structureBytes = objectSize(2, 8) + arraySize(queue.size(), REFERENCE_SIZE);
+        return new Estimate("PriorityQueue<Short>", queue.size(), structureBytes, boxedShortBytes(queue), -1);
+    }
+
+    /**
+     * Оцінює TreeSet&lt;Short&gt; (TreeSet поверх TreeMap з вузлом на кожен елемент).
+     *
+     * @param set Множина значень.
+     * @return Оцінка.
+     */
+    public static Estimate estimateTreeSet(TreeSet<Short> set) {
+        // TreeMap: comparator, root, entrySet, navigableKeySet, descendingMap, keySet, values + size, modCount
+        long mapBytes = objectSize(7, 8);
+        // TreeMap.Entry: key, value, left, right, parent + color
+        long entryBytes = objectSize(5, 1);
+        long structureBytes = objectSize(1, 0) + mapBytes + set.size() * entryBytes;
+        return new Estimate("TreeSet<Short>", set.size(), structureBytes, boxedShortBytes(set), -1);
+    }
+
+    /**
+     * Оцінює HashMap або LinkedHashMap з ключами Cow і значеннями String.
+     * Рядки, спільні для кількох записів (наприклад, однакові імена власників), враховуються один раз.
+     *
+     * @param map Стадо: корова - власник.
+     * @return Оцінка.
+     */
+    public static Estimate estimateCowMap(Map<BasicDataOperationUsingMap.Cow, String> map) {
+        boolean linked = map instanceof LinkedHashMap;
+        // HashMap: table, entrySet, keySet, values + size, modCount, threshold, loadFactor;
+        // LinkedHashMap додає head, tail і accessOrder, а кожен вузол - before і after
+        long mapBytes = linked ? objectSize(6, 17) : objectSize(4, 16);
+        long nodeBytes = linked ? objectSize(5, 4) : objectSize(3, 4);
+        long structureBytes = mapBytes + arraySize(hashTableCapacity(map.size()), REFERENCE_SIZE) + map.size() * nodeBytes;
+
+        IdentityHashMap<Object, Boolean> counted = new IdentityHashMap<>();
+        long elementBytes = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Cow, String> entry : map.entrySet()) {
+            BasicDataOperationUsingMap.Cow cow = entry.getKey();
+            if (cow != null && counted.put(cow, Boolean.TRUE) == null) {
+                // Cow: nickname, milking + hash
+                elementBytes += objectSize(2, 4);
+                elementBytes += stringBytes(cow.getNickname(), counted);
+                if (cow.getMilking() != null && counted.put(cow.getMilking(), Boolean.TRUE) == null) {
+                    elementBytes += objectSize(0, 8);
+                }
+            }
+            elementBytes += stringBytes(entry.getValue(), counted);
+        }
+        String name = (linked ? "LinkedHashMap" : "HashMap") + "<Cow,String>";
+        return new Estimate(name, map.size(), structureBytes, elementBytes, -1);
+    }
+
+    /**
+     * Вимірює приріст зайнятої купи під час побудови структури. Щоб зменшити шум збирача
+     * для малих структур, будується кілька копій і результат ділиться на їх кількість.
+     *
+     * @param builder Функція, що будує структуру.
+     * @param copies Кількість копій.
+     * @return Середній приріст купи на одну копію в байтах (не менше 0).
+     */
+    public static long measureRetained(Supplier<?> builder, int copies) {
+        Object[] structures = new Object[copies];
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < copies; i++) {
+            structures[i] = builder.get();
+        }
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(structures);
+        return Math.max(0, after - before) / copies;
+    }
+
+    /**
+     * Будує структури процесорів для масиву short так само, як це роблять процесори: Vector - з масиву,
+     * PriorityQueue і TreeSet - з {@link SortedShortRun}, де повтори посилаються на один об'єкт Short,
+     * і виводить оцінки разом із примітивними альтернативами.
+     *
+     * @param shortArray Масив short.
+     */
+    public static void reportShortStructures(Short[] shortArray) {
+        List<Short> values = Arrays.asList(shortArray);
+        List<Estimate> estimates = new ArrayList<>();
+
+        Vector<Short> vector = new Vector<>(values);
+        estimates.add(estimateVector(vector).withMeasured(measureRetained(() -> new Vector<>(values), MEASURED_COPIES)));
+        SortedShortRun sortedRun = SortedShortRun.of(shortArray);
+        PriorityQueue<Short> queue = sortedRun.toPriorityQueue();
+        estimates.add(estimatePriorityQueue(queue).withMeasured(measureRetained(sortedRun::toPriorityQueue, MEASURED_COPIES)));
+        TreeSet<Short> set = sortedRun.toTreeSet();
+        estimates.add(estimateTreeSet(set).withMeasured(measureRetained(sortedRun::toTreeSet, MEASURED_COPIES)));
+
+        printReport("структури short (" + shortArray.length + " значень)", estimates);
+
+        OutputSink.println("Примітивні альтернативи:");
+        printAlternative("short[] (усі значення)", arraySize(shortArray.length, 2), shortArray.length);
+        printAlternative("short[] (впорядковані унікальні)", arraySize(set.size(), 2), set.size());
+        printAlternative("бітова множина long[1024] (унікальні)", arraySize(ShortQueryEngine.DOMAIN_SIZE / 64, 8), set.size());
+    }
+
+    /**
+     * Виводить оцінки для стада Cow та стовпчикову альтернативу (масиви кличок, надоїв і власників).
+     *
+     * @param maps Карти, побудовані процесором Map.
+     */
+    @SafeVarargs
+    public static void reportCowMaps(Map<BasicDataOperationUsingMap.Cow, String>... maps) {
+        List<Estimate> estimates = new ArrayList<>();
+        for (Map<BasicDataOperationUsingMap.Cow, String> map : maps) {
+            Supplier<?> copy = map instanceof LinkedHashMap ? () -> new LinkedHashMap<>(map) : () -> new HashMap<>(map);
+            estimates.add(estimateCowMap(map).withMeasured(measureRetained(copy, MEASURED_COPIES)));
+        }
+        if (estimates.isEmpty()) {
+            return;
+        }
+        printReport("стада Cow", estimates);
+
+        // стовпчики: String[] кличок, double[] надоїв, String[] власників; рядки ті самі
+        Map<BasicDataOperationUsingMap.Cow, String> herd = maps[0];
+        IdentityHashMap<Object, Boolean> counted = new IdentityHashMap<>();
+        long stringBytes = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Cow, String> entry : herd.entrySet()) {
+            stringBytes += stringBytes(entry.getKey().getNickname(), counted) + stringBytes(entry.getValue(), counted);
+        }
+        long columnBytes = 2 * arraySize(herd.size(), REFERENCE_SIZE) + arraySize(herd.size(), 8) + stringBytes;
+        OutputSink.println("Примітивні альтернативи:");
+        printAlternative("стовпчики String[] + double[] + String[]", columnBytes, herd.size());
+    }
+
+    /**
+     * Виводить таблицю оцінок через {@link OutputSink}.
+     *
+     * @param title Заголовок звіту.
+     * @param estimates Оцінки структур.
+     */
+    public static void printReport(String title, List<Estimate> estimates) {
+        OutputSink.println("Обсяг пам'яті " + title + " (посилання " + REFERENCE_SIZE + " байт, заголовок "
+                + OBJECT_HEADER + " байт, вирівнювання " + ALIGNMENT + " байт):");
+        for (Estimate estimate : estimates) {
+            String measured = estimate.getMeasuredBytes() >= 0 ? estimate.getMeasuredBytes() + " байт" : "н/д";
+            OutputSink.println(String.format("  %-28s елементів: %d, структура: %d байт, елементи: %d байт,"
+                    + " разом: %d байт (%.1f байт/елемент), виміряно: %s",
+                    estimate.getStructure(), estimate.getElementCount(), estimate.getStructureBytes(),
+                    estimate.getElementBytes(), estimate.getTotalBytes(), estimate.getBytesPerElement(), measured));
+        }
+    }
+
+    private static void printAlternative(String name, long bytes, long elementCount) {
+        double perElement = elementCount == 0 ? 0 : (double) bytes / elementCount;
+        OutputSink.println(String.format("  %-40s %d байт (%.1f байт/елемент)", name, bytes, perElement));
+    }
+
+    // Short з діапазону -128..127 береться з кешу Short.valueOf і не займає додаткової пам'яті;
+    // спільний об'єкт (як у SortedShortRun для повторів) рахується один раз
+    private static long boxedShortBytes(Iterable<Short> values) {
+        long boxSize = objectSize(0, 2);
+        long bytes = 0;
+        IdentityHashMap<Object, Boolean> counted = new IdentityHashMap<>();
+        for (Short value : values) {
+            if ((value < -128 || value > 127) && counted.put(value, Boolean.TRUE) == null) {
+                bytes += boxSize;
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value, IdentityHashMap<Object, Boolean> counted) {
+        if (value == null || counted.put(value, Boolean.TRUE) != null) {
+            return 0;
+        }
+        boolean latin1 = COMPACT_STRINGS;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) <= 0xFF;
+        }
+        // String: value + hash, coder, hashIsZero
+        return objectSize(1, 6) + arraySize(value.length(), latin1 ? 1 : 2);
+    }
+
+    // місткість таблиці HashMap: степінь двійки не менше 16 з коефіцієнтом заповнення 0.75
+    private static int hashTableCapacity(int size) {
+        int capacity = 16;
+        while (size > capacity * 3 / 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    static long objectSize(int references, int primitiveBytes) {
+        return align(OBJECT_HEADER + (long) references * REFERENCE_SIZE + primitiveBytes, ALIGNMENT);
+    }
+
+    static long arraySize(long length, int elementSize) {
+        return align(ARRAY_HEADER + length * elementSize, ALIGNMENT);
+    }
+
+    private static int align(int size, int alignment) {
+        return (size + alignment - 1) / alignment * alignment;
+    }
+
+    private static long align(long size, int alignment) {
+        return (size + alignment - 1) / alignment * alignment;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Виводить звіт про обсяг пам'яті структур для файлу даних short.
+     *
+     * @param args Необов'язковий шлях до файлу (типово list/short.data).
+     */
+    public static void main(String[] args) {
+        String filePath = args.length > 0 ? args[0] : BasicDataOperation.PATH_TO_DATA_FILE;
+        reportShortStructures(DataFileHandler.loadArrayFromFile(filePath));
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,326 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Клас OffHeapShortColumn - стовпець значень short поза купою Java.
+ *
+ * <p>Значення зберігаються в прямих ({@link ByteBuffer#allocateDirect(int)}) або відображених
+ * на файл ({@link FileChannel#map}) буферах частинами по {@link #CHUNK_ELEMENTS} елементів,
+ * тож довжина стовпця обмежена лише пам'яттю та диском, а не розміром купи чи 2 ГБ одного буфера.
+ * Збирач сміття бачить лише кілька об'єктів-буферів незалежно від кількості значень.</p>
+ *
+ * <p>Сортування - підрахунок по домену short (65 536 лічильників у купі) і перезапис стовпця
+ * серіями однакових значень: два послідовні проходи без додаткової пам'яті під дані.
+ * Пошук у впорядкованому стовпці - бінарний, мінімум і максимум - один прохід.</p>
+ *
+ * <p>Файл стовпця - послідовність значень short у порядку байтів платформи без заголовка;
+ * його можна створити з файлу {@code .data} методом {@link #importDataFile(String, Path)}.</p>
+ */
+public class OffHeapShortColumn implements Closeable {
+    static final int CHUNK_SHIFT = 28;
+    static final long CHUNK_ELEMENTS = 1L << CHUNK_SHIFT;
+    static final String FILE_SUFFIX = ".col";
+    private static final long CHUNK_MASK = CHUNK_ELEMENTS - 1;
+
+    private final ShortBuffer[] chunks;
+    private final ByteBuffer[] buffers;
+    private final long length;
+
+    private OffHeapShortColumn(ByteBuffer[] buffers, long length) {
+        this.buffers = buffers;
+        this.length = length;
+        this.chunks = new ShortBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            chunks[i] = buffers[i].order(ByteOrder.nativeOrder()).asShortBuffer();
+        }
+    }
+
+    /**
+     * Виділяє стовпець у прямій пам'яті, заповнений нулями.
+     *
+     * @param length Кількість елементів.
+     * @return Стовпець.
+     * @throws IllegalArgumentException якщо довжина від'ємна.
+     */
+    public static OffHeapShortColumn allocate(long length) {
+        requireNonNegative(length);
+        ByteBuffer[] buffers = new ByteBuffer[chunkCount(length)];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(chunkBytes(length, i));
+        }
+        return new OffHeapShortColumn(buffers, length);
+    }
+
+    /**
+     * Копіює масив у стовпець у прямій пам'яті.
+     *
+     * @param values Значення.
+     * @return Стовпець.
+     */
+    public static OffHeapShortColumn fromArray(Short[] values) {
+        OffHeapShortColumn column = allocate(values.length);
+        for (int i = 0; i < values.length; i++) {
+            column.set(i, values[i]);
+        }
+        return column;
+    }
+
+    /**
+     * Відображає файл стовпця в пам'ять. Зміни стовпця, відкритого для запису, потрапляють у файл.
+     *
+     * @param file Файл стовпця.
+     * @param writable Чи дозволено змінювати стовпець (потрібно для {@link #sort()}).
+     * @return Стовпець.
+     * @throws IllegalArgumentException якщо розмір файлу не кратний розміру short.
+     * @throws UncheckedIOException якщо файл не вдалося відобразити.
+     */
+    public static OffHeapShortColumn map(Path file, boolean writable) {
+        try (FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % Short.BYTES != 0) {
+                throw new IllegalArgumentException("Розмір файлу стовпця не кратний " + Short.BYTES + ": " + file);
+            }
+            long length = bytes / Short.BYTES;
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            ByteBuffer[] buffers = new ByteBuffer[chunkCount(length)];
+            for (int i = 0; i < buffers.length; i++) {
+                // відображення лишається дійсним після закриття каналу
+                buffers[i] = channel.map(mode, (i * CHUNK_ELEMENTS) * Short.BYTES, chunkBytes(length, i));
+            }
+            return new OffHeapShortColumn(buffers, length);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Перетворює текстовий файл {@code .data} на файл стовпця, не завантажуючи значення в купу.
+     *
+     * @param dataPath Шлях до файлу даних (одне значення short у рядку).
+     * @param columnFile Шлях до файлу стовпця, що буде створений або перезаписаний.
+     * @return Кількість записаних значень.
+     * @throws IllegalArgumentException якщо значення виходить за межі short.
+     * @throws UncheckedIOException якщо запис не вдався.
+     */
+    public static long importDataFile(String dataPath, Path columnFile) {
+        try (FileChannel channel = FileChannel.open(columnFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.nativeOrder());
+            long[] written = {0};
+            DataFileHandler.streamValuesFromFile(dataPath, value -> {
+                if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Значення поза межами short: " + value);
+                }
+                if (!buffer.hasRemaining()) {
+                    try {
+                        drain(channel, buffer);
+                    } catch (IOException ioException) {
+                        throw new UncheckedIOException(ioException);
+                    }
+                }
+                buffer.putShort((short) value);
+                written[0]++;
+            });
+            drain(channel, buffer);
+            return written[0];
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    public long size() {
+        return length;
+    }
+
+    /**
+     * Повертає значення за індексом.
+     *
+     * @param index Індекс у межах [0, size()).
+     * @return Значення.
+     */
+    public short get(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    }
+
+    /**
+     * Записує значення за індексом.
+     *
+     * @param index Індекс у межах [0, size()).
+     * @param value Значення.
+     */
+    public void set(long index, short value) {
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    }
+
+    /**
+     * Упорядковує стовпець за зростанням підрахунком по домену short.
+     */
+    public void sort() {
+        long[] counts = new long[ShortQueryEngine.DOMAIN_SIZE];
+        for (ShortBuffer chunk : chunks) {
+            for (int i = 0, end = chunk.limit(); i < end; i++) {
+                counts[ShortQueryEngine.indexOf(chunk.get(i))]++;
+            }
+        }
+
+        long position = 0;
+        for (int index = 0; index < counts.length; index++) {
+            short value = ShortQueryEngine.valueAt(index);
+            for (long end = position + counts[index]; position < end; position++) {
+                set(position, value);
+            }
+        }
+    }
+
+    /**
+     * Шукає значення у впорядкованому стовпці.
+     *
+     * @param value Значення.
+     * @return Індекс першого входження або -(точка вставки) - 1, як у Arrays.binarySearch.
+     */
+    public long binarySearch(short value) {
+        long low = 0;
+        long high = length;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (get(mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < length && get(low) == value ? low : -low - 1;
+    }
+
+    /**
+     * Повертає найменше та найбільше значення.
+     *
+     * @return Масив {min, max}.
+     * @throws IllegalStateException якщо стовпець порожній.
+     */
+    public short[] minMax() {
+        if (length == 0) {
+            throw new IllegalStateException("Стовпець порожній");
+        }
+        short min = Short.MAX_VALUE;
+        short max = Short.MIN_VALUE;
+        for (ShortBuffer chunk : chunks) {
+            for (int i = 0, end = chunk.limit(); i < end; i++) {
+                short value = chunk.get(i);
+                if (value < min) {
+                    min = value;
+                }
+                if (value > max) {
+                    max = value;
+                }
+            }
+        }
+        return new short[] {min, max};
+    }
+
+    /**
+     * Записує зміни відображеного стовпця на диск.
+     */
+    public void force() {
+        for (ByteBuffer buffer : buffers) {
+            if (buffer instanceof MappedByteBuffer && !buffer.isReadOnly()) {
+                ((MappedByteBuffer) buffer).force();
+            }
+        }
+    }
+
+    /**
+     * Записує зміни на диск. Пам'ять буферів звільняється, щойно стовпець стає недосяжним.
+     */
+    @Override
+    public void close() {
+        force();
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static int chunkCount(long length) {
+        return (int) ((length + CHUNK_ELEMENTS - 1) >>> CHUNK_SHIFT);
+    }
+
+    private static int chunkBytes(long length, int chunk) {
+        return (int) (Math.min(CHUNK_ELEMENTS, length - chunk * CHUNK_ELEMENTS) * Short.BYTES);
+    }
+
+    private static void requireNonNegative(long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Довжина стовпця не може бути від'ємною: " + length);
+        }
+    }
+
+    /**
+     * Створює файл стовпця з випадковими значеннями, відображає його та виконує сортування,
+     * пошук і пошук мінімуму й максимуму поза купою.
+     *
+     * @param args Кількість значень (типово 100000000) і шлях до файлу стовпця (типово тимчасовий файл).
+     */
+    public static void main(String[] args) {
+        long length = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        try {
+            Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("column", FILE_SUFFIX);
+            if (args.length < 2) {
+                // відображення звільняється лише збирачем сміття, тому файл видаляється під час завершення JVM
+                file.toFile().deleteOnExit();
+            }
+
+            long timeStart = PerformanceTracker.startTiming();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.nativeOrder());
+                Random random = new Random(42);
+                for (long i = 0; i < length; i++) {
+                    if (!buffer.hasRemaining()) {
+                        drain(channel, buffer);
+                    }
+                    buffer.putShort((short) random.nextInt());
+                }
+                drain(channel, buffer);
+            }
+            PerformanceTracker.displayOperationTime(timeStart, "запис файлу стовпця з " + length + " значень");
+
+            try (OffHeapShortColumn column = map(file, true)) {
+                timeStart = PerformanceTracker.startTiming();
+                short[] bounds = column.minMax();
+                PerformanceTracker.displayOperationTime(timeStart, "пошук мінімуму й максимуму поза купою",
+                        "OffHeapShortColumn", column.size(), bounds[0] + ".." + bounds[1]);
+
+                timeStart = PerformanceTracker.startTiming();
+                column.sort();
+                PerformanceTracker.displayOperationTime(timeStart, "сортування стовпця підрахунком",
+                        "OffHeapShortColumn", column.size(), null);
+
+                timeStart = PerformanceTracker.startTiming();
+                long position = column.binarySearch((short) 0);
+                PerformanceTracker.displayOperationTime(timeStart, "бінарний пошук у стовпці",
+                        "OffHeapShortColumn", column.size(), position);
+                OutputSink.println("Позиція значення 0: " + position);
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,50 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Подія Java Flight Recorder для операції, виміряної через {@link PerformanceTracker}.
+ *
+ * <p>Подія потрапляє в той самий запис, що й події GC та safepoint, тому сплески окремих
+ * операцій (наприклад, sortHashMap чи findInQueue) можна зіставити з паузами JVM.
+ * Увімкнення та поріг тривалості задаються стандартними налаштуваннями JFR для
+ * події {@code training.DataOperation} (файл .jfc або {@code Recording.enable(...).withThreshold(...)}).</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java -XX:StartFlightRecording:filename=operations.jfr BasicDataOperation 1234
+ * jfr print --events training.DataOperation operations.jfr
+ * }
+ * </pre>
+ */
+@Name("training.DataOperation")
+@Label("Операція з даними")
+@Category({ "Training Data", "Operations" })
+@Description("Операція з колекцією, виміряна PerformanceTracker")
+@Enabled(true)
+@Threshold("0 ns")
+@StackTrace(false)
+class OperationEvent extends Event {
+    @Label("Операція")
+    String operation;
+
+    @Label("Структура")
+    String structure;
+
+    @Label("Кількість елементів")
+    long elementCount;
+
+    @Label("Результат")
+    String result;
+
+    @Label("Виділено")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,162 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Клас OperationPlanner перетворює декларативну послідовність операцій на план виконання,
+ * в якому кожна операція замінена найдешевшим еквівалентом.
+ *
+ * <p>Планувальник відстежує структурні властивості даних між операціями:</p>
+ * <ul>
+ *   <li>{@link Property#SORTED} - дані впорядковані: пошук бінарний, мінімум і максимум - крайні елементи,
+ *       повторне сортування пропускається;</li>
+ *   <li>{@link Property#HEAP_ORDERED} - дані утворюють купу: мінімум - голова, максимум шукається перебором;</li>
+ *   <li>{@link Property#DEDUPLICATED} - дані без повторів;</li>
+ *   <li>{@link Property#MIN_MAX_KNOWN} - мінімум і максимум уже обчислені і можуть бути повторно використані.</li>
+ * </ul>
+ *
+ * <p>Приклад: послідовність find → minmax → sort → find → minmax для невпорядкованого списку
+ * перетворюється на LINEAR_SCAN → FULL_SCAN → SORT → BINARY_SEARCH → CACHED.</p>
+ */
+public class OperationPlanner {
+    /**
+     * Логічна операція над структурою даних.
+     */
+    public enum Operation { FIND, MIN_MAX, SORT, POLL }
+
+    /**
+     * Структурна властивість даних.
+     */
+    public enum Property { SORTED, HEAP_ORDERED, DEDUPLICATED, MIN_MAX_KNOWN }
+
+    /**
+     * Спосіб виконання операції.
+     */
+    public enum Strategy {
+        /** Бінарний пошук або спуск по дереву у впорядкованих даних. */
+        BINARY_SEARCH,
+        /** Послідовний перебір невпорядкованих даних. */
+        LINEAR_SCAN,
+        /** Мінімум і максимум - перший і останній елементи. */
+        ENDPOINTS,
+        /** Мінімум - голова купи, максимум - перебір. */
+        HEAD_AND_SCAN,
+        /** Повторне використання раніше обчислених мінімуму і максимуму. */
+        CACHED,
+        /** Повний перебір для пошуку мінімуму і максимуму. */
+        FULL_SCAN,
+        /** Повне сортування. */
+        SORT,
+        /** Вилучення голови купи. */
+        REMOVE_HEAD,
+        /** Операція не потрібна. */
+        SKIP
+    }
+
+    /**
+     * Крок плану: операція та обраний спосіб її виконання.
+     */
+    public static final class Step {
+        private final Operation operation;
+        private final Strategy strategy;
+
+        Step(Operation operation, Strategy strategy) {
+            this.operation = operation;
+            this.strategy = strategy;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        @Override
+        public String toString() {
+            return operation + "→" + strategy;
+        }
+    }
+
+    private OperationPlanner() {
+    }
+
+    /**
+     * Будує план виконання для послідовності операцій.
+     *
+     * @param initialProperties Властивості даних перед першою операцією.
+     * @param operations Послідовність логічних операцій.
+     * @return Незмінний список кроків плану.
+     */
+    public static List<Step> plan(Set<Property> initialProperties, List<Operation> operations) {
+        EnumSet<Property> properties = initialProperties.isEmpty()
+                ? EnumSet.noneOf(Property.class)
+                : EnumSet.copyOf(initialProperties);
+        List<Step> steps = new ArrayList<>(operations.size());
+
+        for (Operation operation : operations) {
+            Strategy strategy;
+            switch (operation) {
+                case FIND:
+                    strategy = properties.contains(Property.SORTED) ? Strategy.BINARY_SEARCH : Strategy.LINEAR_SCAN;
+                    break;
+                case MIN_MAX:
+                    if (properties.contains(Property.MIN_MAX_KNOWN)) {
+                        strategy = Strategy.CACHED;
+                    } else if (properties.contains(Property.SORTED)) {
+                        strategy = Strategy.ENDPOINTS;
+                    } else if (properties.contains(Property.HEAP_ORDERED)) {
+                        strategy = Strategy.HEAD_AND_SCAN;
+                    } else {
+                        strategy = Strategy.FULL_SCAN;
+                    }
+                    properties.add(Property.MIN_MAX_KNOWN);
+                    break;
+                case SORT:
+                    strategy = properties.contains(Property.SORTED) ? Strategy.SKIP : Strategy.SORT;
+                    // сортування лише переставляє елементи, тож відомі мінімум і максимум лишаються чинними
+                    properties.add(Property.SORTED);
+                    properties.remove(Property.HEAP_ORDERED);
+                    break;
+                case POLL:
+                    strategy = Strategy.REMOVE_HEAD;
+                    properties.remove(Property.MIN_MAX_KNOWN);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Невідома операція: " + operation);
+            }
+            steps.add(new Step(operation, strategy));
+        }
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Визначає властивості послідовності за один лінійний прохід (дешевше, ніж повторне сортування).
+     *
+     * @param values Послідовність значень short (список або {@code Arrays.asList(масив)}).
+     * @return Множина властивостей: SORTED, якщо послідовність упорядкована за зростанням.
+     */
+    public static EnumSet<Property> detectProperties(Iterable<Short> values) {
+        Short previous = null;
+        for (Short current : values) {
+            if (previous != null && previous > current) {
+                return EnumSet.noneOf(Property.class);
+            }
+            previous = current;
+        }
+        return EnumSet.of(Property.SORTED);
+    }
+
+    /**
+     * Виводить план виконання через {@link OutputSink}.
+     *
+     * @param title Назва структури даних.
+     * @param steps Кроки плану.
+     */
+    public static void printPlan(String title, List<Step> steps) {
+        OutputSink.println("План операцій для " + title + ": " + steps);
+    }
+}
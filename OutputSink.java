@@ -0,0 +1,224 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Клас OutputSink відокремлює консольний вивід від вимірюваних операцій.
+ *
+ * <p>Усі процесори надсилають повідомлення через цей клас замість прямого
+ * виклику {@code System.out.println}, тому тривалість операцій не залежить
+ * від швидкості термінала.</p>
+ *
+ * <p>Режими виводу (системна властивість {@code output.mode}):</p>
+ * <ul>
+ *   <li>{@code direct} - синхронний вивід у System.out.</li>
+ *   <li>{@code quiet} - вивід повністю пригнічено.</li>
+ *   <li>{@code buffered} - рядки накопичуються в пам'яті до виклику {@link #flush()}.</li>
+ *   <li>{@code async} - рядки передаються фоновому потоку через обмежену чергу (типово);
+ *       якщо черга заповнена, виклик чекає на вільне місце, тож рядки не губляться.</li>
+ * </ul>
+ */
+public class OutputSink {
+    /**
+     * Режим роботи виводу.
+     */
+    public enum Mode { DIRECT, QUIET, BUFFERED, ASYNC }
+
+    private static final int ASYNC_QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    private static final int BUFFER_FLUSH_THRESHOLD = 1 << 20;
+
+    private static final PrintStream target = System.out;
+    private static final StringBuilder buffer = new StringBuilder();
+    private static final BlockingQueue<String> queue = new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY);
+    private static final AtomicLong pendingChunks = new AtomicLong();
+    private static final Object drained = new Object();
+
+    private static volatile Mode mode = parseMode(System.getProperty("output.mode"));
+    private static volatile Thread writerThread;
+
+    static {
+        // гарантуємо, що буферизовані та асинхронні рядки не загубляться при завершенні JVM
+        Runtime.getRuntime().addShutdownHook(new Thread(OutputSink::flush, "output-sink-shutdown"));
+    }
+
+    /**
+     * Визначає режим виводу за текстовою назвою.
+     *
+     * @param name Назва режиму (direct, quiet, buffered, async) або null.
+     * @return Режим виводу; async, якщо назва відсутня або невідома.
+     */
+    static Mode parseMode(String name) {
+        if (name == null) {
+            return Mode.ASYNC;
+        }
+        try {
+            return Mode.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Mode.ASYNC;
+        }
+    }
+
+    /**
+     * Встановлює режим виводу. Перед перемиканням весь накопичений вивід скидається.
+     *
+     * @param newMode Новий режим виводу.
+     */
+    public static synchronized void setMode(Mode newMode) {
+        flush();
+        mode = newMode;
+    }
+
+    /**
+     * Повертає поточний режим виводу.
+     *
+     * @return Режим виводу.
+     */
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Виводить один рядок відповідно до поточного режиму.
+     *
+     * @param line Рядок для виведення.
+     */
+    public static void println(String line) {
+        emit(line);
+    }
+
+    /**
+     * Виводить набір рядків пакетами, щоб великі дампи не виконували
+     * окремий запис для кожного рядка.
+     *
+     * @param lines Рядки для виведення.
+     */
+    public static void printBatch(List<String> lines) {
+        if (mode == Mode.QUIET || lines.isEmpty()) {
+            return;
+        }
+
+        StringBuilder chunk = new StringBuilder();
+        int linesInChunk = 0;
+        for (String line : lines) {
+            if (linesInChunk > 0) {
+                chunk.append('\n');
+            }
+            chunk.append(line);
+            if (++linesInChunk == BATCH_SIZE) {
+                emit(chunk.toString());
+                chunk.setLength(0);
+                linesInChunk = 0;
+            }
+        }
+        if (linesInChunk > 0) {
+            emit(chunk.toString());
+        }
+    }
+
+    /**
+     * Скидає весь накопичений вивід і чекає, доки фоновий потік його запише.
+     */
+    public static void flush() {
+        String buffered;
+        synchronized (buffer) {
+            buffered = buffer.length() > 0 ? buffer.toString() : null;
+            buffer.setLength(0);
+        }
+        if (buffered != null) {
+            target.print(buffered);
+        }
+
+        synchronized (drained) {
+            while (pendingChunks.get() > 0 && writerThread != null && writerThread.isAlive()) {
+                try {
+                    drained.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        target.flush();
+    }
+
+    private static void emit(String text) {
+        switch (mode) {
+            case QUIET:
+                return;
+            case DIRECT:
+                target.println(text);
+                return;
+            case BUFFERED:
+                String overflow = null;
+                synchronized (buffer) {
+                    buffer.append(text).append('\n');
+                    if (buffer.length() >= BUFFER_FLUSH_THRESHOLD) {
+                        overflow = buffer.toString();
+                        buffer.setLength(0);
+                    }
+                }
+                if (overflow != null) {
+                    target.print(overflow);
+                }
+                return;
+            case ASYNC:
+            default:
+                ensureWriterStarted();
+                pendingChunks.incrementAndGet();
+                try {
+                    // при переповненій черзі чекаємо, доки фоновий потік звільнить місце
+                    queue.put(text);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    pendingChunks.decrementAndGet();
+                    target.println(text);
+                }
+        }
+    }
+
+    private static synchronized void ensureWriterStarted() {
+        if (writerThread != null) {
+            return;
+        }
+        writerThread = new Thread(OutputSink::drainQueue, "output-sink-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Фоновий цикл запису: забирає з черги всі доступні блоки і записує їх одним викликом.
+     */
+    private static void drainQueue() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder chunk = new StringBuilder();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                synchronized (drained) {
+                    drained.notifyAll();
+                }
+                return;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+
+            for (String line : batch) {
+                chunk.append(line).append('\n');
+            }
+            target.print(chunk);
+            target.flush();
+
+            if (pendingChunks.addAndGet(-batch.size()) == 0) {
+                synchronized (drained) {
+                    drained.notifyAll();
+                }
+            }
+            batch.clear();
+            chunk.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Клас PartitionWorker - окремий процес, що зберігає одну частину набору даних
+ * і відповідає на запити {@link PartitionedDataset}.
+ *
+ * <p>Під час запуску процес потоково читає файл даних і залишає лише значення своєї частини
+ * (за діапазоном або за хешем), тож у його купі є тільки ця частина. Значення зберігаються
+ * впорядкованим масивом, який одночасно слугує множиною: належність і межі діапазону
+ * визначаються двійковим пошуком.</p>
+ *
+ * <p>Протокол - по одному рядку на запит через stdin і по одному рядку на відповідь через stdout:</p>
+ * <ul>
+ *   <li>{@code CONTAINS v} → {@code OK true|false};</li>
+ *   <li>{@code MINMAX} → {@code OK min max} або {@code OK EMPTY};</li>
+ *   <li>{@code COUNT} → {@code OK n} (з повторами), {@code DISTINCT} → {@code OK n};</li>
+ *   <li>{@code COUNT_RANGE lo hi} → {@code OK n};</li>
+ *   <li>{@code RANGE lo hi} → {@code OK n v1 v2 ...};</li>
+ *   <li>{@code QUIT} - завершення процесу.</li>
+ * </ul>
+ * <p>Після завантаження процес надсилає {@code READY n} (або {@code ERR причина}, якщо дані не вдалося прочитати);
+ * на некоректний запит - {@code ERR повідомлення}.</p>
+ */
+public class PartitionWorker {
+    static final String MODE_RANGE = "range";
+    static final String MODE_HASH = "hash";
+
+    private final long[] values;
+    private final int distinctCount;
+
+    /**
+     * Створює частину з уже впорядкованих значень.
+     *
+     * @param values Впорядковані значення частини.
+     */
+    PartitionWorker(long[] values) {
+        this.values = values;
+        int distinct = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                distinct++;
+            }
+        }
+        this.distinctCount = distinct;
+    }
+
+    /**
+     * Завантажує з файлу значення, що належать частині.
+     *
+     * @param dataPath Шлях до файлу даних.
+     * @param mode Спосіб поділу: {@code range} або {@code hash}.
+     * @param partition Номер частини.
+     * @param partitionCount Кількість частин.
+     * @param lowerBound Нижня межа діапазону (включно; для range).
+     * @param upperBound Верхня межа діапазону (включно; для range).
+     * @return Частина з упорядкованими значеннями.
+     * @throws UncheckedIOException якщо файл даних не вдалося прочитати.
+     */
+    static PartitionWorker load(String dataPath, String mode, int partition, int partitionCount,
+            long lowerBound, long upperBound) {
+        boolean byRange = mode.equals(MODE_RANGE);
+        if (!byRange && !mode.equals(MODE_HASH)) {
+            throw new IllegalArgumentException("Невідомий спосіб поділу: " + mode);
+        }
+
+        long[][] buffer = {new long[1024]};
+        int[] size = {0};
+        DataFileHandler.streamValuesFromFile(dataPath, value -> {
+            boolean owned = byRange
+                    ? value >= lowerBound && value <= upperBound
+                    : partitionOf(value, partitionCount) == partition;
+            if (owned) {
+                if (size[0] == buffer[0].length) {
+                    buffer[0] = Arrays.copyOf(buffer[0], buffer[0].length * 2);
+                }
+                buffer[0][size[0]++] = value;
+            }
+        });
+
+        long[] values = Arrays.copyOf(buffer[0], size[0]);
+        Arrays.sort(values);
+        return new PartitionWorker(values);
+    }
+
+    /**
+     * Повертає номер частини для значення за хешем.
+     *
+     * @param value Значення.
+     * @param partitionCount Кількість частин.
+     * @return Номер частини.
+     */
+    static int partitionOf(long value, int partitionCount) {
+        // перемішування бітів, щоб сусідні значення розходилися по різних частинах
+        long mixed = value * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) partitionCount);
+    }
+
+    /**
+     * Виконує один запит протоколу.
+     *
+     * @param request Рядок запиту.
+     * @return Рядок відповіді.
+     */
+    String handle(String request) {
+        String[] parts = request.trim().split("\\s+");
+        try {
+            switch (parts[0]) {
+                case "CONTAINS":
+                    return "OK " + (Arrays.binarySearch(values, Long.parseLong(parts[1])) >= 0);
+                case "MINMAX":
+                    return values.length == 0 ? "OK EMPTY" : "OK " + values[0] + " " + values[values.length - 1];
+                case "COUNT":
+                    return "OK " + values.length;
+                case "DISTINCT":
+                    return "OK " + distinctCount;
+                case "COUNT_RANGE": {
+                    long lower = Long.parseLong(parts[1]);
+                    long upper = Long.parseLong(parts[2]);
+                    return "OK " + Math.max(0, upperIndex(upper) - lowerIndex(lower));
+                }
+                case "RANGE": {
+                    int from = lowerIndex(Long.parseLong(parts[1]));
+                    int to = upperIndex(Long.parseLong(parts[2]));
+                    StringBuilder response = new StringBuilder("OK ").append(Math.max(0, to - from));
+                    for (int i = from; i < to; i++) {
+                        response.append(' ').append(values[i]);
+                    }
+                    return response.toString();
+                }
+                default:
+                    return "ERR Невідомий запит: " + parts[0];
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return "ERR Некоректні аргументи запиту: " + request;
+        }
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    // індекс першого значення >= lower
+    private int lowerIndex(long lower) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < lower) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // індекс першого значення > upper
+    private int upperIndex(long upper) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= upper) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Точка входу процесу частини.
+     *
+     * @param args Файл даних, спосіб поділу, номер частини, кількість частин,
+     *             а для range - нижня й верхня межі.
+     */
+    public static void main(String[] args) {
+        String mode = args[1];
+        int partition = Integer.parseInt(args[2]);
+        int partitionCount = Integer.parseInt(args[3]);
+        long lowerBound = mode.equals(MODE_RANGE) ? Long.parseLong(args[4]) : Long.MIN_VALUE;
+        long upperBound = mode.equals(MODE_RANGE) ? Long.parseLong(args[5]) : Long.MAX_VALUE;
+
+        // stdout процесу є каналом протоколу, тому відповіді пишуться напряму, а не через OutputSink
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            PartitionWorker worker;
+            try {
+                worker = load(args[0], mode, partition, partitionCount, lowerBound, upperBound);
+            } catch (RuntimeException e) {
+                // координатор має дізнатися причину, а не отримати порожню частину
+                out.write("ERR " + e);
+                out.newLine();
+                out.flush();
+                throw e;
+            }
+            out.write("READY " + worker.size());
+            out.newLine();
+            out.flush();
+
+            String request;
+            while ((request = in.readLine()) != null && !request.equals("QUIT")) {
+                out.write(worker.handle(request));
+                out.newLine();
+                out.flush();
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+}
@@ -0,0 +1,444 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Клас PartitionedDataset - координатор набору даних, розподіленого між кількома локальними
+ * процесами {@link PartitionWorker}.
+ *
+ * <p>Файл {@code .data} ділиться за діапазоном або за хешем: кожен процес читає файл сам
+ * і зберігає лише свою частину, тож сумарний обсяг даних обмежений сумою куп процесів,
+ * а не купою однієї JVM. Запити contains, min/max, count і range розсилаються частинам
+ * (scatter) - за поділу діапазоном лише тим, чиї межі перетинаються із запитом, - а відповіді
+ * збираються й об'єднуються (gather). Запит спершу надсилається всім частинам і лише потім
+ * читаються відповіді, тож частини обробляють його одночасно.</p>
+ *
+ * <p>Межі частин за діапазоном обираються за квантилями випадкової вибірки значень, щоб частини
+ * були приблизно однакові навіть за нерівномірного розподілу.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java PartitionedDataset 4 range
+ * }
+ * </pre>
+ */
+public class PartitionedDataset implements Closeable {
+    static final int SAMPLE_SIZE = 4096;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Спосіб поділу даних між частинами.
+     */
+    enum Partitioning {
+        RANGE(PartitionWorker.MODE_RANGE),
+        HASH(PartitionWorker.MODE_HASH);
+
+        private final String mode;
+
+        Partitioning(String mode) {
+            this.mode = mode;
+        }
+    }
+
+    /**
+     * З'єднання з процесом однієї частини.
+     */
+    private static final class WorkerConnection {
+        private final int partition;
+        private final Process process;
+        private final BufferedWriter requests;
+        private final BufferedReader responses;
+        private final long lowerBound;
+        private final long upperBound;
+        private long size;
+
+        WorkerConnection(int partition, Process process, long lowerBound, long upperBound) {
+            this.partition = partition;
+            this.process = process;
+            this.requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.responses = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+        }
+
+        void send(String request) throws IOException {
+            requests.write(request);
+            requests.newLine();
+            requests.flush();
+        }
+
+        // повертає відповідь без префікса OK
+        String receive() throws IOException {
+            String response = responses.readLine();
+            if (response == null) {
+                throw new IOException("Процес частини " + partition + " завершився несподівано");
+            }
+            if (!response.startsWith("OK")) {
+                throw new IllegalStateException("Частина " + partition + ": " + response);
+            }
+            return response.length() > 3 ? response.substring(3) : "";
+        }
+
+        boolean overlaps(long lower, long upper) {
+            return lowerBound <= upperBound && lower <= upperBound && upper >= lowerBound;
+        }
+    }
+
+    private final Partitioning partitioning;
+    private final List<WorkerConnection> workers;
+    private final long size;
+
+    private PartitionedDataset(Partitioning partitioning, List<WorkerConnection> workers) {
+        this.partitioning = partitioning;
+        this.workers = workers;
+        long total = 0;
+        for (WorkerConnection worker : workers) {
+            total += worker.size;
+        }
+        this.size = total;
+    }
+
+    /**
+     * Запускає процеси частин і чекає, доки кожен завантажить свої дані.
+     *
+     * @param dataPath Шлях до файлу даних.
+     * @param partitionCount Кількість частин (процесів).
+     * @param partitioning Спосіб поділу.
+     * @return Координатор розподіленого набору.
+     * @throws IllegalArgumentException якщо кількість частин не додатна.
+     * @throws UncheckedIOException якщо файл даних недоступний або процес не вдалося запустити
+     *                              чи він не завантажив свою частину.
+     */
+    public static PartitionedDataset open(String dataPath, int partitionCount, Partitioning partitioning) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Кількість частин має бути додатною: " + partitionCount);
+        }
+        if (!Files.isReadable(Path.of(dataPath))) {
+            throw new UncheckedIOException(new NoSuchFileException(dataPath, null, "файл даних недоступний для читання"));
+        }
+        long[] cutPoints = partitioning == Partitioning.RANGE
+                ? computeCutPoints(dataPath, partitionCount)
+                : null;
+
+        String javaBinary = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        List<WorkerConnection> workers = new ArrayList<>();
+        try {
+            // спершу запускаємо всі процеси, щоб вони завантажували дані одночасно
+            for (int partition = 0; partition < partitionCount; partition++) {
+                long lowerBound = Long.MIN_VALUE;
+                long upperBound = Long.MAX_VALUE;
+                List<String> command = new ArrayList<>(List.of(javaBinary, "-cp", classPath, "PartitionWorker",
+                        dataPath, partitioning.mode, String.valueOf(partition), String.valueOf(partitionCount)));
+                if (cutPoints != null) {
+                    lowerBound = partition == 0 ? Long.MIN_VALUE : cutPoints[partition - 1];
+                    upperBound = partition == partitionCount - 1 ? Long.MAX_VALUE : cutPoints[partition] - 1;
+                    command.add(String.valueOf(lowerBound));
+                    command.add(String.valueOf(upperBound));
+                }
+                Process process = new ProcessBuilder(command)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                workers.add(new WorkerConnection(partition, process, lowerBound, upperBound));
+            }
+
+            for (WorkerConnection worker : workers) {
+                String ready = worker.responses.readLine();
+                if (ready == null || !ready.startsWith("READY ")) {
+                    // процес, що не зміг завантажити дані, повідомляє причину рядком ERR
+                    throw new IOException("Процес частини " + worker.partition + " не завантажив дані: " + ready);
+                }
+                worker.size = Long.parseLong(ready.substring("READY ".length()));
+            }
+            return new PartitionedDataset(partitioning, workers);
+        } catch (IOException ioException) {
+            workers.forEach(worker -> worker.process.destroyForcibly());
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Обчислює межі частин за квантилями рівномірної вибірки (reservoir sampling) значень файлу.
+     *
+     * @return partitionCount - 1 неспадних точок розрізу; частина i містить значення [cut[i-1], cut[i]).
+     * @throws UncheckedIOException якщо файл даних не вдалося прочитати.
+     */
+    static long[] computeCutPoints(String dataPath, int partitionCount) {
+        long[] sample = new long[SAMPLE_SIZE];
+        long[] seen = {0};
+        Random random = new Random(42);
+        DataFileHandler.streamValuesFromFile(dataPath, value -> {
+            long index = seen[0]++;
+            if (index < SAMPLE_SIZE) {
+                sample[(int) index] = value;
+            } else {
+                long slot = (long) (random.nextDouble() * (index + 1));
+                if (slot < SAMPLE_SIZE) {
+                    sample[(int) slot] = value;
+                }
+            }
+        });
+
+        int sampleSize = (int) Math.min(seen[0], SAMPLE_SIZE);
+        long[] sorted = Arrays.copyOf(sample, sampleSize);
+        Arrays.sort(sorted);
+        long[] cutPoints = new long[partitionCount - 1];
+        for (int i = 0; i < cutPoints.length; i++) {
+            long cut = sampleSize == 0 ? Long.MAX_VALUE : sorted[(int) ((long) (i + 1) * sampleSize / partitionCount)];
+            // Long.MIN_VALUE завжди належить частині 0, тому cut - 1 не переповнюється
+            cutPoints[i] = Math.max(cut, Long.MIN_VALUE + 1);
+        }
+        return cutPoints;
+    }
+
+    /**
+     * Перевіряє наявність значення.
+     *
+     * @param value Значення.
+     * @return true, якщо значення є в наборі.
+     */
+    public synchronized boolean contains(long value) {
+        if (partitioning == Partitioning.HASH) {
+            // за хешем значення може бути лише в одній частині
+            WorkerConnection worker = workers.get(PartitionWorker.partitionOf(value, workers.size()));
+            try {
+                worker.send("CONTAINS " + value);
+                return Boolean.parseBoolean(worker.receive());
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        }
+        for (String response : scatterGather(value, value, "CONTAINS " + value)) {
+            if (Boolean.parseBoolean(response)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Повертає найменше та найбільше значення.
+     *
+     * @return Масив {min, max} або null, якщо набір порожній.
+     */
+    public synchronized long[] minMax() {
+        long[] result = null;
+        for (String response : scatterGather(Long.MIN_VALUE, Long.MAX_VALUE, "MINMAX")) {
+            if (response.equals("EMPTY")) {
+                continue;
+            }
+            String[] bounds = response.split(" ");
+            long min = Long.parseLong(bounds[0]);
+            long max = Long.parseLong(bounds[1]);
+            if (result == null) {
+                result = new long[] {min, max};
+            } else {
+                result[0] = Math.min(result[0], min);
+                result[1] = Math.max(result[1], max);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Повертає кількість значень з повторами (відома після завантаження, без запиту до частин).
+     *
+     * @return Кількість значень.
+     */
+    public long count() {
+        return size;
+    }
+
+    /**
+     * Повертає кількість різних значень. Кожне значення належить рівно одній частині,
+     * тому суми лічильників частин достатньо.
+     *
+     * @return Кількість різних значень.
+     */
+    public synchronized long countDistinct() {
+        return sum(scatterGather(Long.MIN_VALUE, Long.MAX_VALUE, "DISTINCT"));
+    }
+
+    /**
+     * Повертає кількість значень у діапазоні [lower, upper].
+     *
+     * @param lower Нижня межа (включно).
+     * @param upper Верхня межа (включно).
+     * @return Кількість значень з повторами.
+     */
+    public synchronized long count(long lower, long upper) {
+        return sum(scatterGather(lower, upper, "COUNT_RANGE " + lower + " " + upper));
+    }
+
+    /**
+     * Повертає впорядковані значення з діапазону [lower, upper].
+     *
+     * @param lower Нижня межа (включно).
+     * @param upper Верхня межа (включно).
+     * @return Впорядковані значення з повторами.
+     */
+    public synchronized long[] range(long lower, long upper) {
+        List<String> responses = scatterGather(lower, upper, "RANGE " + lower + " " + upper);
+        int total = 0;
+        for (String response : responses) {
+            total += Integer.parseInt(firstToken(response));
+        }
+
+        long[] result = new long[total];
+        int position = 0;
+        for (String response : responses) {
+            String[] tokens = response.split(" ");
+            for (int i = 1; i < tokens.length; i++) {
+                result[position++] = Long.parseLong(tokens[i]);
+            }
+        }
+        // частини за діапазоном відповідають у порядку зростання меж; за хешем - потрібне сортування
+        if (partitioning == Partitioning.HASH) {
+            Arrays.sort(result);
+        }
+        return result;
+    }
+
+    public int getPartitionCount() {
+        return workers.size();
+    }
+
+    /**
+     * Зупиняє процеси частин.
+     */
+    @Override
+    public synchronized void close() {
+        for (WorkerConnection worker : workers) {
+            try {
+                worker.send("QUIT");
+            } catch (IOException ioException) {
+                // процес уже завершився - зупиняти нічого
+            }
+        }
+        for (WorkerConnection worker : workers) {
+            try {
+                if (!worker.process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    worker.process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                worker.process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Надсилає запит частинам, чиї межі перетинаються з [lower, upper], і збирає відповіді.
+     */
+    private List<String> scatterGather(long lower, long upper, String request) {
+        List<WorkerConnection> targets = new ArrayList<>();
+        for (WorkerConnection worker : workers) {
+            if (worker.overlaps(lower, upper)) {
+                targets.add(worker);
+            }
+        }
+        List<WorkerConnection> sent = new ArrayList<>(targets.size());
+        RuntimeException failure = null;
+        for (WorkerConnection worker : targets) {
+            try {
+                worker.send(request);
+                sent.add(worker);
+            } catch (IOException ioException) {
+                failure = new UncheckedIOException(ioException);
+                break;
+            }
+        }
+
+        // відповіді читаються з усіх частин, що отримали запит, навіть після помилки однієї з них,
+        // інакше непрочитані відповіді зсунули б усі наступні запити
+        List<String> responses = new ArrayList<>(sent.size());
+        for (WorkerConnection worker : sent) {
+            try {
+                responses.add(worker.receive());
+            } catch (IOException ioException) {
+                failure = failure != null ? failure : new UncheckedIOException(ioException);
+            } catch (IllegalStateException e) {
+                failure = failure != null ? failure : e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return responses;
+    }
+
+    private static long sum(List<String> responses) {
+        long total = 0;
+        for (String response : responses) {
+            total += Long.parseLong(response);
+        }
+        return total;
+    }
+
+    private static String firstToken(String response) {
+        int space = response.indexOf(' ');
+        return space < 0 ? response : response.substring(0, space);
+    }
+
+    /**
+     * Розподіляє short.data між процесами й виконує набір запитів.
+     *
+     * @param args Кількість частин (типово 4) і спосіб поділу range|hash (типово range).
+     */
+    public static void main(String[] args) {
+        int partitionCount = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        Partitioning partitioning = args.length > 1
+                ? Partitioning.valueOf(args[1].toUpperCase())
+                : Partitioning.RANGE;
+
+        long timeStart = PerformanceTracker.startTiming();
+        try (PartitionedDataset dataset = open(BasicDataOperation.PATH_TO_DATA_FILE, partitionCount, partitioning)) {
+            PerformanceTracker.displayOperationTime(timeStart,
+                    "запуск " + partitionCount + " процесів частин (" + partitioning.mode + ")");
+            OutputSink.println("Значень: " + dataset.count() + ", різних: " + dataset.countDistinct());
+
+            timeStart = PerformanceTracker.startTiming();
+            long[] bounds = dataset.minMax();
+            PerformanceTracker.displayOperationTime(timeStart, "пошук мінімуму й максимуму в частинах");
+            if (bounds == null) {
+                OutputSink.println("Набір порожній");
+                OutputSink.flush();
+                return;
+            }
+            OutputSink.println("Мінімум: " + bounds[0] + ", максимум: " + bounds[1]);
+
+            timeStart = PerformanceTracker.startTiming();
+            int found = 0;
+            for (long value = bounds[0]; value <= bounds[1]; value += 97) {
+                if (dataset.contains(value)) {
+                    found++;
+                }
+            }
+            PerformanceTracker.displayOperationTime(timeStart, "пошук значень з кроком 97 у частинах");
+            OutputSink.println("Знайдено значень: " + found);
+
+            long lower = bounds[0] / 2;
+            long upper = lower + (bounds[1] - bounds[0]) / 100;
+            timeStart = PerformanceTracker.startTiming();
+            long[] range = dataset.range(lower, upper);
+            PerformanceTracker.displayOperationTime(timeStart, "вибірка діапазону [" + lower + ", " + upper + "]");
+            OutputSink.println("У діапазоні значень: " + range.length
+                    + " (count: " + dataset.count(lower, upper) + ")");
+        }
+        OutputSink.flush();
+    }
+}
@@ -1,16 +1,179 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+
+import jdk.jfr.EventType;
+
 /**
  * Клас PerformanceTracker відстежує продуктивність операцій з даними.
+ *
+ * <p>Окрім тривалості, для кожної операції, розпочатої через {@link #startTiming()}, фіксуються
+ * байти, виділені поточним потоком (ThreadMXBean.getThreadAllocatedBytes), а також кількість
+ * і сумарний час збирань сміття, що відбулися під час операції.</p>
+ *
+ * <p>Якщо в JVM активний запис Java Flight Recorder з увімкненою подією {@link OperationEvent},
+ * кожна операція додатково публікується як подія JFR зі структурою, кількістю елементів і
+ * результатом. Без активного запису подія не створюється; властивість
+ * {@code -Dperformance.jfr=false} вимикає публікацію повністю.</p>
+ *
+ * <p>Знімки вкладених операцій потоку зберігаються у стеку. Завершення операції знімає зі стеку
+ * її знімок разом з усіма пізнішими, які так і не були завершені, тож покинуті вимірювання
+ * не можуть бути помилково зіставлені з іншою операцією.</p>
  */
 public class PerformanceTracker {
+    private static final int MAX_SNAPSHOT_DEPTH = 64;
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+    private static final List<GarbageCollectorMXBean> GC_BEANS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private static final boolean JFR_ALLOWED = !"false".equalsIgnoreCase(System.getProperty("performance.jfr"));
+    private static final EventType OPERATION_EVENT_TYPE = JFR_ALLOWED ? EventType.getEventType(OperationEvent.class) : null;
+
+    // стек знімків вкладених операцій потоку; вершина - остання розпочата операція
+    private static final ThreadLocal<ArrayDeque<Snapshot>> SNAPSHOTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Стан потоку та GC на початку операції.
+     */
+    private static final class Snapshot {
+        long startTime;
+        long allocatedBytes;
+        long gcCount;
+        long gcTimeMillis;
+        // подія JFR (null, якщо запис JFR не активний)
+        OperationEvent event;
+    }
+
+    /**
+     * Розпочинає вимірювання операції: фіксує час, виділену пам'ять потоку та лічильники GC.
+     *
+     * @return Початковий час операції в наносекундах (для {@link #displayOperationTime(long, String)}).
+     */
+    public static long startTiming() {
+        ArrayDeque<Snapshot> snapshots = SNAPSHOTS.get();
+        if (snapshots.size() == MAX_SNAPSHOT_DEPTH) {
+            // найстаріше незавершене вимірювання відкидається, а не перезаписується
+            snapshots.removeLast();
+        }
+        Snapshot snapshot = new Snapshot();
+        snapshots.push(snapshot);
+
+        // isEnabled() - дешева перевірка; без активного запису подія навіть не створюється
+        if (OPERATION_EVENT_TYPE != null && OPERATION_EVENT_TYPE.isEnabled()) {
+            snapshot.event = new OperationEvent();
+            snapshot.event.begin();
+        }
+
+        snapshot.allocatedBytes = currentThreadAllocatedBytes();
+        snapshot.gcCount = totalGcCount();
+        snapshot.gcTimeMillis = totalGcTimeMillis();
+        // час фіксується останнім, щоб накладні витрати знімка не потрапили у вимірювання
+        snapshot.startTime = System.nanoTime();
+        return snapshot.startTime;
+    }
+
     /**
      * Відображає тривалість виконання операції в наносекундах.
-     * 
+     * Якщо операцію розпочато через {@link #startTiming()}, додатково виводить
+     * виділену пам'ять та активність GC під час операції.
+     *
      * @param startTime Початковий час операції в наносекундах.
      * @param operationName Назва операції.
      */
     public static void displayOperationTime(long startTime, String operationName) {
+        displayOperationTime(startTime, operationName, null, -1, null);
+    }
+
+    /**
+     * Відображає тривалість виконання операції та публікує подію JFR з описом операції.
+     *
+     * @param startTime Початковий час операції в наносекундах.
+     * @param operationName Назва операції.
+     * @param structureType Тип структури даних (наприклад, "PriorityQueue").
+     * @param elementCount Кількість елементів у структурі (-1, якщо невідома).
+     * @param result Результат операції для події JFR (може бути null).
+     */
+    public static void displayOperationTime(long startTime, String operationName, String structureType,
+            long elementCount, Object result) {
         long finishTime = System.nanoTime();
         long executionTime = (finishTime - startTime);
-        System.out.println("\n========= Тривалість операції '" + operationName + "': " + executionTime + " нс =========");
+
+        Snapshot snapshot = popSnapshot(startTime);
+        if (snapshot == null) {
+            OutputSink.println("\n========= Тривалість операції '" + operationName + "': " + executionTime + " нс =========");
+            return;
+        }
+
+        long allocatedBytes = currentThreadAllocatedBytes() - snapshot.allocatedBytes;
+        long gcCount = totalGcCount() - snapshot.gcCount;
+        long gcTimeMillis = totalGcTimeMillis() - snapshot.gcTimeMillis;
+
+        OperationEvent event = snapshot.event;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operationName;
+                event.structure = structureType;
+                event.elementCount = elementCount;
+                event.result = result != null ? String.valueOf(result) : null;
+                event.allocatedBytes = ALLOCATION_BEAN != null ? allocatedBytes : 0;
+                event.commit();
+            }
+        }
+
+        String allocationText = ALLOCATION_BEAN != null ? allocatedBytes + " байт" : "н/д";
+        OutputSink.println("\n========= Тривалість операції '" + operationName + "': " + executionTime + " нс"
+                + " | виділено: " + allocationText
+                + " | GC: " + gcCount + " зб., " + gcTimeMillis + " мс =========");
+    }
+
+    // знімає зі стеку знімок операції разом з пізнішими незавершеними; null, якщо знімка немає
+    private static Snapshot popSnapshot(long startTime) {
+        ArrayDeque<Snapshot> snapshots = SNAPSHOTS.get();
+        int depth = 0;
+        for (Iterator<Snapshot> iterator = snapshots.iterator(); iterator.hasNext(); depth++) {
+            if (iterator.next().startTime == startTime) {
+                for (int i = 0; i < depth; i++) {
+                    snapshots.pop();
+                }
+                return snapshots.pop();
+            }
+        }
+        return null;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+            if (allocationBean.isThreadAllocatedMemorySupported()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+                return allocationBean;
+            }
+        }
+        return null;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return ALLOCATION_BEAN != null ? ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    private static long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gcBean : GC_BEANS) {
+            count += Math.max(0, gcBean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long totalGcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean gcBean : GC_BEANS) {
+            time += Math.max(0, gcBean.getCollectionTime());
+        }
+        return time;
     }
 }
\ No newline at end of file
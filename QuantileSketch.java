@@ -0,0 +1,156 @@
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Клас QuantileSketch наближено обчислює квантилі потоку значень long з обмеженим обсягом пам'яті.
+ *
+ * <p>Ескіз складається з рівнів-компакторів: елемент рівня h має вагу 2^h. Коли рівень
+ * переповнюється, він сортується, і кожен другий елемент (з випадковим зсувом) переходить
+ * на наступний рівень. Пам'ять зростає як O(k log(n / k)), а ранги оцінюються з похибкою
+ * порядку O(1 / k). Ескізи об'єднуються, тому файли можна обробляти частинами.</p>
+ */
+public class QuantileSketch {
+    private final int levelCapacity;
+    private long[][] levels = new long[1][];
+    private int[] levelSizes = new int[1];
+    private long count;
+
+    /**
+     * Створює ескіз з місткістю рівня 256.
+     */
+    QuantileSketch() {
+        this(256);
+    }
+
+    /**
+     * Створює ескіз із заданою місткістю рівня.
+     *
+     * @param levelCapacity Кількість елементів на рівні; більше значення - вища точність.
+     */
+    QuantileSketch(int levelCapacity) {
+        if (levelCapacity < 8) {
+            throw new IllegalArgumentException("Місткість рівня ескізу має бути не менше 8: " + levelCapacity);
+        }
+        this.levelCapacity = levelCapacity;
+        this.levels[0] = new long[levelCapacity];
+    }
+
+    /**
+     * Додає значення до ескізу.
+     *
+     * @param value Значення.
+     */
+    public void add(long value) {
+        append(0, value);
+        count++;
+        if (levelSizes[0] == levelCapacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Об'єднує інший ескіз з поточним.
+     *
+     * @param other Ескіз для об'єднання.
+     * @return Поточний ескіз.
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.levelSizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        count += other.count;
+        compress();
+        return this;
+    }
+
+    /**
+     * Повертає кількість доданих значень.
+     *
+     * @return Кількість значень.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Повертає наближене значення квантиля.
+     *
+     * @param fraction Частка в межах [0, 1], наприклад 0.99 для p99.
+     * @return Наближене значення квантиля.
+     * @throws IllegalStateException якщо ескіз порожній.
+     */
+    public long quantile(double fraction) {
+        if (count == 0) {
+            throw new IllegalStateException("Ескіз квантилів порожній.");
+        }
+
+        int retained = 0;
+        for (int size : levelSizes) {
+            retained += size;
+        }
+
+        // збираємо збережені елементи з вагами і сортуємо за значенням
+        long[] values = new long[retained];
+        long[] weights = new long[retained];
+        int position = 0;
+        long totalWeight = 0;
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < levelSizes[level]; i++) {
+                values[position] = levels[level][i];
+                weights[position++] = 1L << level;
+            }
+            totalWeight += (long) levelSizes[level] << level;
+        }
+        Integer[] order = new Integer[retained];
+        for (int i = 0; i < retained; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(values[a], values[b]));
+
+        double target = Math.max(0, Math.min(1, fraction)) * totalWeight;
+        long cumulative = 0;
+        for (Integer index : order) {
+            cumulative += weights[index];
+            if (cumulative >= target) {
+                return values[index];
+            }
+        }
+        return values[order[retained - 1]];
+    }
+
+    private void append(int level, long value) {
+        if (level >= levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            levelSizes = Arrays.copyOf(levelSizes, level + 1);
+        }
+        if (levels[level] == null) {
+            levels[level] = new long[levelCapacity];
+        }
+        if (levelSizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][levelSizes[level]++] = value;
+    }
+
+    // ущільнює кожен переповнений рівень, переносячи половину елементів на рівень вище
+    private void compress() {
+        for (int level = 0; level < levels.length; level++) {
+            int size = levelSizes[level];
+            if (size < levelCapacity) {
+                continue;
+            }
+            long[] buffer = levels[level];
+            Arrays.sort(buffer, 0, size);
+
+            // при непарному розмірі найменший елемент лишається на поточному рівні, щоб не втратити вагу
+            int kept = size & 1;
+            int offset = ThreadLocalRandom.current().nextInt(2);
+            for (int i = kept + offset; i < size; i += 2) {
+                append(level + 1, buffer[i]);
+            }
+            levelSizes[level] = kept;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Клас QueueThroughputHarness вимірює пропускну здатність черг з пріоритетами
+ * за кількох виробників і споживачів.
+ *
+ * <p>Для кожної кількості потоків (2, 4, 8, ... до заданої, щоб був хоча б один виробник і один
+ * споживач) половина потоків додає значення, інша половина вилучає їх, доки не буде вилучено
+ * всі додані елементи. Порівнюються
+ * {@link ConcurrentShortPriorityQueue} та {@link PriorityBlockingQueue}; результат -
+ * кількість операцій offer + poll за секунду.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java QueueThroughputHarness 8 200000
+ * }
+ * </pre>
+ */
+public class QueueThroughputHarness {
+
+    /**
+     * Спільний інтерфейс черг, що порівнюються.
+     */
+    interface ShortQueue {
+        void offer(short value);
+
+        Short poll();
+    }
+
+    /**
+     * Вимірює пропускну здатність черги.
+     *
+     * @param queue Черга.
+     * @param producers Кількість виробників.
+     * @param consumers Кількість споживачів.
+     * @param valuesPerProducer Кількість значень, що додає кожен виробник.
+     * @return Кількість операцій (offer + poll) за секунду.
+     */
+    static double measure(ShortQueue queue, int producers, int consumers, int valuesPerProducer) {
+        short[][] workloads = new short[producers][valuesPerProducer];
+        Random random = new Random(42);
+        for (short[] workload : workloads) {
+            for (int i = 0; i < workload.length; i++) {
+                workload[i] = (short) random.nextInt();
+            }
+        }
+
+        long totalValues = (long) producers * valuesPerProducer;
+        AtomicLong consumed = new AtomicLong();
+        CountDownLatch startGate = new CountDownLatch(1);
+        Thread[] threads = new Thread[producers + consumers];
+
+        for (int p = 0; p < producers; p++) {
+            short[] workload = workloads[p];
+            threads[p] = new Thread(() -> {
+                awaitQuietly(startGate);
+                for (short value : workload) {
+                    queue.offer(value);
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads[producers + c] = new Thread(() -> {
+                awaitQuietly(startGate);
+                while (consumed.get() < totalValues) {
+                    if (queue.poll() != null) {
+                        consumed.incrementAndGet();
+                    } else {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        long timeStart = System.nanoTime();
+        startGate.countDown();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Вимірювання перервано", e);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - timeStart;
+        return 2.0 * totalValues / (elapsedNanos / 1e9);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ShortQueue bucketedQueue() {
+        ConcurrentShortPriorityQueue queue = new ConcurrentShortPriorityQueue();
+        return new ShortQueue() {
+            public void offer(short value) {
+                queue.offer(value);
+            }
+
+            public Short poll() {
+                return queue.poll();
+            }
+        };
+    }
+
+    private static ShortQueue blockingQueue() {
+        PriorityBlockingQueue<Short> queue = new PriorityBlockingQueue<>();
+        return new ShortQueue() {
+            public void offer(short value) {
+                queue.offer(value);
+            }
+
+            public Short poll() {
+                return queue.poll();
+            }
+        };
+    }
+
+    /**
+     * Запускає порівняння для зростаючої кількості потоків.
+     *
+     * @param args Максимальна кількість потоків (типово 8) і кількість значень на виробника (типово 200000).
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int valuesPerProducer = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        OutputSink.println("Процесорів: " + Runtime.getRuntime().availableProcessors()
+                + ", значень на виробника: " + valuesPerProducer);
+        OutputSink.println(String.format("%-8s %-12s %-12s %22s %22s", "потоків", "виробників", "споживачів",
+                "ConcurrentShortPQ оп/с", "PriorityBlockingQ оп/с"));
+
+        // прогрів, щоб JIT скомпілював обидві реалізації
+        measure(bucketedQueue(), 1, 1, valuesPerProducer / 4);
+        measure(blockingQueue(), 1, 1, valuesPerProducer / 4);
+
+        for (int threads = 2; threads <= Math.max(2, maxThreads); threads *= 2) {
+            int producers = threads / 2;
+            int consumers = threads - producers;
+            double bucketed = measure(bucketedQueue(), producers, consumers, valuesPerProducer);
+            double blocking = measure(blockingQueue(), producers, consumers, valuesPerProducer);
+            OutputSink.println(String.format("%-8d %-12d %-12d %22.0f %22.0f", threads, producers, consumers, bucketed, blocking));
+        }
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,202 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Клас RadixSort упорядковує масиви float і double порозрядним сортуванням (LSD radix sort).
+ *
+ * <p>Кожне значення перетворюється на беззнаковий ключ: для додатних чисел інвертується
+ * знаковий біт, для від'ємних - усі біти (перетворення IEEE-754 зі зміною знаку). Порядок
+ * ключів збігається з {@link Arrays#sort(double[])}: -0.0 йде перед 0.0, а NaN
+ * (приведений до канонічного значення) - після +Infinity.</p>
+ *
+ * <p>Сортування виконує фіксовану кількість лінійних проходів по 8 біт (4 для float, 8 для double)
+ * замість O(n log n) порівнянь; проходи, в яких усі ключі мають однаковий розряд, пропускаються.
+ * Паралельний варіант будує гістограми і розкладає частини масиву в кількох потоках.</p>
+ *
+ * <p>Методи класу:</p>
+ * <ul>
+ *   <li>{@link #sort(float[])}, {@link #sort(double[])} - Послідовне сортування.</li>
+ *   <li>{@link #parallelSort(float[])}, {@link #parallelSort(double[])} - Паралельне сортування.</li>
+ * </ul>
+ */
+public class RadixSort {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private RadixSort() {
+    }
+
+    public static void sort(float[] values) {
+        sortFloats(values, false);
+    }
+
+    public static void parallelSort(float[] values) {
+        sortFloats(values, values.length >= PARALLEL_THRESHOLD);
+    }
+
+    public static void sort(double[] values) {
+        sortDoubles(values, false);
+    }
+
+    public static void parallelSort(double[] values) {
+        sortDoubles(values, values.length >= PARALLEL_THRESHOLD);
+    }
+
+    private static void sortFloats(float[] values, boolean parallel) {
+        long[] keys = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            int bits = Float.floatToIntBits(values[i]);
+            keys[i] = (bits ^ ((bits >> 31) | Integer.MIN_VALUE)) & 0xFFFFFFFFL;
+        }
+
+        sortUnsignedKeys(keys, Float.BYTES, parallel);
+
+        for (int i = 0; i < values.length; i++) {
+            int key = (int) keys[i];
+            values[i] = Float.intBitsToFloat(key ^ ((~key >> 31) | Integer.MIN_VALUE));
+        }
+    }
+
+    private static void sortDoubles(double[] values, boolean parallel) {
+        long[] keys = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            long bits = Double.doubleToLongBits(values[i]);
+            keys[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        }
+
+        sortUnsignedKeys(keys, Double.BYTES, parallel);
+
+        for (int i = 0; i < values.length; i++) {
+            long key = keys[i];
+            values[i] = Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+        }
+    }
+
+    /**
+     * Упорядковує беззнакові ключі за молодшими keyBytes байтами.
+     *
+     * @param keys Ключі для сортування (результат записується в цей же масив).
+     * @param keyBytes Кількість значущих байтів ключа.
+     * @param parallel Чи розподіляти проходи між потоками.
+     */
+    static void sortUnsignedKeys(long[] keys, int keyBytes, boolean parallel) {
+        int length = keys.length;
+        if (length < 2) {
+            return;
+        }
+
+        int chunkCount = parallel ? Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), length / (PARALLEL_THRESHOLD / 4))) : 1;
+        int chunkSize = (length + chunkCount - 1) / chunkCount;
+        int[][] histograms = new int[chunkCount][RADIX];
+
+        long[] source = keys;
+        long[] target = new long[length];
+
+        for (int pass = 0; pass < keyBytes; pass++) {
+            int shift = pass * RADIX_BITS;
+            long[] passSource = source;
+
+            // гістограма розрядів для кожної частини масиву
+            forEachChunk(chunkCount, chunk -> {
+                int[] histogram = histograms[chunk];
+                Arrays.fill(histogram, 0);
+                int end = Math.min(length, (chunk + 1) * chunkSize);
+                for (int i = chunk * chunkSize; i < end; i++) {
+                    histogram[(int) (passSource[i] >>> shift) & (RADIX - 1)]++;
+                }
+            });
+
+            // якщо всі ключі мають однаковий розряд, прохід нічого не змінює
+            if (isSingleDigit(histograms, length)) {
+                continue;
+            }
+
+            // початкові позиції: спочатку за розрядом, всередині розряду - за номером частини
+            int position = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    int count = histograms[chunk][digit];
+                    histograms[chunk][digit] = position;
+                    position += count;
+                }
+            }
+
+            long[] passTarget = target;
+            forEachChunk(chunkCount, chunk -> {
+                int[] offsets = histograms[chunk];
+                int end = Math.min(length, (chunk + 1) * chunkSize);
+                for (int i = chunk * chunkSize; i < end; i++) {
+                    long key = passSource[i];
+                    passTarget[offsets[(int) (key >>> shift) & (RADIX - 1)]++] = key;
+                }
+            });
+
+            target = source;
+            source = passTarget;
+        }
+
+        if (source != keys) {
+            System.arraycopy(source, 0, keys, 0, length);
+        }
+    }
+
+    private static boolean isSingleDigit(int[][] histograms, int length) {
+        for (int digit = 0; digit < RADIX; digit++) {
+            int total = 0;
+            for (int[] histogram : histograms) {
+                total += histogram[digit];
+            }
+            if (total == length) {
+                return true;
+            }
+            if (total > 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static void forEachChunk(int chunkCount, IntConsumer action) {
+        if (chunkCount == 1) {
+            action.accept(0);
+        } else {
+            IntStream.range(0, chunkCount).parallel().forEach(action);
+        }
+    }
+
+    /**
+     * Упорядковує list/double.data та list/float.data і порівнює з Arrays.sort.
+     *
+     * @param args Аргументи командного рядка (не використовуються).
+     */
+    public static void main(String[] args) {
+        double[] doubleArray = DataFileHandler.loadDoubleArrayFromFile("list/double.data");
+        double[] doubleCopy = doubleArray.clone();
+
+        long timeStart = PerformanceTracker.startTiming();
+        sort(doubleArray);
+        PerformanceTracker.displayOperationTime(timeStart, "порозрядне сортування масиву double");
+
+        timeStart = PerformanceTracker.startTiming();
+        Arrays.sort(doubleCopy);
+        PerformanceTracker.displayOperationTime(timeStart, "упорядкування масиву double через Arrays.sort");
+
+        OutputSink.println("Результати для double збігаються: " + Arrays.equals(doubleArray, doubleCopy));
+
+        float[] floatArray = DataFileHandler.loadFloatArrayFromFile("list/float.data");
+        float[] floatCopy = floatArray.clone();
+
+        timeStart = PerformanceTracker.startTiming();
+        sort(floatArray);
+        PerformanceTracker.displayOperationTime(timeStart, "порозрядне сортування масиву float");
+
+        timeStart = PerformanceTracker.startTiming();
+        Arrays.sort(floatCopy);
+        PerformanceTracker.displayOperationTime(timeStart, "упорядкування масиву float через Arrays.sort");
+
+        OutputSink.println("Результати для float збігаються: " + Arrays.equals(floatArray, floatCopy));
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,432 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Клас ShardMerger зливає кілька окремо впорядкованих файлів-шардів (формат {@code list/*.data},
+ * одне значення в рядку) в один впорядкований файл без повторного сортування.
+ *
+ * <p>Злиття потокове: з кожного шарда читається лише буфер фіксованого розміру, а найменше поточне
+ * значення обирається турнірним деревом переможених (loser tree), тому кожне вихідне значення
+ * коштує ⌈log2 k⌉ порівнянь, а пам'ять обмежена k буферами незалежно від обсягу даних.
+ * Результат записується через {@link DataFileHandler.AtomicValueWriter}, тож вихідний файл
+ * з'являється атомарно й лише після успішного злиття.</p>
+ *
+ * <p>Паралельний режим ділить шарди на групи; кожна група зливається окремим потоком і передає
+ * результат порціями через обмежену чергу в завершальне злиття, без проміжних файлів.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java ShardMerger list/short.merged.sorted shards/short-0.data shards/short-1.data --unique --parallel=2
+ * }
+ * </pre>
+ */
+public class ShardMerger {
+    static final int READ_BUFFER_SIZE = 64 * 1024;
+    static final int CHUNK_SIZE = 4096;
+    static final int PIPE_CAPACITY = 4;
+
+    private static final long[] END_OF_STREAM = new long[0];
+    private static final String USAGE_MESSAGE =
+            "Використання: java ShardMerger <вихідний-файл> <шард1> [шард2 ...] [--unique] [--parallel=N]";
+
+    /**
+     * Джерело впорядкованих значень для турнірного дерева.
+     */
+    interface SortedSource extends AutoCloseable {
+        /**
+         * Переходить до наступного значення.
+         *
+         * @return false, якщо значення вичерпано.
+         */
+        boolean advance() throws IOException;
+
+        long current();
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Джерело, що читає шард і перевіряє його впорядкованість.
+     */
+    private static final class ShardSource implements SortedSource {
+        private final DataFileHandler.ValueReader reader;
+        private boolean started;
+        private long current;
+
+        ShardSource(String filePath) throws IOException {
+            this.reader = new DataFileHandler.ValueReader(filePath, READ_BUFFER_SIZE);
+        }
+
+        @Override
+        public boolean advance() throws IOException {
+            if (!reader.next()) {
+                return false;
+            }
+            long value = reader.value();
+            if (started && value < current) {
+                throw new IllegalArgumentException("Шард не впорядкований: " + reader.getFilePath()
+                        + " (" + value + " після " + current + ")");
+            }
+            started = true;
+            current = value;
+            return true;
+        }
+
+        @Override
+        public long current() {
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Джерело, що отримує порції значень від потоку, який зливає групу шардів.
+     */
+    private static final class PipeSource implements SortedSource {
+        private final BlockingQueue<long[]> pipe;
+        private final Thread producer;
+        private final Throwable[] failure;
+        private long[] chunk = END_OF_STREAM;
+        private int position;
+        private boolean finished;
+
+        PipeSource(BlockingQueue<long[]> pipe, Thread producer, Throwable[] failure) {
+            this.pipe = pipe;
+            this.producer = producer;
+            this.failure = failure;
+        }
+
+        @Override
+        public boolean advance() throws IOException {
+            while (position + 1 >= chunk.length) {
+                if (finished) {
+                    return false;
+                }
+                long[] next;
+                try {
+                    next = pipe.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Злиття перервано", e);
+                }
+                if (next == END_OF_STREAM) {
+                    finished = true;
+                    rethrowFailure();
+                    return false;
+                }
+                chunk = next;
+                position = -1;
+            }
+            position++;
+            return true;
+        }
+
+        @Override
+        public long current() {
+            return chunk[position];
+        }
+
+        @Override
+        public void close() throws IOException {
+            producer.interrupt();
+            try {
+                producer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void rethrowFailure() throws IOException {
+            Throwable cause = failure[0];
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause != null) {
+                throw new IOException("Злиття групи шардів завершилося з помилкою", cause);
+            }
+        }
+    }
+
+    /**
+     * Турнірне дерево переможених над k джерелами.
+     *
+     * <p>Внутрішні вузли 1..k-1 зберігають індекс джерела, що програло у відповідному матчі,
+     * {@code tree[0]} - загальний переможець. Після вилучення значення переграються лише матчі
+     * на шляху від листа переможця до кореня.</p>
+     */
+    private static final class LoserTree {
+        private final SortedSource[] sources;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private final int k;
+
+        LoserTree(SortedSource[] sources) throws IOException {
+            this.sources = sources;
+            this.k = sources.length;
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(1, k)];
+            for (int i = 0; i < k; i++) {
+                exhausted[i] = !sources[i].advance();
+            }
+
+            int[] winners = new int[2 * k];
+            for (int i = 0; i < k; i++) {
+                winners[k + i] = i;
+            }
+            for (int node = k - 1; node >= 1; node--) {
+                int left = winners[2 * node];
+                int right = winners[2 * node + 1];
+                boolean leftWins = beats(left, right);
+                winners[node] = leftWins ? left : right;
+                tree[node] = leftWins ? right : left;
+            }
+            tree[0] = k > 1 ? winners[1] : 0;
+        }
+
+        boolean isEmpty() {
+            return k == 0 || exhausted[tree[0]];
+        }
+
+        /**
+         * Вилучає найменше значення. Викликати лише якщо {@link #isEmpty()} повертає false.
+         */
+        long poll() throws IOException {
+            int winner = tree[0];
+            long value = sources[winner].current();
+            exhausted[winner] = !sources[winner].advance();
+
+            for (int node = (winner + k) >>> 1; node >= 1; node >>>= 1) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+            return value;
+        }
+
+        // вичерпане джерело програє всім; за рівних значень перемагає менший індекс (стабільність)
+        private boolean beats(int a, int b) {
+            if (exhausted[a] || exhausted[b]) {
+                return !exhausted[a] && (exhausted[b] || a < b);
+            }
+            long valueA = sources[a].current();
+            long valueB = sources[b].current();
+            return valueA < valueB || (valueA == valueB && a < b);
+        }
+    }
+
+    /**
+     * Приймач злитих значень.
+     */
+    private interface MergeSink {
+        void accept(long value) throws IOException;
+    }
+
+    /**
+     * Зливає впорядковані шарди в один впорядкований файл.
+     *
+     * @param shardPaths Шляхи до шардів; кожен має бути впорядкований за зростанням.
+     * @param outputPath Шлях до вихідного файлу.
+     * @param unique Чи вилучати повтори.
+     * @return Кількість записаних значень.
+     * @throws IllegalArgumentException якщо шард не впорядкований.
+     * @throws UncheckedIOException якщо читання або запис не вдалися.
+     */
+    public static long merge(List<String> shardPaths, String outputPath, boolean unique) {
+        return merge(shardPaths, outputPath, unique, 1);
+    }
+
+    /**
+     * Зливає впорядковані шарди в один впорядкований файл, за потреби паралельно.
+     *
+     * @param shardPaths Шляхи до шардів; кожен має бути впорядкований за зростанням.
+     * @param outputPath Шлях до вихідного файлу.
+     * @param unique Чи вилучати повтори.
+     * @param parallelism Кількість груп, що зливаються паралельно (1 - послідовне злиття).
+     * @return Кількість записаних значень.
+     * @throws IllegalArgumentException якщо шард не впорядкований або parallelism менше 1.
+     * @throws UncheckedIOException якщо читання або запис не вдалися.
+     */
+    public static long merge(List<String> shardPaths, String outputPath, boolean unique, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Кількість груп має бути додатною: " + parallelism);
+        }
+        int groupCount = Math.min(parallelism, shardPaths.size());
+        List<SortedSource> sources = new ArrayList<>();
+        try (DataFileHandler.AtomicValueWriter valueWriter = new DataFileHandler.AtomicValueWriter(Path.of(outputPath))) {
+            try {
+                if (groupCount > 1) {
+                    for (List<String> group : partition(shardPaths, groupCount)) {
+                        sources.add(startGroupMerge(group, unique));
+                    }
+                } else {
+                    openShards(shardPaths, sources);
+                }
+                long written = mergeSources(sources, unique, valueWriter::write);
+                valueWriter.commit();
+                return written;
+            } finally {
+                closeAll(sources);
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    private static long mergeSources(List<SortedSource> sources, boolean unique, MergeSink sink) throws IOException {
+        LoserTree loserTree = new LoserTree(sources.toArray(new SortedSource[0]));
+        long written = 0;
+        long previous = 0;
+        while (!loserTree.isEmpty()) {
+            long value = loserTree.poll();
+            if (unique && written > 0 && value == previous) {
+                continue;
+            }
+            sink.accept(value);
+            previous = value;
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Запускає потік, що зливає групу шардів і передає результат порціями через обмежену чергу.
+     */
+    private static SortedSource startGroupMerge(List<String> group, boolean unique) {
+        BlockingQueue<long[]> pipe = new ArrayBlockingQueue<>(PIPE_CAPACITY);
+        Throwable[] failure = new Throwable[1];
+        Thread producer = new Thread(() -> {
+            List<SortedSource> sources = new ArrayList<>();
+            long[][] chunk = {new long[CHUNK_SIZE]};
+            int[] filled = {0};
+            try {
+                openShards(group, sources);
+                mergeSources(sources, unique, value -> {
+                    chunk[0][filled[0]++] = value;
+                    if (filled[0] == CHUNK_SIZE) {
+                        putChunk(pipe, chunk[0]);
+                        chunk[0] = new long[CHUNK_SIZE];
+                        filled[0] = 0;
+                    }
+                });
+                if (filled[0] > 0) {
+                    putChunk(pipe, Arrays.copyOf(chunk[0], filled[0]));
+                }
+            } catch (Throwable throwable) {
+                failure[0] = throwable;
+            } finally {
+                try {
+                    closeAll(sources);
+                } catch (IOException ioException) {
+                    if (failure[0] == null) {
+                        failure[0] = ioException;
+                    }
+                }
+                try {
+                    // запис failure[0] видимий споживачу завдяки happens-before черги
+                    pipe.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "shard-merge-" + group.get(0));
+        producer.setDaemon(true);
+        producer.start();
+        return new PipeSource(pipe, producer, failure);
+    }
+
+    private static void putChunk(BlockingQueue<long[]> pipe, long[] chunk) throws IOException {
+        try {
+            pipe.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Злиття групи шардів перервано", e);
+        }
+    }
+
+    private static void openShards(List<String> shardPaths, List<SortedSource> sources) throws IOException {
+        for (String shardPath : shardPaths) {
+            sources.add(new ShardSource(shardPath));
+        }
+    }
+
+    private static void closeAll(List<SortedSource> sources) throws IOException {
+        IOException firstFailure = null;
+        for (SortedSource source : sources) {
+            try {
+                source.close();
+            } catch (IOException ioException) {
+                if (firstFailure == null) {
+                    firstFailure = ioException;
+                }
+            }
+        }
+        if (firstFailure != null) {
+            throw firstFailure;
+        }
+    }
+
+    /**
+     * Ділить шарди на групи, що відрізняються розміром не більше ніж на один шард.
+     */
+    private static List<List<String>> partition(List<String> shardPaths, int groupCount) {
+        List<List<String>> groups = new ArrayList<>();
+        int start = 0;
+        for (int g = 0; g < groupCount; g++) {
+            int end = start + (shardPaths.size() - start) / (groupCount - g);
+            groups.add(new ArrayList<>(shardPaths.subList(start, end)));
+            start = end;
+        }
+        return groups;
+    }
+
+    /**
+     * Зливає шарди, передані в аргументах командного рядка.
+     *
+     * @param args Вихідний файл, шарди та необов'язкові прапорці --unique і --parallel=N.
+     */
+    public static void main(String[] args) {
+        List<String> paths = new ArrayList<>();
+        boolean unique = false;
+        int parallelism = 1;
+        for (String arg : args) {
+            if (arg.equals("--unique")) {
+                unique = true;
+            } else if (arg.startsWith("--parallel=")) {
+                parallelism = Integer.parseInt(arg.substring("--parallel=".length()));
+            } else {
+                paths.add(arg);
+            }
+        }
+        if (paths.size() < 2) {
+            OutputSink.println(USAGE_MESSAGE);
+            OutputSink.flush();
+            return;
+        }
+
+        String outputPath = paths.get(0);
+        List<String> shardPaths = paths.subList(1, paths.size());
+        long timeStart = PerformanceTracker.startTiming();
+        long written = merge(shardPaths, outputPath, unique, parallelism);
+        PerformanceTracker.displayOperationTime(timeStart, "злиття " + shardPaths.size() + " шардів у " + outputPath);
+        OutputSink.println("Записано значень: " + written + (unique ? " (без повторів)" : ""));
+        OutputSink.flush();
+    }
+}
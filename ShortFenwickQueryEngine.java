@@ -0,0 +1,138 @@
+/**
+ * Клас ShortFenwickQueryEngine реалізує запити діапазонів, рангу та перцентилів
+ * на дереві Фенвіка, що підтримує додавання і видалення значень.
+ *
+ * <p>Оновлення та всі запити виконуються за O(log 65 536), тому рушій підходить
+ * для змінних даних, наприклад для черги, з якої вибираються елементи.</p>
+ *
+ * <p>Методи класу:</p>
+ * <ul>
+ *   <li>{@link #add(short)} - Додає значення.</li>
+ *   <li>{@link #remove(short)} - Видаляє одне входження значення.</li>
+ *   <li>{@link #count(short)} - Кількість входжень значення.</li>
+ * </ul>
+ */
+public class ShortFenwickQueryEngine implements ShortQueryEngine {
+    // дерево Фенвіка з індексацією від одиниці
+    private final long[] tree = new long[DOMAIN_SIZE + 1];
+    private final int[] counts = new int[DOMAIN_SIZE];
+    private long totalCount;
+
+    /**
+     * Створює порожній рушій запитів.
+     */
+    ShortFenwickQueryEngine() {
+    }
+
+    /**
+     * Будує рушій запитів з масиву об'єктів short за лінійний час.
+     *
+     * @param shortArray Масив short.
+     */
+    ShortFenwickQueryEngine(Short[] shortArray) {
+        for (Short value : shortArray) {
+            counts[ShortQueryEngine.indexOf(value)]++;
+        }
+        totalCount = shortArray.length;
+
+        // лінійна побудова: кожен вузол передає свою суму безпосередньому батьку
+        for (int i = 1; i <= DOMAIN_SIZE; i++) {
+            tree[i] += counts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= DOMAIN_SIZE) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Додає одне входження значення.
+     *
+     * @param value Значення для додавання.
+     */
+    public void add(short value) {
+        int index = ShortQueryEngine.indexOf(value);
+        counts[index]++;
+        totalCount++;
+        update(index + 1, 1);
+    }
+
+    /**
+     * Видаляє одне входження значення.
+     *
+     * @param value Значення для видалення.
+     * @return true, якщо значення було присутнє і його видалено.
+     */
+    public boolean remove(short value) {
+        int index = ShortQueryEngine.indexOf(value);
+        if (counts[index] == 0) {
+            return false;
+        }
+        counts[index]--;
+        totalCount--;
+        update(index + 1, -1);
+        return true;
+    }
+
+    /**
+     * Повертає кількість входжень значення.
+     *
+     * @param value Значення.
+     * @return Кількість входжень.
+     */
+    public int count(short value) {
+        return counts[ShortQueryEngine.indexOf(value)];
+    }
+
+    @Override
+    public long size() {
+        return totalCount;
+    }
+
+    @Override
+    public long countInRange(short from, short to) {
+        if (from > to) {
+            return 0;
+        }
+        return prefixSum(ShortQueryEngine.indexOf(to) + 1) - prefixSum(ShortQueryEngine.indexOf(from));
+    }
+
+    @Override
+    public long rank(short value) {
+        return prefixSum(ShortQueryEngine.indexOf(value));
+    }
+
+    @Override
+    public short select(long k) {
+        if (k < 0 || k >= totalCount) {
+            throw new IndexOutOfBoundsException("Позиція " + k + " поза межами [0, " + totalCount + ")");
+        }
+
+        // спуск по дереву: знаходимо найбільшу позицію з префіксною сумою <= k
+        int position = 0;
+        long remaining = k;
+        for (int step = DOMAIN_SIZE; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= DOMAIN_SIZE && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return ShortQueryEngine.valueAt(position);
+    }
+
+    private void update(int position, long delta) {
+        for (int i = position; i <= DOMAIN_SIZE; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // сума лічильників для індексів гістограми [0, length)
+    private long prefixSum(int length) {
+        long sum = 0;
+        for (int i = length; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
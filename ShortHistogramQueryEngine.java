@@ -0,0 +1,79 @@
+/**
+ * Клас ShortHistogramQueryEngine відповідає на запити діапазонів, рангу та перцентилів
+ * за допомогою префіксних сум гістограми short.
+ *
+ * <p>Структура незмінна: побудова займає O(n + 65 536), запити countInRange та rank
+ * виконуються за O(1), select та percentile - за O(log 65 536).</p>
+ */
+public class ShortHistogramQueryEngine implements ShortQueryEngine {
+    // prefixCounts[i] - кількість значень з індексом гістограми, меншим за i
+    private final long[] prefixCounts = new long[DOMAIN_SIZE + 1];
+
+    /**
+     * Будує рушій запитів з масиву об'єктів short.
+     *
+     * @param shortArray Масив short.
+     */
+    ShortHistogramQueryEngine(Short[] shortArray) {
+        for (Short value : shortArray) {
+            prefixCounts[ShortQueryEngine.indexOf(value) + 1]++;
+        }
+        accumulate();
+    }
+
+    /**
+     * Будує рушій запитів з примітивного масиву short.
+     *
+     * @param values Масив значень short.
+     */
+    ShortHistogramQueryEngine(short[] values) {
+        for (short value : values) {
+            prefixCounts[ShortQueryEngine.indexOf(value) + 1]++;
+        }
+        accumulate();
+    }
+
+    private void accumulate() {
+        for (int i = 1; i <= DOMAIN_SIZE; i++) {
+            prefixCounts[i] += prefixCounts[i - 1];
+        }
+    }
+
+    @Override
+    public long size() {
+        return prefixCounts[DOMAIN_SIZE];
+    }
+
+    @Override
+    public long countInRange(short from, short to) {
+        if (from > to) {
+            return 0;
+        }
+        return prefixCounts[ShortQueryEngine.indexOf(to) + 1] - prefixCounts[ShortQueryEngine.indexOf(from)];
+    }
+
+    @Override
+    public long rank(short value) {
+        return prefixCounts[ShortQueryEngine.indexOf(value)];
+    }
+
+    @Override
+    public short select(long k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("Позиція " + k + " поза межами [0, " + size() + ")");
+        }
+
+        // шукаємо найменший індекс i, для якого prefixCounts[i + 1] > k
+        int low = 0;
+        int high = DOMAIN_SIZE - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prefixCounts[middle + 1] > k) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return ShortQueryEngine.valueAt(low);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Інтерфейс ShortQueryEngine описує запити порядкової статистики над даними short.
+ *
+ * <p>Усі реалізації працюють з гістограмою по всьому домену short (65 536 значень),
+ * тому відповідають на запити без сортування та перебору вихідних даних.</p>
+ *
+ * <p>Методи інтерфейсу:</p>
+ * <ul>
+ *   <li>{@link #size()} - Загальна кількість значень.</li>
+ *   <li>{@link #countInRange(short, short)} - Кількість значень у діапазоні [a, b].</li>
+ *   <li>{@link #rank(short)} - Кількість значень, строго менших за x.</li>
+ *   <li>{@link #select(long)} - k-те найменше значення (k від нуля).</li>
+ *   <li>{@link #percentile(double)} - Значення заданого перцентиля.</li>
+ * </ul>
+ */
+public interface ShortQueryEngine {
+    /** Кількість різних значень у домені short. */
+    int DOMAIN_SIZE = 1 << 16;
+
+    /**
+     * Повертає загальну кількість значень.
+     *
+     * @return Кількість значень з урахуванням повторів.
+     */
+    long size();
+
+    /**
+     * Підраховує значення, що потрапляють у діапазон [from, to] включно.
+     *
+     * @param from Нижня межа діапазону.
+     * @param to Верхня межа діапазону.
+     * @return Кількість значень у діапазоні; 0, якщо from більше за to.
+     */
+    long countInRange(short from, short to);
+
+    /**
+     * Повертає ранг значення - кількість елементів, строго менших за нього.
+     *
+     * @param value Значення для визначення рангу.
+     * @return Ранг значення.
+     */
+    long rank(short value);
+
+    /**
+     * Повертає k-те найменше значення (k починається з нуля).
+     *
+     * @param k Порядковий номер значення.
+     * @return Значення на позиції k у відсортованому порядку.
+     * @throws IndexOutOfBoundsException якщо k поза межами [0, size()).
+     */
+    short select(long k);
+
+    /**
+     * Повертає значення заданого перцентиля за методом найближчого рангу.
+     *
+     * @param percent Перцентиль у межах [0, 100].
+     * @return Значення перцентиля.
+     * @throws IllegalArgumentException якщо перцентиль поза межами або даних немає.
+     */
+    default short percentile(double percent) {
+        if (percent < 0 || percent > 100 || Double.isNaN(percent)) {
+            throw new IllegalArgumentException("Перцентиль має бути в межах [0, 100]: " + percent);
+        }
+        long count = size();
+        if (count == 0) {
+            throw new IllegalArgumentException("Неможливо обчислити перцентиль для порожніх даних.");
+        }
+        long k = (long) Math.ceil(percent / 100.0 * count) - 1;
+        return select(Math.max(0, Math.min(count - 1, k)));
+    }
+
+    /**
+     * Перетворює значення short в індекс гістограми [0, 65535].
+     *
+     * @param value Значення short.
+     * @return Індекс у гістограмі.
+     */
+    static int indexOf(short value) {
+        return value - Short.MIN_VALUE;
+    }
+
+    /**
+     * Перетворює індекс гістограми назад у значення short.
+     *
+     * @param index Індекс у гістограмі.
+     * @return Значення short.
+     */
+    static short valueAt(int index) {
+        return (short) (index + Short.MIN_VALUE);
+    }
+}
@@ -0,0 +1,225 @@
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Клас SortedShortRun - один раз впорядкована послідовність значень short, з якої структури
+ * даних будуються за лінійний час.
+ *
+ * <p>Значення сортуються як примітиви ({@link Arrays#parallelSort(short[])} для великих масивів;
+ * для short JDK використовує сортування підрахунком), а кожне різне значення упаковується
+ * в об'єкт Short лише один раз - повтори посилаються на той самий об'єкт. Після цього:</p>
+ * <ul>
+ *   <li>{@link #toTreeSet()} передає в {@link TreeSet} впорядкований вид {@link SortedSet}, тож дерево
+ *       будується за O(n) без порівнянь і перебалансувань замість n вставок по O(log n);</li>
+ *   <li>{@link #toPriorityQueue()} - впорядкований масив уже є купою, тож упорядкування купи
+ *       лише перевіряє вузли без жодного переміщення;</li>
+ *   <li>{@link #searchIndex()} - індекс Ейтцінгера для бінарного пошуку, спільний для всіх обробників.</li>
+ * </ul>
+ *
+ * <p>Один екземпляр можна передати кільком обробникам, щоб дані сортувалися лише один раз.</p>
+ */
+public class SortedShortRun {
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final short[] values;
+    private final Short[] boxed;
+    private final Short[] distinct;
+    private EytzingerIndex.OfShort searchIndex;
+
+    private SortedShortRun(short[] values) {
+        this.values = values;
+        this.boxed = new Short[values.length];
+        int distinctCount = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                distinctCount++;
+            }
+        }
+        this.distinct = new Short[distinctCount];
+        int position = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                distinct[++position] = values[i];
+            }
+            boxed[i] = distinct[position];
+        }
+    }
+
+    /**
+     * Впорядковує значення.
+     *
+     * @param values Значення (масив не змінюється).
+     * @return Впорядкована послідовність.
+     */
+    public static SortedShortRun of(Short[] values) {
+        short[] sorted = new short[values.length];
+        for (int i = 0; i < values.length; i++) {
+            sorted[i] = values[i];
+        }
+        if (sorted.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(sorted);
+        } else {
+            Arrays.sort(sorted);
+        }
+        return new SortedShortRun(sorted);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public int distinctCount() {
+        return distinct.length;
+    }
+
+    /**
+     * Повертає копію впорядкованих примітивних значень.
+     *
+     * @return Впорядкований масив short.
+     */
+    public short[] toShortArray() {
+        return values.clone();
+    }
+
+    /**
+     * Повертає копію різних значень у порядку зростання.
+     *
+     * @return Впорядкований масив різних значень.
+     */
+    public Short[] toDistinctArray() {
+        return distinct.clone();
+    }
+
+    /**
+     * Повертає індекс Ейтцінгера над впорядкованими значеннями, будуючи його під час першого звернення.
+     * Позиції індексу дійсні для будь-якої впорядкованої копії тих самих значень.
+     *
+     * @return Індекс для бінарного пошуку.
+     */
+    public synchronized EytzingerIndex.OfShort searchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new EytzingerIndex.OfShort(values);
+        }
+        return searchIndex;
+    }
+
+    public synchronized boolean hasSearchIndex() {
+        return searchIndex != null;
+    }
+
+    /**
+     * Будує чергу з пріоритетами. Впорядкований масив задовольняє властивість купи,
+     * тому побудова виконує лише n/2 порівнянь без переміщень.
+     *
+     * @return Черга з усіма значеннями.
+     */
+    public PriorityQueue<Short> toPriorityQueue() {
+        return new PriorityQueue<>(Arrays.asList(boxed));
+    }
+
+    /**
+     * Будує TreeSet за лінійний час: конструктор {@link TreeSet#TreeSet(SortedSet)} складає
+     * збалансоване дерево безпосередньо з впорядкованої послідовності.
+     *
+     * @return TreeSet з різними значеннями.
+     */
+    public TreeSet<Short> toTreeSet() {
+        return new TreeSet<>(new DistinctView(distinct, 0, distinct.length));
+    }
+
+    /**
+     * Незмінний вид SortedSet над діапазоном впорядкованих різних значень.
+     */
+    private static final class DistinctView extends AbstractSet<Short> implements SortedSet<Short> {
+        private final Short[] elements;
+        private final int from;
+        private final int to;
+
+        DistinctView(Short[] elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<Short> iterator() {
+            return new Iterator<>() {
+                private int position = from;
+
+                @Override
+                public boolean hasNext() {
+                    return position < to;
+                }
+
+                @Override
+                public Short next() {
+                    if (position >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return elements[position++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            return value instanceof Short && Arrays.binarySearch(elements, from, to, value) >= 0;
+        }
+
+        @Override
+        public Comparator<? super Short> comparator() {
+            return null;
+        }
+
+        @Override
+        public SortedSet<Short> subSet(Short fromElement, Short toElement) {
+            if (fromElement.compareTo(toElement) > 0) {
+                throw new IllegalArgumentException("Початок діапазону більший за кінець");
+            }
+            return new DistinctView(elements, lowerBound(fromElement), lowerBound(toElement));
+        }
+
+        @Override
+        public SortedSet<Short> headSet(Short toElement) {
+            return new DistinctView(elements, from, lowerBound(toElement));
+        }
+
+        @Override
+        public SortedSet<Short> tailSet(Short fromElement) {
+            return new DistinctView(elements, lowerBound(fromElement), to);
+        }
+
+        @Override
+        public Short first() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return elements[from];
+        }
+
+        @Override
+        public Short last() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return elements[to - 1];
+        }
+
+        // перша позиція в межах виду зі значенням, не меншим за value
+        private int lowerBound(Short value) {
+            int position = Arrays.binarySearch(elements, from, to, value);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Клас StreamingStatistics обчислює статистику файлу даних за один прохід без завантаження в пам'ять.
+ *
+ * <p>Стан займає сталий обсяг пам'яті незалежно від розміру файлу і містить:</p>
+ * <ul>
+ *   <li>кількість, мінімум та максимум значень;</li>
+ *   <li>середнє та дисперсію (алгоритм Велфорда);</li>
+ *   <li>оцінку кількості унікальних значень ({@link HyperLogLog});</li>
+ *   <li>ескіз квантилів ({@link QuantileSketch}).</li>
+ * </ul>
+ *
+ * <p>Часткові стани об'єднуються методом {@link #merge(StreamingStatistics)}, тому
+ * {@link #analyzeFile(String, int)} обробляє частини файлу паралельно.</p>
+ */
+public class StreamingStatistics {
+    private static final long MIN_CHUNK_SIZE = 64 * 1024;
+
+    private long count;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue = Long.MIN_VALUE;
+    private double mean;
+    private double squaredDeviationSum;
+    private final HyperLogLog distinctEstimator = new HyperLogLog();
+    private final QuantileSketch quantileSketch = new QuantileSketch();
+
+    /**
+     * Додає значення до статистики.
+     *
+     * @param value Значення.
+     */
+    public void accept(long value) {
+        count++;
+        if (value < minValue) {
+            minValue = value;
+        }
+        if (value > maxValue) {
+            maxValue = value;
+        }
+
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviationSum += delta * (value - mean);
+
+        distinctEstimator.add(value);
+        quantileSketch.add(value);
+    }
+
+    /**
+     * Об'єднує частковий стан іншої статистики з поточним.
+     *
+     * @param other Статистика іншої частини даних.
+     * @return Поточна статистика.
+     */
+    public StreamingStatistics merge(StreamingStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            mean = other.mean;
+            squaredDeviationSum = other.squaredDeviationSum;
+        } else {
+            // формула Чана для об'єднання середніх та сум квадратів відхилень
+            long combinedCount = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / combinedCount;
+            squaredDeviationSum += other.squaredDeviationSum + delta * delta * count * other.count / combinedCount;
+        }
+        count += other.count;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+        distinctEstimator.merge(other.distinctEstimator);
+        quantileSketch.merge(other.quantileSketch);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return minValue;
+    }
+
+    public long getMax() {
+        return maxValue;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Повертає дисперсію генеральної сукупності.
+     *
+     * @return Дисперсія або 0 для порожніх даних.
+     */
+    public double getVariance() {
+        return count > 0 ? squaredDeviationSum / count : 0;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public long estimateDistinctCount() {
+        return distinctEstimator.estimate();
+    }
+
+    /**
+     * Повертає наближене значення квантиля.
+     *
+     * @param fraction Частка в межах [0, 1].
+     * @return Наближене значення квантиля.
+     */
+    public long quantile(double fraction) {
+        return quantileSketch.quantile(fraction);
+    }
+
+    /**
+     * Обчислює статистику файлу послідовно в одному потоці.
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @return Статистика файлу.
+     */
+    public static StreamingStatistics analyzeFile(String filePath) {
+        StreamingStatistics statistics = new StreamingStatistics();
+        DataFileHandler.streamValuesFromFile(filePath, statistics::accept);
+        return statistics;
+    }
+
+    /**
+     * Обчислює статистику файлу, розбиваючи його на частини, що обробляються паралельно.
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @param parallelism Максимальна кількість паралельних частин.
+     * @return Об'єднана статистика файлу.
+     */
+    public static StreamingStatistics analyzeFile(String filePath, int parallelism) {
+        long fileSize;
+        try {
+            fileSize = Files.size(Path.of(filePath));
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+
+        int chunkCount = (int) Math.max(1, Math.min(parallelism, fileSize / MIN_CHUNK_SIZE));
+        if (chunkCount == 1) {
+            return analyzeFile(filePath);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(chunkCount);
+        try {
+            List<Future<StreamingStatistics>> partialResults = new ArrayList<>();
+            long chunkSize = (fileSize + chunkCount - 1) / chunkCount;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                long chunkStart = chunk * chunkSize;
+                long chunkEnd = Math.min(fileSize, chunkStart + chunkSize);
+                partialResults.add(executor.submit(() -> {
+                    StreamingStatistics partial = new StreamingStatistics();
+                    DataFileHandler.streamValuesFromFile(filePath, chunkStart, chunkEnd, partial::accept);
+                    return partial;
+                }));
+            }
+
+            StreamingStatistics combined = new StreamingStatistics();
+            for (Future<StreamingStatistics> partialResult : partialResults) {
+                combined.merge(partialResult.get());
+            }
+            return combined;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Обробку файлу перервано: " + filePath, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Помилка обробки файлу: " + filePath, e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Виводить звіт зі статистикою через {@link OutputSink}.
+     *
+     * @param title Заголовок звіту.
+     */
+    public void printReport(String title) {
+        OutputSink.println("Статистика '" + title + "':");
+        OutputSink.println("  Кількість значень: " + count);
+        if (count == 0) {
+            return;
+        }
+        OutputSink.println("  Мінімум: " + minValue + ", максимум: " + maxValue);
+        OutputSink.println(String.format("  Середнє: %.3f, дисперсія: %.3f, стандартне відхилення: %.3f",
+                mean, getVariance(), getStandardDeviation()));
+        OutputSink.println("  Оцінка кількості унікальних значень: " + estimateDistinctCount());
+        OutputSink.println("  p50: " + quantile(0.5) + ", p90: " + quantile(0.9) + ", p99: " + quantile(0.99));
+    }
+}
@@ -0,0 +1,371 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Клас TextIndex будує інвертований індекс слів для текстових рядків (наприклад, list/String.data).
+ *
+ * <p>Структура індексу:</p>
+ * <ul>
+ *   <li>словник термінів - відсортований масив слів у нижньому регістрі;</li>
+ *   <li>списки входжень - номери рядків для кожного терміну, стиснуті як дельти у varint;</li>
+ *   <li>префіксне дерево (trie) - кожен вузол знає неперервний діапазон термінів словника з цим префіксом.</li>
+ * </ul>
+ *
+ * <p>Пошук слова, префікса та кількох слів одночасно (AND) виконується за час, пропорційний
+ * розміру списків входжень, без перебору всіх рядків.</p>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java TextIndex golden
+ * java TextIndex "sh*"
+ * java TextIndex morning "gra*"
+ * }
+ * </pre>
+ */
+public class TextIndex {
+    static final String PATH_TO_TEXT_FILE = "list/String.data";
+
+    private final String[] lines;
+    private final String[] terms;
+    private final int[] postingOffsets;
+    private final int[] postingCounts;
+    private final byte[] postingData;
+    private final TrieNode trieRoot = new TrieNode();
+
+    /**
+     * Вузол префіксного дерева. Дочірні вузли зберігаються у відсортованих масивах.
+     */
+    private static class TrieNode {
+        private char[] labels = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private int firstTerm = -1;
+        private int endTerm = -1;
+
+        private TrieNode child(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            return position >= 0 ? children[position] : null;
+        }
+
+        // терміни вставляються у відсортованому порядку, тож нові мітки завжди йдуть в кінець
+        private TrieNode childOrAppend(char label) {
+            int last = labels.length - 1;
+            if (last >= 0 && labels[last] == label) {
+                return children[last];
+            }
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            labels[last + 1] = label;
+            children[last + 1] = new TrieNode();
+            return children[last + 1];
+        }
+    }
+
+    /**
+     * Будує індекс для набору рядків.
+     *
+     * @param textLines Рядки тексту; номер рядка у списку є його ідентифікатором.
+     */
+    TextIndex(List<String> textLines) {
+        this.lines = textLines.toArray(new String[0]);
+
+        // збираємо списки входжень; номери рядків додаються за зростанням
+        TreeMap<String, int[]> postingLists = new TreeMap<>();
+        for (int lineId = 0; lineId < lines.length; lineId++) {
+            for (String term : tokenize(lines[lineId])) {
+                int[] list = postingLists.computeIfAbsent(term, key -> new int[] { 0 });
+                if (list[0] > 0 && list[list[0]] == lineId) {
+                    continue;
+                }
+                if (list[0] + 1 == list.length) {
+                    list = Arrays.copyOf(list, list.length * 2);
+                    postingLists.put(term, list);
+                }
+                list[++list[0]] = lineId;
+            }
+        }
+
+        this.terms = new String[postingLists.size()];
+        this.postingOffsets = new int[terms.length + 1];
+        this.postingCounts = new int[terms.length];
+        VarintBuffer encoded = new VarintBuffer();
+
+        int termId = 0;
+        for (Map.Entry<String, int[]> entry : postingLists.entrySet()) {
+            terms[termId] = entry.getKey();
+            int[] list = entry.getValue();
+            postingCounts[termId] = list[0];
+            postingOffsets[termId] = encoded.size();
+            int previous = 0;
+            for (int i = 1; i <= list[0]; i++) {
+                encoded.write(list[i] - previous);
+                previous = list[i];
+            }
+            insertIntoTrie(terms[termId], termId);
+            termId++;
+        }
+        postingOffsets[terms.length] = encoded.size();
+        this.postingData = encoded.toByteArray();
+    }
+
+    /**
+     * Будує індекс для текстового файлу.
+     *
+     * @param filePath Шлях до файлу з рядками тексту.
+     * @return Побудований індекс.
+     * @throws java.io.UncheckedIOException якщо файл не вдалося прочитати.
+     */
+    public static TextIndex fromFile(String filePath) {
+        List<String> textLines = new ArrayList<>();
+        DataFileHandler.streamLinesFromFile(filePath, textLines::add);
+        return new TextIndex(textLines);
+    }
+
+    /**
+     * Розбиває рядок на терміни: послідовності літер і цифр у нижньому регістрі.
+     *
+     * @param text Рядок тексту.
+     * @return Список термінів у порядку появи.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Знаходить рядки, що містять слово.
+     *
+     * @param word Слово (регістр не враховується).
+     * @return Відсортовані номери рядків.
+     */
+    public int[] findWord(String word) {
+        int termId = Arrays.binarySearch(terms, word.toLowerCase(Locale.ROOT));
+        return termId >= 0 ? decodePostings(termId) : new int[0];
+    }
+
+    /**
+     * Знаходить рядки, що містять хоча б одне слово з заданим префіксом.
+     *
+     * @param prefix Префікс слова (регістр не враховується).
+     * @return Відсортовані номери рядків без повторів.
+     */
+    public int[] findPrefix(String prefix) {
+        TrieNode node = trieRoot;
+        for (char label : prefix.toLowerCase(Locale.ROOT).toCharArray()) {
+            node = node.child(label);
+            if (node == null) {
+                return new int[0];
+            }
+        }
+        if (node.firstTerm < 0) {
+            return new int[0];
+        }
+        if (node.endTerm - node.firstTerm == 1) {
+            return decodePostings(node.firstTerm);
+        }
+
+        int total = 0;
+        for (int termId = node.firstTerm; termId < node.endTerm; termId++) {
+            total += postingCounts[termId];
+        }
+        int[] merged = new int[total];
+        int position = 0;
+        for (int termId = node.firstTerm; termId < node.endTerm; termId++) {
+            int[] postings = decodePostings(termId);
+            System.arraycopy(postings, 0, merged, position, postings.length);
+            position += postings.length;
+        }
+        Arrays.sort(merged);
+        return distinct(merged);
+    }
+
+    /**
+     * Знаходить рядки, що задовольняють усім умовам (AND). Умова із зірочкою в кінці
+     * (наприклад, {@code "sh*"}) є префіксною, інші - пошуком слова.
+     *
+     * @param queries Умови пошуку.
+     * @return Відсортовані номери рядків.
+     */
+    public int[] findAll(String... queries) {
+        if (queries.length == 0) {
+            return new int[0];
+        }
+
+        int[][] results = new int[queries.length][];
+        for (int i = 0; i < queries.length; i++) {
+            String query = queries[i];
+            results[i] = query.endsWith("*")
+                    ? findPrefix(query.substring(0, query.length() - 1))
+                    : findWord(query);
+        }
+
+        // перетинаємо, починаючи з найкоротшого списку
+        Arrays.sort(results, (a, b) -> Integer.compare(a.length, b.length));
+        int[] intersection = results[0];
+        for (int i = 1; i < results.length && intersection.length > 0; i++) {
+            intersection = intersect(intersection, results[i]);
+        }
+        return intersection;
+    }
+
+    /**
+     * Повертає текст рядка за номером.
+     *
+     * @param lineId Номер рядка.
+     * @return Текст рядка.
+     */
+    public String getLine(int lineId) {
+        return lines[lineId];
+    }
+
+    public int getLineCount() {
+        return lines.length;
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /**
+     * Повертає розмір стиснутих списків входжень у байтах.
+     *
+     * @return Розмір стиснутих даних.
+     */
+    public int getPostingBytes() {
+        return postingData.length;
+    }
+
+    private void insertIntoTrie(String term, int termId) {
+        TrieNode node = trieRoot;
+        markTerm(node, termId);
+        for (int i = 0; i < term.length(); i++) {
+            node = node.childOrAppend(term.charAt(i));
+            markTerm(node, termId);
+        }
+    }
+
+    private static void markTerm(TrieNode node, int termId) {
+        if (node.firstTerm < 0) {
+            node.firstTerm = termId;
+        }
+        node.endTerm = termId + 1;
+    }
+
+    private int[] decodePostings(int termId) {
+        int[] postings = new int[postingCounts[termId]];
+        int position = postingOffsets[termId];
+        int previous = 0;
+        for (int i = 0; i < postings.length; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = postingData[position++];
+                delta |= (current & 0x7F) << shift;
+                shift += 7;
+            } while (current < 0);
+            previous += delta;
+            postings[i] = previous;
+        }
+        return postings;
+    }
+
+    private static int[] intersect(int[] first, int[] second) {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static int[] distinct(int[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[size - 1] != sorted[i]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Зростаючий буфер байтів для кодування невід'ємних чисел у форматі varint.
+     */
+    private static class VarintBuffer {
+        private byte[] data = new byte[256];
+        private int size;
+
+        private void write(int value) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * Будує індекс для list/String.data і виконує пошук за умовами з командного рядка.
+     *
+     * @param args Слова або префікси із зірочкою в кінці; всі умови поєднуються через AND.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            OutputSink.println("Використання: java TextIndex <слово|префікс*> [<слово|префікс*> ...]");
+            return;
+        }
+
+        long timeStart = PerformanceTracker.startTiming();
+        TextIndex index = fromFile(PATH_TO_TEXT_FILE);
+        PerformanceTracker.displayOperationTime(timeStart, "побудова інвертованого індексу String.data");
+
+        OutputSink.println("Рядків: " + index.getLineCount() + ", термінів: " + index.getTermCount()
+                + ", стиснуті списки входжень: " + index.getPostingBytes() + " байт");
+
+        timeStart = PerformanceTracker.startTiming();
+        int[] matches = index.findAll(args);
+        PerformanceTracker.displayOperationTime(timeStart, "пошук в інвертованому індексі " + String.join(" AND ", args));
+
+        OutputSink.println("Знайдено рядків: " + matches.length);
+        for (int lineId : matches) {
+            OutputSink.println("  [" + lineId + "] " + index.getLine(lineId));
+        }
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,332 @@
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Клас TimeBucketIndex зберігає часові мітки як секунди епохи UTC у примітивному масиві long
+ * з каталогом часових кошиків (година або доба).
+ *
+ * <p>Каталог містить для кожного кошика зміщення першої мітки в упорядкованому масиві,
+ * тому запит часового вікна виконує перехід до потрібного кошика і короткий перегляд
+ * всередині нього, без сортування об'єктів LocalDateTime.</p>
+ *
+ * <p>Методи класу:</p>
+ * <ul>
+ *   <li>{@link #between(long, long)} - Усі мітки в інтервалі [t1, t2].</li>
+ *   <li>{@link #countBetween(long, long)} - Кількість міток в інтервалі [t1, t2].</li>
+ *   <li>{@link #countPerBucket()} - Кількість міток у кожному непорожньому кошику.</li>
+ *   <li>{@link #latest(int)} - Останні N міток, від найновішої.</li>
+ * </ul>
+ *
+ * <p>Приклад використання:</p>
+ * <pre>
+ * {@code
+ * java TimeBucketIndex 2025-03-01T00:00:00Z 2025-03-31T23:59:59Z
+ * }
+ * </pre>
+ */
+public class TimeBucketIndex {
+    static final String PATH_TO_DATA_FILE = "list/LocalDateTime.data";
+    private static final int MAX_BUCKETS = 1 << 24;
+
+    /**
+     * Розмір часового кошика.
+     */
+    public enum Granularity {
+        HOUR(3600), DAY(86400);
+
+        private final long seconds;
+
+        Granularity(long seconds) {
+            this.seconds = seconds;
+        }
+
+        public long getSeconds() {
+            return seconds;
+        }
+    }
+
+    private final long[] epochSeconds;
+    private final Granularity granularity;
+    private final long firstBucket;
+    private final int[] bucketOffsets;
+
+    /**
+     * Будує індекс з масиву секунд епохи. Масив сортується на місці.
+     *
+     * @param epochSeconds Часові мітки в секундах епохи UTC.
+     * @param granularity Розмір кошика.
+     */
+    TimeBucketIndex(long[] epochSeconds, Granularity granularity) {
+        Arrays.sort(epochSeconds);
+        this.epochSeconds = epochSeconds;
+        this.granularity = granularity;
+
+        if (epochSeconds.length == 0) {
+            this.firstBucket = 0;
+            this.bucketOffsets = new int[] { 0 };
+            return;
+        }
+
+        this.firstBucket = bucketOf(epochSeconds[0]);
+        long bucketCount = bucketOf(epochSeconds[epochSeconds.length - 1]) - firstBucket + 1;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Забагато кошиків (" + bucketCount + ") для розміру " + granularity
+                    + "; оберіть більший розмір кошика.");
+        }
+
+        // bucketOffsets[b] - позиція першої мітки кошика b; останній елемент - загальна кількість
+        this.bucketOffsets = new int[(int) bucketCount + 1];
+        int position = 0;
+        for (int bucket = 0; bucket <= bucketCount; bucket++) {
+            while (position < epochSeconds.length && bucketOf(epochSeconds[position]) - firstBucket < bucket) {
+                position++;
+            }
+            bucketOffsets[bucket] = position;
+        }
+    }
+
+    /**
+     * Завантажує файл з мітками ISO-8601 (наприклад, {@code 2025-12-26T11:24:30Z}) і будує індекс.
+     *
+     * @param filePath Шлях до файлу з даними.
+     * @param granularity Розмір кошика.
+     * @return Побудований індекс.
+     * @throws java.io.UncheckedIOException якщо файл не вдалося прочитати.
+     */
+    public static TimeBucketIndex fromFile(String filePath, Granularity granularity) {
+        long[][] buffer = { new long[1024] };
+        int[] size = { 0 };
+        DataFileHandler.streamLinesFromFile(filePath, line -> {
+            if (size[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], size[0] * 2);
+            }
+            buffer[0][size[0]++] = parseEpochSecond(line);
+        });
+        return new TimeBucketIndex(Arrays.copyOf(buffer[0], size[0]), granularity);
+    }
+
+    /**
+     * Перетворює мітку ISO-8601 у секунди епохи UTC. Формат {@code yyyy-MM-ddTHH:mm:ss}
+     * (із необов'язковим {@code Z}) розбирається без створення проміжних об'єктів;
+     * інші варіанти передаються стандартному розбору java.time.
+     *
+     * @param text Текст мітки.
+     * @return Секунди епохи UTC.
+     */
+    static long parseEpochSecond(String text) {
+        int length = text.length();
+        if ((length == 19 || (length == 20 && text.charAt(19) == 'Z'))
+                && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 14, 16);
+            int second = digits(text, 17, 19);
+            // некоректна дата (наприклад, 31 лютого) передається java.time, який її відхиляє
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth(year, month)
+                    && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60) {
+                return daysFromCivil(year, month, day) * 86400L + hour * 3600L + minute * 60L + second;
+            }
+        }
+        if (text.endsWith("Z")) {
+            return Instant.parse(text).getEpochSecond();
+        }
+        return LocalDateTime.parse(text).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Повертає всі мітки в інтервалі [from, to] у порядку зростання.
+     *
+     * @param from Початок інтервалу (секунди епохи, включно).
+     * @param to Кінець інтервалу (секунди епохи, включно).
+     * @return Мітки в інтервалі.
+     */
+    public long[] between(long from, long to) {
+        if (from > to) {
+            return new long[0];
+        }
+        return Arrays.copyOfRange(epochSeconds, lowerBound(from, false), lowerBound(to, true));
+    }
+
+    /**
+     * Підраховує мітки в інтервалі [from, to].
+     *
+     * @param from Початок інтервалу (секунди епохи, включно).
+     * @param to Кінець інтервалу (секунди епохи, включно).
+     * @return Кількість міток.
+     */
+    public int countBetween(long from, long to) {
+        if (from > to) {
+            return 0;
+        }
+        return lowerBound(to, true) - lowerBound(from, false);
+    }
+
+    /**
+     * Повертає кількість міток у кожному непорожньому кошику.
+     *
+     * @return Масив пар {початок кошика в секундах епохи, кількість}.
+     */
+    public long[][] countPerBucket() {
+        int nonEmpty = 0;
+        for (int bucket = 0; bucket + 1 < bucketOffsets.length; bucket++) {
+            if (bucketOffsets[bucket + 1] > bucketOffsets[bucket]) {
+                nonEmpty++;
+            }
+        }
+
+        long[][] counts = new long[nonEmpty][];
+        int position = 0;
+        for (int bucket = 0; bucket + 1 < bucketOffsets.length; bucket++) {
+            int count = bucketOffsets[bucket + 1] - bucketOffsets[bucket];
+            if (count > 0) {
+                counts[position++] = new long[] { (firstBucket + bucket) * granularity.seconds, count };
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Повертає останні N міток від найновішої до найстарішої.
+     *
+     * @param n Кількість міток.
+     * @return Мітки в порядку спадання.
+     */
+    public long[] latest(int n) {
+        int count = Math.max(0, Math.min(n, epochSeconds.length));
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = epochSeconds[epochSeconds.length - 1 - i];
+        }
+        return result;
+    }
+
+    public int size() {
+        return epochSeconds.length;
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * Повертає впорядкований масив міток (без копіювання).
+     *
+     * @return Масив секунд епохи за зростанням.
+     */
+    long[] sortedEpochSeconds() {
+        return epochSeconds;
+    }
+
+    // позиція першої мітки, більшої за value (inclusive) або не меншої за value:
+    // перехід до кошика і бінарний пошук у його межах
+    private int lowerBound(long value, boolean inclusive) {
+        if (epochSeconds.length == 0) {
+            return 0;
+        }
+        long bucket = bucketOf(value) - firstBucket;
+        if (bucket < 0) {
+            return 0;
+        }
+        if (bucket >= bucketOffsets.length - 1) {
+            return epochSeconds.length;
+        }
+        int low = bucketOffsets[(int) bucket];
+        int high = bucketOffsets[(int) bucket + 1];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long current = epochSeconds[middle];
+            if (current < value || (inclusive && current == value)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long bucketOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, granularity.seconds);
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char current = text.charAt(i);
+            if (current < '0' || current > '9') {
+                return -1;
+            }
+            value = value * 10 + (current - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leapYear = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leapYear ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // кількість днів від 1970-01-01 для дати григоріанського календаря
+    private static long daysFromCivil(int year, int month, int day) {
+        int adjustedYear = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(adjustedYear, 400);
+        long yearOfEra = adjustedYear - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Будує добовий індекс для list/LocalDateTime.data і виводить звіт про часове вікно.
+     *
+     * @param args Необов'язкові межі інтервалу у форматі ISO-8601.
+     */
+    public static void main(String[] args) {
+        long timeStart = PerformanceTracker.startTiming();
+        TimeBucketIndex index = fromFile(PATH_TO_DATA_FILE, Granularity.DAY);
+        PerformanceTracker.displayOperationTime(timeStart, "побудова часового індексу LocalDateTime");
+
+        OutputSink.println("Кількість міток: " + index.size());
+        if (index.size() == 0) {
+            OutputSink.flush();
+            return;
+        }
+
+        long[] sorted = index.sortedEpochSeconds();
+        long from = args.length > 0 ? parseEpochSecond(args[0]) : sorted[0];
+        long to = args.length > 1 ? parseEpochSecond(args[1]) : sorted[sorted.length - 1];
+
+        timeStart = PerformanceTracker.startTiming();
+        int windowCount = index.countBetween(from, to);
+        PerformanceTracker.displayOperationTime(timeStart, "підрахунок міток у часовому вікні");
+        OutputSink.println("Міток у вікні [" + Instant.ofEpochSecond(from) + ", " + Instant.ofEpochSecond(to) + "]: " + windowCount);
+
+        timeStart = PerformanceTracker.startTiming();
+        long[][] perBucket = index.countPerBucket();
+        PerformanceTracker.displayOperationTime(timeStart, "підрахунок міток по кошиках");
+        OutputSink.println("Непорожніх кошиків (" + index.getGranularity() + "): " + perBucket.length);
+
+        timeStart = PerformanceTracker.startTiming();
+        long[] latest = index.latest(5);
+        PerformanceTracker.displayOperationTime(timeStart, "вибір останніх міток");
+        OutputSink.println("Останні мітки:");
+        for (long epochSecond : latest) {
+            OutputSink.println("  " + Instant.ofEpochSecond(epochSecond));
+        }
+        OutputSink.flush();
+    }
+}
@@ -0,0 +1,254 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Клас WorkloadTrace - запис послідовності операцій з аргументами для відтворення навантаження.
+ *
+ * <p>Траса зберігається текстовим файлом, по одній операції в рядку: назва операції
+ * і, для операцій з аргументом, значення short, наприклад {@code SEARCH 420} або {@code POLL}.
+ * Трасу можна записати під час роботи ({@link #record(Operation, short)} потокобезпечний),
+ * згенерувати із заданого співвідношення операцій ({@link #generate(Map, int, long)}) або
+ * завантажити з файлу ({@link #load(Path)}).</p>
+ *
+ * <p>Обробники short (List, Queue, Set та {@link AdaptiveShortStore}) передають свої операції пошуку,
+ * вставки, мінімуму й максимуму та вилучення до {@link #recordOperation(Operation, short)}. Запис вмикається
+ * властивістю {@code -Dworkload.trace=файл}; наприкінці {@link BasicDataOperation} траса зберігається
+ * до цього файлу й далі відтворюється {@code java LoadGenerator --trace=файл}. Без властивості виклики
+ * зводяться до перевірки статичного поля.</p>
+ */
+public class WorkloadTrace {
+    static final String FILE_SUFFIX = ".trace";
+    static final String RECORD_PROPERTY = "workload.trace";
+
+    private static final String RECORD_FILE = System.getProperty(RECORD_PROPERTY);
+    private static final WorkloadTrace RECORDER = RECORD_FILE == null ? null : new WorkloadTrace();
+
+    /**
+     * Тип операції навантаження.
+     */
+    public enum Operation {
+        SEARCH(true), ADD(true), REMOVE(true), MIN_MAX(false), POLL(false);
+
+        private final boolean hasArgument;
+
+        Operation(boolean hasArgument) {
+            this.hasArgument = hasArgument;
+        }
+
+        public boolean hasArgument() {
+            return hasArgument;
+        }
+    }
+
+    /**
+     * Одна операція траси.
+     */
+    public static final class Entry {
+        private final Operation operation;
+        private final short argument;
+
+        Entry(Operation operation, short argument) {
+            this.operation = operation;
+            this.argument = argument;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public short getArgument() {
+            return argument;
+        }
+
+        @Override
+        public String toString() {
+            return operation.hasArgument() ? operation + " " + argument : operation.name();
+        }
+    }
+
+    private final List<Entry> entries;
+
+    /**
+     * Створює порожню трасу для запису.
+     */
+    WorkloadTrace() {
+        this.entries = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    private WorkloadTrace(List<Entry> entries) {
+        this.entries = Collections.synchronizedList(entries);
+    }
+
+    /**
+     * Додає операцію до траси.
+     *
+     * @param operation Операція.
+     * @param argument Аргумент (ігнорується для операцій без аргументу).
+     */
+    public void record(Operation operation, short argument) {
+        entries.add(new Entry(operation, operation.hasArgument() ? argument : 0));
+    }
+
+    /**
+     * Додає операцію обробника до траси процесу, якщо запис увімкнено властивістю {@code workload.trace}.
+     *
+     * @param operation Операція.
+     * @param argument Аргумент (ігнорується для операцій без аргументу).
+     */
+    static void recordOperation(Operation operation, short argument) {
+        if (RECORDER != null) {
+            RECORDER.record(operation, argument);
+        }
+    }
+
+    /**
+     * Зберігає записану трасу процесу до файлу з властивості {@code workload.trace}.
+     * Якщо запис не увімкнено, нічого не робить.
+     *
+     * @throws UncheckedIOException якщо запис не вдався.
+     */
+    static void saveRecording() {
+        if (RECORDER != null) {
+            RECORDER.save(Path.of(RECORD_FILE));
+            OutputSink.println("Трасу з " + RECORDER.size() + " операцій збережено до " + RECORD_FILE);
+        }
+    }
+
+    /**
+     * Повертає знімок операцій траси.
+     *
+     * @return Незмінний список операцій у порядку запису.
+     */
+    public List<Entry> getEntries() {
+        synchronized (entries) {
+            return List.copyOf(entries);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Генерує трасу із заданим співвідношенням операцій.
+     *
+     * @param mix Вага кожної операції (відсутні операції не генеруються).
+     * @param length Кількість операцій.
+     * @param seed Початкове значення генератора випадкових чисел.
+     * @return Траса.
+     * @throws IllegalArgumentException якщо якась вага від'ємна або сума ваг не додатна.
+     */
+    public static WorkloadTrace generate(Map<Operation, Integer> mix, int length, long seed) {
+        int totalWeight = 0;
+        for (int weight : mix.values()) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вага операції не може бути від'ємною: " + mix);
+            }
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Сума ваг операцій має бути додатною: " + mix);
+        }
+
+        Random random = new Random(seed);
+        List<Entry> entries = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            int ticket = random.nextInt(totalWeight);
+            Operation chosen = null;
+            for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+                ticket -= weight.getValue();
+                if (ticket < 0) {
+                    chosen = weight.getKey();
+                    break;
+                }
+            }
+            entries.add(new Entry(chosen, chosen.hasArgument() ? (short) random.nextInt() : 0));
+        }
+        return new WorkloadTrace(entries);
+    }
+
+    /**
+     * Розбирає співвідношення операцій у форматі {@code search=60,add=15,remove=10,min_max=10,poll=5}.
+     *
+     * @param text Текст співвідношення.
+     * @return Ваги операцій.
+     * @throws IllegalArgumentException якщо формат некоректний або вага від'ємна.
+     */
+    public static Map<Operation, Integer> parseMix(String text) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : text.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Некоректний елемент співвідношення: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вага операції не може бути від'ємною: " + part);
+            }
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+        }
+        return mix;
+    }
+
+    /**
+     * Зберігає трасу у файл.
+     *
+     * @param file Шлях до файлу.
+     * @throws UncheckedIOException якщо запис не вдався.
+     */
+    public void save(Path file) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Entry entry : getEntries()) {
+                writer.write(entry.toString());
+                writer.newLine();
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Завантажує трасу з файлу.
+     *
+     * @param file Шлях до файлу.
+     * @return Траса.
+     * @throws IllegalArgumentException якщо рядок файлу некоректний.
+     * @throws UncheckedIOException якщо читання не вдалося.
+     */
+    public static WorkloadTrace load(Path file) {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                try {
+                    Operation operation = Operation.valueOf(parts[0]);
+                    short argument = operation.hasArgument() ? Short.parseShort(parts[1]) : 0;
+                    entries.add(new Entry(operation, argument));
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    throw new IllegalArgumentException("Некоректний рядок траси " + file + ":" + lineNumber + ": " + line, e);
+                }
+            }
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+        return new WorkloadTrace(entries);
+    }
+}